@@ -0,0 +1,49 @@
+package com.sampleProject.BankingSystem.controller;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.sampleProject.BankingSystem.dto.AccountDtos;
+import com.sampleProject.BankingSystem.model.Account;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.model.Customer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to response mapping. Transaction pages are built by JPQL constructor projections, so the
+ * transaction side measures the TransactionResponse constructor those queries call.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoMappingBenchmark {
+    Account account;
+    Instant now = Instant.now();
+
+    @Setup
+    public void setup() {
+        Customer c = new Customer();
+        c.setId(7L);
+        account = new Account();
+        account.setId(5L);
+        account.setAccountNumber("123456789012");
+        account.setCustomer(c);
+        account.setAccountType(AccountType.SAVINGS);
+        account.setBalance(new BigDecimal("1500.00"));
+        account.setOpenedAt(now);
+        account.setInterestRate(new BigDecimal("0.0150"));
+        account.setStatus("ACTIVE");
+    }
+
+    @Benchmark
+    public AccountDtos.AccountResponse accountToDto() {
+        return AccountController.toDto(account);
+    }
+
+    @Benchmark
+    public AccountDtos.TransactionResponse transactionProjection() {
+        return new AccountDtos.TransactionResponse(41L, "DEPOSIT", account.getBalance(), now, "jmh");
+    }
+}
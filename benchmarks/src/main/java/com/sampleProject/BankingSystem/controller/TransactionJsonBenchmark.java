@@ -0,0 +1,41 @@
+package com.sampleProject.BankingSystem.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.sampleProject.BankingSystem.dto.AccountDtos;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** JSON encoding of a transaction page, with an ObjectMapper configured the way Spring MVC builds it. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionJsonBenchmark {
+    @Param({"50", "500"})
+    int pageSize;
+
+    ObjectMapper mapper;
+    List<AccountDtos.TransactionResponse> page;
+
+    @Setup
+    public void setup() {
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+        page = new ArrayList<>(pageSize);
+        Instant t = Instant.parse("2025-10-01T10:40:15.456Z");
+        for (int i = 0; i < pageSize; i++) {
+            page.add(new AccountDtos.TransactionResponse((long) i, i % 2 == 0 ? "DEPOSIT" : "WITHDRAWAL",
+                    new BigDecimal("10.00").add(BigDecimal.valueOf(i)), t.plusSeconds(i), i % 3 == 0 ? null : "note " + i));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return mapper.writeValueAsBytes(page);
+    }
+}
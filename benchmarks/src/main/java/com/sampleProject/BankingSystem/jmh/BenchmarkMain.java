@@ -0,0 +1,41 @@
+package com.sampleProject.BankingSystem.jmh;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Runs the selected suites once per thread count and writes one JMH JSON result file per run.
+ *
+ * System properties: jmh.include (regex, default all), jmh.threads (default 1,4,8),
+ * jmh.out (default target/jmh), jmh.forks (1), jmh.warmup / jmh.iterations (3 / 5, one second each).
+ */
+public final class BenchmarkMain {
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        String include = System.getProperty("jmh.include", ".*");
+        Path out = Path.of(System.getProperty("jmh.out", "target/jmh"));
+        Files.createDirectories(out);
+        for (String t : System.getProperty("jmh.threads", "1,4,8").split(",")) {
+            int threads = Integer.parseInt(t.trim());
+            Options opts = new OptionsBuilder()
+                    .include(include)
+                    .threads(threads)
+                    .forks(Integer.getInteger("jmh.forks", 1))
+                    .warmupIterations(Integer.getInteger("jmh.warmup", 3))
+                    .warmupTime(TimeValue.seconds(1))
+                    .measurementIterations(Integer.getInteger("jmh.iterations", 5))
+                    .measurementTime(TimeValue.seconds(1))
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(out.resolve("results-" + threads + "t.json").toString())
+                    .build();
+            new Runner(opts).run();
+        }
+    }
+}
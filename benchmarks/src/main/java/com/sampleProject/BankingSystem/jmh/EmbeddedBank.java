@@ -0,0 +1,74 @@
+package com.sampleProject.BankingSystem.jmh;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.sampleProject.BankingSystem.BankingSystemApplication;
+import com.sampleProject.BankingSystem.dto.AccountDtos;
+import com.sampleProject.BankingSystem.dto.CustomerDtos;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.service.AccountService;
+import com.sampleProject.BankingSystem.service.CustomerService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** The application context on an in-process H2 database, without the web tier. */
+public final class EmbeddedBank implements AutoCloseable {
+    private final ConfigurableApplicationContext context;
+
+    public EmbeddedBank() {
+        this(Map.of());
+    }
+
+    /** @param overrides extra or replacement application properties, e.g. the pool size or JDBC URL */
+    public EmbeddedBank(Map<String, String> overrides) {
+        // passed as command-line arguments so they override the application's own application.properties
+        Map<String, String> props = new LinkedHashMap<>();
+        props.put("spring.datasource.url", "jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=60000");
+        props.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        props.put("spring.datasource.username", "sa");
+        props.put("spring.datasource.password", "");
+        props.put("spring.datasource.hikari.maximum-pool-size", "16");
+        props.put("spring.jpa.hibernate.ddl-auto", "create-drop");
+        props.put("spring.jpa.show-sql", "false");
+        props.put("spring.jpa.properties.hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        props.put("spring.jpa.open-in-view", "false");
+        props.put("spring.sql.init.mode", "never");
+        props.put("logging.level.root", "WARN");
+        props.putAll(overrides);
+        context = new SpringApplicationBuilder(BankingSystemApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(props.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public Long newCustomer() {
+        CustomerDtos.CreateCustomerRequest req = new CustomerDtos.CreateCustomerRequest();
+        req.setFirstName("Bench");
+        req.setEmail("jmh-" + System.nanoTime() + "@bench.test");
+        req.setPhone("1234567890");
+        req.setDob(LocalDate.of(1990, 1, 1));
+        req.setPassword("Bench123");
+        return bean(CustomerService.class).createCustomer(req).getId();
+    }
+
+    public Long newAccount(Long customerId, BigDecimal openingBalance) {
+        AccountDtos.CreateAccountRequest req = new AccountDtos.CreateAccountRequest();
+        req.customerId = customerId;
+        req.accountType = AccountType.SAVINGS;
+        req.openingBalance = openingBalance;
+        return bean(AccountService.class).createAccount(req).getId();
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
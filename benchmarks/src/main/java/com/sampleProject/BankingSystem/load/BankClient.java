@@ -0,0 +1,46 @@
+package com.sampleProject.BankingSystem.load;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/** The operations the load simulator drives, either in-process or over HTTP. */
+interface BankClient extends AutoCloseable {
+
+    enum Outcome {
+        OK,
+        /** refused by a business rule, e.g. insufficient funds; nothing changed */
+        REJECTED,
+        DEADLOCK,
+        LOCK_TIMEOUT,
+        /** optimistic locking mode ran out of retries */
+        WRITE_CONFLICT,
+        /** failed and rolled back for another reason */
+        ERROR,
+        /** no answer (HTTP timeout or broken connection): may or may not have been applied */
+        UNKNOWN
+    }
+
+    Long createCustomer(int n);
+
+    Long createAccount(Long customerId, BigDecimal openingBalance);
+
+    Outcome deposit(Long accountId, BigDecimal amount);
+
+    Outcome withdraw(Long accountId, BigDecimal amount);
+
+    Outcome transfer(Long fromAccountId, Long toAccountId, BigDecimal amount);
+
+    /** Total balance (account row plus hot-account slots) per account. */
+    Map<Long, BigDecimal> balances(List<Long> accountIds);
+
+    /** Signed sum of the ledger rows per account: credits count positive, debits negative. */
+    Map<Long, BigDecimal> ledgerSums(List<Long> accountIds);
+
+    @Override
+    void close();
+
+    static boolean isDebit(String txnType) {
+        return "WITHDRAWAL".equals(txnType) || "TRANSFER_OUT".equals(txnType);
+    }
+}
@@ -0,0 +1,182 @@
+package com.sampleProject.BankingSystem.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/** Drives a running instance through the REST API. */
+final class HttpBankClient implements BankClient {
+    private static final int PAGE_SIZE = 500;
+
+    private final String baseUrl;
+    private final Duration timeout;
+    private final HttpClient http;
+    private final ObjectMapper json = new ObjectMapper();
+    private final String run = Long.toString(System.currentTimeMillis(), 36);
+
+    HttpBankClient(String baseUrl, Duration timeout) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+        this.http = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+    }
+
+    @Override
+    public Long createCustomer(int n) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("firstName", "Load");
+        body.put("lastName", "Customer " + n);
+        body.put("email", "load-" + run + "-" + n + "@load.test");
+        body.put("phone", "1234567890");
+        body.put("dob", "1990-01-01");
+        body.put("password", "Load1234");
+        return setup("/api/v1/customers", body).get("id").asLong();
+    }
+
+    @Override
+    public Long createAccount(Long customerId, BigDecimal openingBalance) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("customerId", customerId);
+        body.put("accountType", "SAVINGS");
+        body.put("openingBalance", openingBalance);
+        return setup("/api/v1/accounts", body).get("id").asLong();
+    }
+
+    @Override
+    public Outcome deposit(Long accountId, BigDecimal amount) {
+        return post("/api/v1/accounts/" + accountId + "/deposit", Map.of("amount", amount, "note", "load"));
+    }
+
+    @Override
+    public Outcome withdraw(Long accountId, BigDecimal amount) {
+        return post("/api/v1/accounts/" + accountId + "/withdraw", Map.of("amount", amount, "note", "load"));
+    }
+
+    @Override
+    public Outcome transfer(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        return post("/api/v1/accounts/transfer",
+                Map.of("fromAccountId", fromAccountId, "toAccountId", toAccountId, "amount", amount, "note", "load"));
+    }
+
+    private Outcome post(String path, Map<String, Object> body) {
+        HttpResponse<String> resp;
+        try {
+            resp = http.send(request(path).POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body))).build(),
+                    HttpResponse.BodyHandlers.ofString());
+        } catch (IOException ex) {
+            return Outcome.UNKNOWN;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return Outcome.UNKNOWN;
+        }
+        int status = resp.statusCode();
+        if (status / 100 == 2) return Outcome.OK;
+        if (status == 400 || status == 409) return Outcome.REJECTED;
+        if (status == 503) {
+            // GlobalExceptionHandler reports lock failures and write conflicts as 503 with the kind in "error"
+            String error = errorOf(resp.body());
+            if ("deadlock".equals(error)) return Outcome.DEADLOCK;
+            if ("lock_timeout".equals(error)) return Outcome.LOCK_TIMEOUT;
+            if ("write_conflict".equals(error)) return Outcome.WRITE_CONFLICT;
+        }
+        return Outcome.ERROR;
+    }
+
+    private String errorOf(String body) {
+        try {
+            return json.readTree(body).path("error").asText(null);
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    @Override
+    public Map<Long, BigDecimal> balances(List<Long> accountIds) {
+        Map<Long, BigDecimal> out = new HashMap<>();
+        for (Long id : accountIds) out.put(id, get("/api/v1/accounts/" + id).body().get("balance").decimalValue());
+        return out;
+    }
+
+    @Override
+    public Map<Long, BigDecimal> ledgerSums(List<Long> accountIds) {
+        Map<Long, BigDecimal> out = new HashMap<>();
+        for (Long id : accountIds) {
+            BigDecimal sum = BigDecimal.ZERO;
+            String cursor = null;
+            do {
+                String path = "/api/v1/accounts/" + id + "/transactions?limit=" + PAGE_SIZE
+                        + (cursor != null ? "&cursor=" + URLEncoder.encode(cursor, StandardCharsets.UTF_8) : "");
+                Page page = get(path);
+                for (JsonNode txn : page.body()) {
+                    BigDecimal amount = txn.get("amount").decimalValue();
+                    sum = sum.add(BankClient.isDebit(txn.get("txnType").asText()) ? amount.negate() : amount);
+                }
+                cursor = page.nextCursor();
+            } while (cursor != null);
+            out.put(id, sum);
+        }
+        return out;
+    }
+
+    private record Page(JsonNode body, String nextCursor) {}
+
+    private Page get(String path) {
+        HttpResponse<String> resp = send(request(path).GET().build());
+        if (resp.statusCode() != 200) throw new IllegalStateException("GET " + path + " returned " + resp.statusCode() + ": " + resp.body());
+        try {
+            return new Page(json.readTree(resp.body()), resp.headers().firstValue("X-Next-Cursor").orElse(null));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private JsonNode setup(String path, Map<String, Object> body) {
+        try {
+            HttpResponse<String> resp = send(request(path).POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(body))).build());
+            if (resp.statusCode() != 201) throw new IllegalStateException("POST " + path + " returned " + resp.statusCode() + ": " + resp.body());
+            return json.readTree(resp.body());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest req) {
+        try {
+            return http.send(req, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted", ex);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    @Override
+    public void close() {
+        http.close();
+    }
+}
@@ -0,0 +1,227 @@
+package com.sampleProject.BankingSystem.load;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Creates customers and accounts, fires a random mix of transfers, deposits and withdrawals at a
+ * fixed concurrency, then reports throughput, latency percentiles and lock failures, and checks that
+ * no money was created or lost and that every balance matches its ledger. Exits with status 1 when a
+ * check fails.
+ *
+ * The operation sequence depends only on load.seed, so two runs with the same settings send the same
+ * operations (the interleaving still varies). System properties are listed in benchmarks/README.md.
+ */
+public final class LoadSimulator {
+    private static final String[] KINDS = {"transfer", "deposit", "withdraw"};
+    private static final int TRANSFER = 0, DEPOSIT = 1, WITHDRAW = 2;
+
+    private final BankClient client;
+    private final int accounts;
+    private final int operations;
+    private final int concurrency;
+    private final ZipfSampler sampler;
+    private final int[] mix;
+    private final long maxAmountCents;
+    private final long seed;
+
+    private final long[] latencyNanos;
+    private final byte[] kinds;
+    private final BankClient.Outcome[] outcomes;
+    // cents added by successful deposits minus cents removed by successful withdrawals
+    private final LongAdder netInflowCents = new LongAdder();
+    private List<Long> accountIds;
+
+    LoadSimulator(BankClient client, int accounts, int operations, int concurrency, double skew, int[] mix,
+                  BigDecimal maxAmount, long seed) {
+        if (accounts < 2) throw new IllegalArgumentException("load.accounts must be at least 2");
+        this.client = client;
+        this.accounts = accounts;
+        this.operations = operations;
+        this.concurrency = concurrency;
+        this.sampler = new ZipfSampler(accounts, skew, seed);
+        this.mix = mix;
+        this.maxAmountCents = maxAmount.movePointRight(2).longValueExact();
+        this.seed = seed;
+        this.latencyNanos = new long[operations];
+        this.kinds = new byte[operations];
+        this.outcomes = new BankClient.Outcome[operations];
+    }
+
+    public static void main(String[] args) throws Exception {
+        String target = System.getProperty("load.target", "service");
+        int customers = Integer.getInteger("load.customers", 10);
+        int accounts = Integer.getInteger("load.accounts", 100);
+        BigDecimal opening = new BigDecimal(System.getProperty("load.opening-balance", "1000.00"));
+        double skew = Double.parseDouble(System.getProperty("load.skew", "0"));
+
+        BankClient client;
+        if ("http".equals(target)) {
+            client = new HttpBankClient(System.getProperty("load.url", "http://localhost:8080"),
+                    Duration.parse(System.getProperty("load.http-timeout", "PT30S")));
+        } else if ("service".equals(target)) {
+            Map<String, String> overrides = new LinkedHashMap<>();
+            overrides.put("spring.datasource.url", "jdbc:h2:mem:load;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT="
+                    + Integer.getInteger("load.lock-timeout-ms", 10_000));
+            overrides.put("spring.datasource.hikari.maximum-pool-size", Integer.toString(Integer.getInteger("load.pool-size", 16)));
+            overrides.put("banking.locking.default", System.getProperty("load.locking", "PESSIMISTIC"));
+            // lock failures are counted in the report, not logged one by one
+            overrides.put("logging.level.org.hibernate.engine.jdbc.spi.SqlExceptionHelper", "OFF");
+            client = new ServiceBankClient(overrides);
+        } else {
+            throw new IllegalArgumentException("load.target must be service or http");
+        }
+
+        boolean passed;
+        try (client) {
+            LoadSimulator sim = new LoadSimulator(client, accounts,
+                    Integer.getInteger("load.operations", 20_000),
+                    Integer.getInteger("load.concurrency", 16),
+                    skew,
+                    parseMix(System.getProperty("load.mix", "70,15,15")),
+                    new BigDecimal(System.getProperty("load.max-amount", "100.00")),
+                    Long.getLong("load.seed", 42L));
+            System.out.printf("target=%s customers=%d accounts=%d concurrency=%d operations=%d skew=%.2f (hottest account gets %.1f%% of picks)%n",
+                    target, customers, sim.accounts, sim.concurrency, sim.operations, skew, sim.sampler.topShare() * 100);
+            sim.setUp(customers, opening);
+            long millis = sim.run();
+            sim.report(millis);
+            passed = sim.check(opening.multiply(BigDecimal.valueOf(accounts)));
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    static int[] parseMix(String mix) {
+        int[] weights = Arrays.stream(mix.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+        if (weights.length != 3 || Arrays.stream(weights).anyMatch(w -> w < 0) || Arrays.stream(weights).sum() == 0) {
+            throw new IllegalArgumentException("load.mix must be three non-negative weights: transfer,deposit,withdraw");
+        }
+        return weights;
+    }
+
+    void setUp(int customers, BigDecimal opening) {
+        List<Long> customerIds = new ArrayList<>(customers);
+        for (int c = 0; c < customers; c++) customerIds.add(client.createCustomer(c));
+        accountIds = new ArrayList<>(accounts);
+        for (int a = 0; a < accounts; a++) accountIds.add(client.createAccount(customerIds.get(a % customers), opening));
+    }
+
+    /** Runs every operation and returns the wall-clock time in milliseconds. */
+    long run() throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        List<Future<?>> workers = new ArrayList<>(concurrency);
+        long began = System.nanoTime();
+        for (int t = 0; t < concurrency; t++) {
+            workers.add(pool.submit(() -> {
+                for (int i = next.getAndIncrement(); i < operations; i = next.getAndIncrement()) execute(i);
+            }));
+        }
+        for (Future<?> w : workers) w.get();
+        long millis = Math.max(1, (System.nanoTime() - began) / 1_000_000);
+        pool.shutdown();
+        return millis;
+    }
+
+    private void execute(int i) {
+        // one generator per operation index keeps the sequence independent of thread scheduling
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + i);
+        int kind = pickKind(random);
+        long cents = 1 + random.nextLong(maxAmountCents);
+        BigDecimal amount = BigDecimal.valueOf(cents, 2);
+        Long account = accountIds.get(sampler.next(random));
+        Long other = account;
+        if (kind == TRANSFER) {
+            while (other.equals(account)) other = accountIds.get(sampler.next(random));
+        }
+
+        long start = System.nanoTime();
+        BankClient.Outcome outcome = switch (kind) {
+            case DEPOSIT -> client.deposit(account, amount);
+            case WITHDRAW -> client.withdraw(account, amount);
+            default -> client.transfer(account, other, amount);
+        };
+        latencyNanos[i] = System.nanoTime() - start;
+        kinds[i] = (byte) kind;
+        outcomes[i] = outcome;
+        if (outcome == BankClient.Outcome.OK && kind == DEPOSIT) netInflowCents.add(cents);
+        if (outcome == BankClient.Outcome.OK && kind == WITHDRAW) netInflowCents.add(-cents);
+    }
+
+    private int pickKind(SplittableRandom random) {
+        int r = random.nextInt(mix[0] + mix[1] + mix[2]);
+        if (r < mix[0]) return TRANSFER;
+        return r < mix[0] + mix[1] ? DEPOSIT : WITHDRAW;
+    }
+
+    void report(long millis) {
+        System.out.printf("%nelapsed %.1f s, throughput %.0f ops/s%n%n", millis / 1000.0, operations * 1000.0 / millis);
+        System.out.printf("%-9s %8s %8s %9s %9s %13s %9s %7s %8s %9s %9s %9s%n",
+                "op", "count", "ok", "rejected", "deadlock", "lock-timeout", "conflict", "error", "unknown", "p50 ms", "p99 ms", "p999 ms");
+        for (int k = 0; k < KINDS.length; k++) row(KINDS[k], k);
+        row("all", -1);
+    }
+
+    private void row(String label, int kind) {
+        long[] lat = new long[operations];
+        int[] counts = new int[BankClient.Outcome.values().length];
+        int n = 0;
+        for (int i = 0; i < operations; i++) {
+            if (kind >= 0 && kinds[i] != kind) continue;
+            lat[n++] = latencyNanos[i];
+            counts[outcomes[i].ordinal()]++;
+        }
+        Arrays.sort(lat, 0, n);
+        System.out.printf("%-9s %8d %8d %9d %9d %13d %9d %7d %8d %9.2f %9.2f %9.2f%n", label, n,
+                counts[BankClient.Outcome.OK.ordinal()], counts[BankClient.Outcome.REJECTED.ordinal()],
+                counts[BankClient.Outcome.DEADLOCK.ordinal()], counts[BankClient.Outcome.LOCK_TIMEOUT.ordinal()],
+                counts[BankClient.Outcome.WRITE_CONFLICT.ordinal()], counts[BankClient.Outcome.ERROR.ordinal()], counts[BankClient.Outcome.UNKNOWN.ordinal()],
+                percentileMillis(lat, n, 0.50), percentileMillis(lat, n, 0.99), percentileMillis(lat, n, 0.999));
+    }
+
+    // nearest-rank percentile
+    static double percentileMillis(long[] sorted, int n, double p) {
+        if (n == 0) return 0;
+        int rank = (int) Math.ceil(p * n);
+        return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+
+    /** Money conservation and per-account ledger checks; prints each result and returns true when both pass. */
+    boolean check(BigDecimal openingTotal) {
+        Map<Long, BigDecimal> balances = client.balances(accountIds);
+        Map<Long, BigDecimal> ledger = client.ledgerSums(accountIds);
+
+        BigDecimal expected = openingTotal.add(BigDecimal.valueOf(netInflowCents.sum(), 2));
+        BigDecimal actual = balances.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        long unknownInflow = 0;
+        for (int i = 0; i < operations; i++) {
+            if (outcomes[i] == BankClient.Outcome.UNKNOWN && kinds[i] != TRANSFER) unknownInflow++;
+        }
+        boolean conserved = expected.compareTo(actual) == 0;
+        System.out.printf("%nmoney conservation: expected %s, actual %s  %s%n", expected, actual,
+                conserved ? "OK" : unknownInflow > 0 ? "INCONCLUSIVE (" + unknownInflow + " deposits/withdrawals without an answer)" : "FAILED");
+
+        int mismatched = 0;
+        for (Long id : accountIds) {
+            BigDecimal balance = balances.get(id);
+            BigDecimal sum = ledger.get(id);
+            if (balance == null || sum == null || balance.compareTo(sum) != 0) {
+                if (mismatched++ < 10) System.out.printf("  account %d: balance %s, ledger %s%n", id, balance, sum);
+            }
+        }
+        System.out.printf("ledger: %d of %d accounts match their transactions  %s%n",
+                accountIds.size() - mismatched, accountIds.size(), mismatched == 0 ? "OK" : "FAILED");
+        return (conserved || unknownInflow > 0) && mismatched == 0;
+    }
+}
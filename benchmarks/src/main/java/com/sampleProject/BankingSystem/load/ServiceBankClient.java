@@ -0,0 +1,104 @@
+package com.sampleProject.BankingSystem.load;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.sampleProject.BankingSystem.jmh.EmbeddedBank;
+import com.sampleProject.BankingSystem.service.AccountService;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** Calls AccountService directly on an embedded application context (H2 unless the JDBC URL is overridden). */
+final class ServiceBankClient implements BankClient {
+    private final EmbeddedBank bank;
+    private final AccountService accountService;
+    private final NamedParameterJdbcTemplate jdbc;
+
+    ServiceBankClient(Map<String, String> overrides) {
+        bank = new EmbeddedBank(overrides);
+        accountService = bank.bean(AccountService.class);
+        jdbc = bank.bean(NamedParameterJdbcTemplate.class);
+    }
+
+    @Override
+    public Long createCustomer(int n) {
+        return bank.newCustomer();
+    }
+
+    @Override
+    public Long createAccount(Long customerId, BigDecimal openingBalance) {
+        return bank.newAccount(customerId, openingBalance);
+    }
+
+    @Override
+    public Outcome deposit(Long accountId, BigDecimal amount) {
+        return call(() -> accountService.deposit(accountId, amount, "load"));
+    }
+
+    @Override
+    public Outcome withdraw(Long accountId, BigDecimal amount) {
+        return call(() -> accountService.withdraw(accountId, amount, "load"));
+    }
+
+    @Override
+    public Outcome transfer(Long fromAccountId, Long toAccountId, BigDecimal amount) {
+        return call(() -> accountService.transfer(fromAccountId, toAccountId, amount, "load"));
+    }
+
+    private static Outcome call(Runnable op) {
+        try {
+            op.run();
+            return Outcome.OK;
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            return Outcome.REJECTED;
+        } catch (RuntimeException ex) {
+            return classify(ex);
+        }
+    }
+
+    // Postgres: 40P01 deadlock_detected, 55P03 lock_not_available. H2: 40001 deadlock, HYT00 lock timeout.
+    static Outcome classify(Throwable ex) {
+        if (ex instanceof OptimisticLockingFailureException) return Outcome.WRITE_CONFLICT;
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && sql.getSQLState() != null) {
+                switch (sql.getSQLState()) {
+                    case "40P01", "40001" -> { return Outcome.DEADLOCK; }
+                    case "55P03", "HYT00" -> { return Outcome.LOCK_TIMEOUT; }
+                    default -> { }
+                }
+            }
+        }
+        return ex instanceof PessimisticLockingFailureException ? Outcome.LOCK_TIMEOUT : Outcome.ERROR;
+    }
+
+    @Override
+    public Map<Long, BigDecimal> balances(List<Long> accountIds) {
+        Map<Long, BigDecimal> out = new HashMap<>();
+        jdbc.query("select a.id, a.balance + coalesce((select sum(s.balance) from account_balance_slots s where s.account_id = a.id), 0) "
+                        + "from accounts a where a.id in (:ids)",
+                Map.of("ids", accountIds), rs -> { out.put(rs.getLong(1), rs.getBigDecimal(2)); });
+        return out;
+    }
+
+    @Override
+    public Map<Long, BigDecimal> ledgerSums(List<Long> accountIds) {
+        Map<Long, BigDecimal> out = new HashMap<>();
+        for (Long id : accountIds) out.put(id, BigDecimal.ZERO);
+        jdbc.query("select account_id, txn_type, sum(amount) from transactions where account_id in (:ids) group by account_id, txn_type",
+                Map.of("ids", accountIds), rs -> {
+                    BigDecimal amount = rs.getBigDecimal(3);
+                    out.merge(rs.getLong(1), BankClient.isDebit(rs.getString(2)) ? amount.negate() : amount, BigDecimal::add);
+                });
+        return out;
+    }
+
+    @Override
+    public void close() {
+        bank.close();
+    }
+}
@@ -0,0 +1,50 @@
+package com.sampleProject.BankingSystem.load;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Picks an index in [0, n) with Zipfian probability: rank k is chosen in proportion to 1 / k^skew.
+ * A skew of 0 is uniform; around 1 a handful of accounts take most of the traffic.
+ *
+ * Ranks are mapped to indexes through a seeded shuffle, so the hottest accounts are spread across
+ * the id range instead of all being the oldest (lowest id, first in lock order).
+ */
+final class ZipfSampler {
+    private final double[] cdf;
+    private final int[] indexByRank;
+
+    ZipfSampler(int n, double skew, long seed) {
+        if (n < 1) throw new IllegalArgumentException("n must be positive");
+        if (skew < 0) throw new IllegalArgumentException("skew must be >= 0");
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, skew);
+            cdf[k] = sum;
+        }
+        for (int k = 0; k < n; k++) cdf[k] /= sum;
+        cdf[n - 1] = 1.0;
+
+        indexByRank = new int[n];
+        for (int i = 0; i < n; i++) indexByRank[i] = i;
+        SplittableRandom shuffle = new SplittableRandom(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = shuffle.nextInt(i + 1);
+            int t = indexByRank[i];
+            indexByRank[i] = indexByRank[j];
+            indexByRank[j] = t;
+        }
+    }
+
+    int next(SplittableRandom random) {
+        int rank = Arrays.binarySearch(cdf, random.nextDouble());
+        if (rank < 0) rank = -rank - 1;
+        return indexByRank[Math.min(rank, cdf.length - 1)];
+    }
+
+    /** Share of all picks that land on the hottest index. */
+    double topShare() {
+        return cdf[0];
+    }
+}
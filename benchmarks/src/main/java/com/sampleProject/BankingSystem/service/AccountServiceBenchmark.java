@@ -0,0 +1,81 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.sampleProject.BankingSystem.jmh.EmbeddedBank;
+import com.sampleProject.BankingSystem.model.Account;
+import com.sampleProject.BankingSystem.model.BankTransaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service-layer hot paths against the real repositories on in-process H2. Accounts are picked at
+ * random from a pool large enough that row-lock collisions stay rare at the default thread counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AccountServiceBenchmark {
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+
+    @Param("1024")
+    int accounts;
+
+    EmbeddedBank bank;
+    AccountService accountService;
+    TransactionService transactionService;
+    List<Long> ids;
+    List<Account> detached;
+
+    @Setup(Level.Trial)
+    public void start() {
+        bank = new EmbeddedBank();
+        accountService = bank.bean(AccountService.class);
+        transactionService = bank.bean(TransactionService.class);
+        Long customerId = bank.newCustomer();
+        ids = new ArrayList<>(accounts);
+        detached = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            Long id = bank.newAccount(customerId, new BigDecimal("1000000000.00"));
+            ids.add(id);
+            detached.add(accountService.getAccount(id));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        bank.close();
+    }
+
+    private Long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    @Benchmark
+    public Account deposit() {
+        return accountService.deposit(randomId(), AMOUNT, "jmh");
+    }
+
+    @Benchmark
+    public Account withdraw() {
+        return accountService.withdraw(randomId(), AMOUNT, "jmh");
+    }
+
+    @Benchmark
+    public void transfer() {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int from = rnd.nextInt(ids.size());
+        int to = (from + 1 + rnd.nextInt(ids.size() - 1)) % ids.size();
+        accountService.transfer(ids.get(from), ids.get(to), AMOUNT, "jmh");
+    }
+
+    @Benchmark
+    public BankTransaction record() {
+        Account acc = detached.get(ThreadLocalRandom.current().nextInt(detached.size()));
+        return transactionService.record(acc, AMOUNT, "DEPOSIT", "jmh");
+    }
+}
@@ -0,0 +1,49 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.sampleProject.BankingSystem.model.Account;
+import com.sampleProject.BankingSystem.model.AccountType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/** BigDecimal work done on every money movement: scale-2 add/subtract, the funds check and interest rounding. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyArithmeticBenchmark {
+    BigDecimal balance = new BigDecimal("15234.57");
+    BigDecimal amount = new BigDecimal("125.10");
+    BigDecimal dailyRate = new BigDecimal("0.000041");
+    Account current;
+
+    @Setup
+    public void setup() {
+        current = new Account();
+        current.setAccountType(AccountType.CURRENT);
+        current.setBalance(balance);
+        current.setOverdraftLimit(new BigDecimal("500.00"));
+    }
+
+    @Benchmark
+    public BigDecimal credit() {
+        return balance.add(amount);
+    }
+
+    @Benchmark
+    public BigDecimal debit() {
+        return balance.subtract(amount);
+    }
+
+    @Benchmark
+    public boolean fundsCheck() {
+        return AccountService.availableFunds(current).compareTo(amount) >= 0;
+    }
+
+    @Benchmark
+    public BigDecimal dailyInterest() {
+        return balance.multiply(dailyRate).setScale(2, RoundingMode.HALF_EVEN);
+    }
+}
@@ -0,0 +1,57 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of session tokens: signing one at login and verifying one on every authenticated call.
+ * With spring.threads.virtual.enabled every request runs on a new virtual thread, so verifyOnVirtualThread does
+ * the same; subtract virtualThread, the bare start and join, to get the verification's share.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SessionTokenBenchmark {
+    SessionTokenService tokens;
+    String token;
+
+    @Setup
+    public void setup() {
+        StandardEnvironment env = new StandardEnvironment();
+        env.getPropertySources().addFirst(new MapPropertySource("bench", Map.of(
+                "banking.session.active-key", "k1",
+                "banking.session.keys.k1", "MDEyMzQ1Njc4OWFiY2RlZjAxMjM0NTY3ODlhYmNkZWY=")));
+        tokens = new SessionTokenService(env);
+        token = tokens.issue(42L).token();
+    }
+
+    @Benchmark
+    public SessionTokenService.IssuedToken issue() {
+        return tokens.issue(42L);
+    }
+
+    @Benchmark
+    public Optional<SessionTokenService.Session> verify() {
+        return tokens.verify(token);
+    }
+
+    @Benchmark
+    public Optional<SessionTokenService.Session> verifyOnVirtualThread() throws InterruptedException {
+        @SuppressWarnings("unchecked")
+        Optional<SessionTokenService.Session>[] session = new Optional[1];
+        Thread.ofVirtual().start(() -> session[0] = tokens.verify(token)).join();
+        return session[0];
+    }
+
+    @Benchmark
+    public Thread virtualThread() throws InterruptedException {
+        Thread thread = Thread.ofVirtual().start(() -> { });
+        thread.join();
+        return thread;
+    }
+}
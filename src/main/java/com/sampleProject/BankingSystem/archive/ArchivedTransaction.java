@@ -0,0 +1,9 @@
+package com.sampleProject.BankingSystem.archive;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/** A ledger row as kept in a segment file; the fields of BankTransaction, with the account as a plain id. */
+public record ArchivedTransaction(long id, long accountId, String txnType, BigDecimal amount, Instant txnDate,
+                                  String note, BigDecimal balanceAfter) {
+}
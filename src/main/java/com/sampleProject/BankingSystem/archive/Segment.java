@@ -0,0 +1,130 @@
+package com.sampleProject.BankingSystem.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A segment file written by {@link SegmentWriter}, memory-mapped read-only. The sparse index is read once on open;
+ * rows are inflated per block on demand, straight from the mapping, so only the pages of the blocks that are read
+ * come into memory. Safe for concurrent readers: nothing reads through the mapping's position.
+ */
+public final class Segment {
+    private final Path path;
+    private final MappedByteBuffer data;
+    private final long rows;
+    private final long[] firstAccountId;
+    private final long[] lastAccountId;
+    private final long[] offset;
+    private final int[] compressedLength;
+    private final int[] rawLength;
+
+    private Segment(Path path, MappedByteBuffer data) throws IOException {
+        this.path = path;
+        this.data = data;
+        int size = data.capacity();
+        if (size < SegmentWriter.HEADER_BYTES + 4 + SegmentWriter.FOOTER_BYTES
+                || data.getInt(0) != SegmentWriter.MAGIC || data.getInt(size - 4) != SegmentWriter.MAGIC) {
+            throw new IOException("Not a segment file: " + path);
+        }
+        if (data.getInt(4) != SegmentWriter.VERSION) throw new IOException("Unsupported segment version in " + path);
+        long indexOffset = data.getLong(size - SegmentWriter.FOOTER_BYTES);
+        this.rows = data.getLong(size - SegmentWriter.FOOTER_BYTES + 8);
+        int blocks = data.getInt((int) indexOffset);
+        firstAccountId = new long[blocks];
+        lastAccountId = new long[blocks];
+        offset = new long[blocks];
+        compressedLength = new int[blocks];
+        rawLength = new int[blocks];
+        int at = (int) indexOffset + 4;
+        for (int b = 0; b < blocks; b++, at += SegmentWriter.INDEX_ENTRY_BYTES) {
+            firstAccountId[b] = data.getLong(at);
+            lastAccountId[b] = data.getLong(at + 8);
+            offset[b] = data.getLong(at + 16);
+            compressedLength[b] = data.getInt(at + 24);
+            rawLength[b] = data.getInt(at + 28);
+        }
+    }
+
+    public static Segment open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Segment too large to map: " + path);
+            // the mapping stays valid after the channel is closed
+            return new Segment(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    /** The account's rows in this segment, oldest first. */
+    public List<ArchivedTransaction> rows(long accountId) {
+        List<ArchivedTransaction> out = new ArrayList<>();
+        // first block that can hold the account: blocks are sorted, so lastAccountId is ascending
+        int lo = 0, hi = lastAccountId.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (lastAccountId[mid] < accountId) lo = mid + 1; else hi = mid;
+        }
+        for (int b = lo; b < firstAccountId.length && firstAccountId[b] <= accountId; b++) {
+            readBlock(b, row -> { if (row.accountId() == accountId) out.add(row); });
+        }
+        return out;
+    }
+
+    /** Every row, in file order. */
+    public void forEach(Consumer<ArchivedTransaction> action) {
+        for (int b = 0; b < offset.length; b++) readBlock(b, action);
+    }
+
+    private void readBlock(int b, Consumer<ArchivedTransaction> action) {
+        byte[] raw = new byte[rawLength[b]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data.slice((int) offset[b], compressedLength[b]));
+            int n = inflater.inflate(raw);
+            if (n != raw.length || !inflater.finished()) throw new IllegalStateException("Truncated block " + b + " in " + path);
+        } catch (DataFormatException ex) {
+            throw new IllegalStateException("Corrupt block " + b + " in " + path, ex);
+        } finally {
+            inflater.end();
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(raw))) {
+            while (in.available() > 0) {
+                long id = in.readLong();
+                long accountId = in.readLong();
+                Instant txnDate = Instant.ofEpochSecond(in.readLong(), in.readInt());
+                String txnType = in.readUTF();
+                BigDecimal amount = readAmount(in);
+                String note = in.readBoolean() ? in.readUTF() : null;
+                BigDecimal balanceAfter = in.readBoolean() ? readAmount(in) : null;
+                action.accept(new ArchivedTransaction(id, accountId, txnType, amount, txnDate, note, balanceAfter));
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Corrupt block " + b + " in " + path, ex);
+        }
+    }
+
+    private static BigDecimal readAmount(DataInputStream in) throws IOException {
+        int scale = in.readByte();
+        return BigDecimal.valueOf(in.readLong(), scale);
+    }
+
+    // for tests: the number of blocks
+    int blocks() {
+        return offset.length;
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.sampleProject.BankingSystem.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Writes one immutable segment file. Rows must arrive sorted by (account id, txn date, id).
+ *
+ * Layout, all big-endian:
+ * <pre>
+ *   header   int magic, int version
+ *   blocks   zlib-compressed runs of rows, each about blockBytes uncompressed
+ *   index    int blockCount, then per block: long firstAccountId, long lastAccountId, long offset,
+ *            int compressedLength, int rawLength, int rows
+ *   footer   long indexOffset, long rows, int magic
+ * </pre>
+ * The index is sparse: one entry per block, so a reader finds an account's rows by binary search over the blocks
+ * and inflates only the blocks that hold them. A row is: long id, long accountId, long epochSecond, int nano,
+ * UTF txnType, amount, boolean+UTF note, boolean+amount balanceAfter; an amount is a byte scale and a long unscaled value.
+ */
+public final class SegmentWriter implements Closeable {
+    static final int MAGIC = 0x42545347; // "BTSG"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int FOOTER_BYTES = 20;
+    static final int INDEX_ENTRY_BYTES = 36;
+
+    private record BlockEntry(long firstAccountId, long lastAccountId, long offset, int compressedLength, int rawLength, int rows) {}
+
+    private final FileChannel channel;
+    private final DataOutputStream file;
+    private final int blockBytes;
+    private final ByteArrayOutputStream raw;
+    private final DataOutputStream block;
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final byte[] deflateBuffer = new byte[64 * 1024];
+    private final List<BlockEntry> index = new ArrayList<>();
+    private long offset;
+    private long rows;
+    private int blockRows;
+    private long blockFirstAccountId;
+    private ArchivedTransaction last;
+
+    public SegmentWriter(Path path, int blockBytes) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        this.file = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 256 * 1024));
+        this.blockBytes = blockBytes;
+        this.raw = new ByteArrayOutputStream(blockBytes + 1024);
+        this.block = new DataOutputStream(raw);
+        file.writeInt(MAGIC);
+        file.writeInt(VERSION);
+        offset = HEADER_BYTES;
+    }
+
+    public void append(ArchivedTransaction row) throws IOException {
+        if (last != null && compare(last, row) >= 0) {
+            throw new IllegalArgumentException("Segment rows must be sorted by account, txn date and id: " + row.id());
+        }
+        if (blockRows == 0) blockFirstAccountId = row.accountId();
+        block.writeLong(row.id());
+        block.writeLong(row.accountId());
+        block.writeLong(row.txnDate().getEpochSecond());
+        block.writeInt(row.txnDate().getNano());
+        block.writeUTF(row.txnType());
+        writeAmount(row.amount());
+        block.writeBoolean(row.note() != null);
+        if (row.note() != null) block.writeUTF(row.note());
+        block.writeBoolean(row.balanceAfter() != null);
+        if (row.balanceAfter() != null) writeAmount(row.balanceAfter());
+        blockRows++;
+        rows++;
+        last = row;
+        if (raw.size() >= blockBytes) flushBlock();
+    }
+
+    /** Bytes written so far, counting the block being filled as if it did not compress. */
+    public long size() {
+        return offset + raw.size() + 4L + (long) (index.size() + 1) * INDEX_ENTRY_BYTES + FOOTER_BYTES;
+    }
+
+    public long rows() {
+        return rows;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBlock();
+            long indexOffset = offset;
+            file.writeInt(index.size());
+            for (BlockEntry e : index) {
+                file.writeLong(e.firstAccountId());
+                file.writeLong(e.lastAccountId());
+                file.writeLong(e.offset());
+                file.writeInt(e.compressedLength());
+                file.writeInt(e.rawLength());
+                file.writeInt(e.rows());
+            }
+            file.writeLong(indexOffset);
+            file.writeLong(rows);
+            file.writeInt(MAGIC);
+            file.flush();
+            // the rows are deleted from the database once this returns
+            channel.force(true);
+        } finally {
+            deflater.end();
+            file.close();
+        }
+    }
+
+    private void writeAmount(BigDecimal amount) throws IOException {
+        block.writeByte(amount.scale());
+        block.writeLong(amount.unscaledValue().longValueExact());
+    }
+
+    private void flushBlock() throws IOException {
+        if (blockRows == 0) return;
+        byte[] bytes = raw.toByteArray();
+        deflater.reset();
+        deflater.setInput(bytes);
+        deflater.finish();
+        int compressed = 0;
+        while (!deflater.finished()) {
+            int n = deflater.deflate(deflateBuffer);
+            file.write(deflateBuffer, 0, n);
+            compressed += n;
+        }
+        index.add(new BlockEntry(blockFirstAccountId, last.accountId(), offset, compressed, bytes.length, blockRows));
+        offset += compressed;
+        raw.reset();
+        blockRows = 0;
+    }
+
+    static int compare(ArchivedTransaction a, ArchivedTransaction b) {
+        int c = Long.compare(a.accountId(), b.accountId());
+        if (c == 0) c = a.txnDate().compareTo(b.txnDate());
+        if (c == 0) c = Long.compare(a.id(), b.id());
+        return c;
+    }
+}
@@ -0,0 +1,29 @@
+package com.sampleProject.BankingSystem.config;
+
+import org.hibernate.boot.ResourceStreamLocator;
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.Sequence;
+import org.hibernate.boot.spi.AdditionalMappingContributions;
+import org.hibernate.boot.spi.AdditionalMappingContributor;
+import org.hibernate.boot.spi.InFlightMetadataCollector;
+import org.hibernate.boot.spi.MetadataBuildingContext;
+
+import com.sampleProject.BankingSystem.model.Account;
+
+/**
+ * Adds account_number_seq to the Hibernate-managed schema. No entity id uses it, so it would not be
+ * created otherwise. Registered in META-INF/services.
+ */
+public class AccountNumberSequenceContributor implements AdditionalMappingContributor {
+    @Override
+    public String getContributorName() {
+        return "account-number-sequence";
+    }
+
+    @Override
+    public void contribute(AdditionalMappingContributions contributions, InFlightMetadataCollector metadata,
+                           ResourceStreamLocator resourceStreamLocator, MetadataBuildingContext buildingContext) {
+        contributions.contributeSequence(new Sequence(getContributorName(), null, null,
+                Identifier.toIdentifier("account_number_seq"), 1, Account.NUMBER_BLOCK_SIZE));
+    }
+}
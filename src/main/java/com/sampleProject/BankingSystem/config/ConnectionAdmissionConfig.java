@@ -0,0 +1,70 @@
+package com.sampleProject.BankingSystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Wraps the Hikari pool in an {@link AdmissionControlDataSource} when banking.db-admission.enabled
+ * is set (by default it follows spring.threads.virtual.enabled). Permits default to the pool size.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.db-admission.enabled", havingValue = "true")
+public class ConnectionAdmissionConfig {
+
+    // first in line, so the replica routing (ReadReplicaConfig) wraps the admission-controlled pool
+    static class ConnectionAdmissionPostProcessor implements BeanPostProcessor, Ordered {
+        private final Environment env;
+
+        ConnectionAdmissionPostProcessor(Environment env) {
+            this.env = env;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof HikariDataSource hikari)) return bean;
+            int permits = env.getProperty("banking.db-admission.permits", Integer.class, hikari.getMaximumPoolSize());
+            Duration timeout = env.getProperty("banking.db-admission.timeout", Duration.class, Duration.ofSeconds(30));
+            return new AdmissionControlDataSource(hikari, permits, timeout);
+        }
+    }
+
+    @Bean
+    static ConnectionAdmissionPostProcessor connectionAdmissionPostProcessor(Environment env) {
+        return new ConnectionAdmissionPostProcessor(env);
+    }
+
+    // next to Hikari's own hikaricp.connections.* gauges: how many callers are queued in front of the pool
+    @Bean
+    MeterBinder connectionAdmissionMetrics(DataSource dataSource) {
+        return registry -> {
+            AdmissionControlDataSource admission;
+            try {
+                // possibly behind the replica routing
+                if (!dataSource.isWrapperFor(AdmissionControlDataSource.class)) return;
+                admission = dataSource.unwrap(AdmissionControlDataSource.class);
+            } catch (SQLException ex) {
+                return;
+            }
+            Gauge.builder("banking.db.admission.available", admission, AdmissionControlDataSource::availablePermits)
+                    .description("Connection permits not currently held").register(registry);
+            Gauge.builder("banking.db.admission.queued", admission, AdmissionControlDataSource::queueLength)
+                    .description("Callers waiting for a connection permit").register(registry);
+        };
+    }
+}
@@ -11,6 +11,7 @@ public class CorsConfig implements WebMvcConfigurer {
         registry.addMapping("/api/v1/**")
                 .allowedOrigins( "http://localhost:4200")
                 .allowedMethods("GET","POST","PUT","PATCH","DELETE","OPTIONS")
+                .exposedHeaders("X-Next-Cursor")
                 .allowCredentials(true)
                 .maxAge(3600);
     }
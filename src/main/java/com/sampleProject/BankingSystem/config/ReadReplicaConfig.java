@@ -0,0 +1,129 @@
+package com.sampleProject.BankingSystem.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Read replica, on when banking.replica.url is set: read-only transactions of GET requests go to the replica
+ * (see ReplicaRoutingDataSource, ReplicaReadFilter, ReplicaLagMonitor). The replica gets a Hikari pool of its own,
+ * configured under banking.replica.hikari, behind the same admission control as the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "banking.replica.url")
+public class ReadReplicaConfig {
+
+    static final Duration DEFAULT_MAX_LAG = Duration.ofSeconds(5);
+
+    // runs after ConnectionAdmissionConfig's, so the primary is already wrapped
+    static class ReplicaRoutingPostProcessor implements BeanPostProcessor, Ordered {
+        private final Environment env;
+
+        ReplicaRoutingPostProcessor(Environment env) {
+            this.env = env;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)) return bean;
+            HikariDataSource hikari = new HikariDataSource();
+            Binder.get(env).bind("banking.replica.hikari", Bindable.ofInstance(hikari));
+            hikari.setPoolName("replica");
+            hikari.setJdbcUrl(env.getProperty("banking.replica.url"));
+            hikari.setUsername(env.getProperty("banking.replica.username", env.getProperty("spring.datasource.username")));
+            hikari.setPassword(env.getProperty("banking.replica.password", env.getProperty("spring.datasource.password")));
+            String driver = env.getProperty("banking.replica.driver-class-name", env.getProperty("spring.datasource.driver-class-name"));
+            if (driver != null) hikari.setDriverClassName(driver);
+            hikari.setReadOnly(true);
+            DataSource replica = hikari;
+            if (env.getProperty("banking.db-admission.enabled", Boolean.class, false)) {
+                int permits = env.getProperty("banking.db-admission.permits", Integer.class, hikari.getMaximumPoolSize());
+                Duration timeout = env.getProperty("banking.db-admission.timeout", Duration.class, Duration.ofSeconds(30));
+                replica = new AdmissionControlDataSource(hikari, permits, timeout);
+            }
+            return new ClosingLazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, replica));
+        }
+    }
+
+    // Spring infers the destroy method from the bean's class; LazyConnectionDataSourceProxy has no close()
+    static class ClosingLazyConnectionDataSourceProxy extends LazyConnectionDataSourceProxy implements Closeable {
+        private final ReplicaRoutingDataSource routing;
+
+        ClosingLazyConnectionDataSourceProxy(ReplicaRoutingDataSource routing) {
+            super(routing);
+            this.routing = routing;
+        }
+
+        @Override
+        public void close() {
+            routing.close();
+        }
+    }
+
+    @Bean
+    static ReplicaRoutingPostProcessor replicaRoutingPostProcessor(Environment env) {
+        return new ReplicaRoutingPostProcessor(env);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReplicaReadFilter> replicaReadFilter(Environment env) {
+        Duration maxLag = Binder.get(env).bind("banking.replica.max-lag", Duration.class).orElse(DEFAULT_MAX_LAG);
+        Duration readYourWrites = Binder.get(env).bind("banking.replica.read-your-writes", Duration.class).orElse(maxLag);
+        FilterRegistrationBean<ReplicaReadFilter> registration = new FilterRegistrationBean<>(new ReplicaReadFilter(readYourWrites));
+        registration.addUrlPatterns("/api/v1/*");
+        // inside the other filters, so the last-write cookie is stamped on whatever they let through
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 90);
+        return registration;
+    }
+
+    @Bean
+    ReplicaLagMonitor replicaLagMonitor(DataSource dataSource, Environment env) throws SQLException {
+        Duration maxLag = Binder.get(env).bind("banking.replica.max-lag", Duration.class).orElse(DEFAULT_MAX_LAG);
+        return new ReplicaLagMonitor(dataSource.unwrap(ReplicaRoutingDataSource.class), new JdbcTemplate(dataSource), maxLag);
+    }
+
+    @Bean
+    MeterBinder replicaMetrics(DataSource dataSource, ReplicaLagMonitor monitor) throws SQLException {
+        ReplicaRoutingDataSource routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+        HikariDataSource hikari = routing.replica().unwrap(HikariDataSource.class);
+        return registry -> {
+            // the hikaricp.connections.* meters, tagged pool=replica
+            if (hikari.getMetricRegistry() == null && hikari.getMetricsTrackerFactory() == null) {
+                hikari.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+            FunctionCounter.builder("banking.replica.reads", routing.replicaReads, Number::doubleValue)
+                    .description("Read-only transactions served by the replica").register(registry);
+            FunctionCounter.builder("banking.replica.primary.reads", routing.readYourWrites, Number::doubleValue)
+                    .tag("reason", "read_your_writes")
+                    .description("Read-only transactions kept on the primary").register(registry);
+            FunctionCounter.builder("banking.replica.primary.reads", routing.lagFallbacks, Number::doubleValue)
+                    .tag("reason", "lag")
+                    .description("Read-only transactions kept on the primary").register(registry);
+            Gauge.builder("banking.replica.lag", monitor, ReplicaLagMonitor::lagSeconds).baseUnit("seconds")
+                    .description("Age of the replica's heartbeat; NaN when it cannot be read").register(registry);
+        };
+    }
+}
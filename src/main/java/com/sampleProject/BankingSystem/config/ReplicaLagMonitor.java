@@ -0,0 +1,72 @@
+package com.sampleProject.BankingSystem.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.sampleProject.BankingSystem.model.ReplicaHeartbeat;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Measures replica lag with a heartbeat: every banking.replica.heartbeat-interval the replica's copy of the
+ * replica_heartbeat row is read, then the primary's is stamped with the current time. The age of the replica's copy
+ * is the lag, give or take one interval. Works with any kind of replication and on any database.
+ *
+ * The replica is used only while the lag is at most banking.replica.max-lag; a replica that cannot be read counts as
+ * lagging. Until the first check it is not used.
+ */
+public class ReplicaLagMonitor {
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final ReplicaRoutingDataSource routing;
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+    // seconds; NaN while the replica cannot be read
+    private volatile double lagSeconds = Double.NaN;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routing, JdbcTemplate primary, Duration maxLag) {
+        this.routing = routing;
+        this.primary = primary;
+        this.replica = new JdbcTemplate(routing.replica());
+        this.maxLag = maxLag;
+    }
+
+    double lagSeconds() {
+        return lagSeconds;
+    }
+
+    @Scheduled(fixedDelayString = "${banking.replica.heartbeat-interval:PT1S}")
+    public void check() {
+        Instant now = Instant.now();
+        Duration lag = null;
+        try {
+            Timestamp seen = replica.query("select beat_at from replica_heartbeat where id = ?",
+                    rs -> rs.next() ? rs.getTimestamp(1) : null, ReplicaHeartbeat.ID);
+            if (seen != null) lag = Duration.between(seen.toInstant(), now);
+        } catch (DataAccessException ex) {
+            log.debug("Replica heartbeat unreadable", ex);
+        }
+        boolean usable = lag != null && lag.compareTo(maxLag) <= 0;
+        if (usable != routing.isReplicaUsable()) {
+            if (usable) log.info("Replica caught up (lag {}ms); read-only requests use it again", lag.toMillis());
+            else log.warn("Replica lag {} exceeds {}; read-only requests use the primary", lag == null ? "unknown" : lag.toMillis() + "ms", maxLag);
+        }
+        routing.setReplicaUsable(usable);
+        lagSeconds = lag == null ? Double.NaN : Math.max(0, lag.toNanos()) / 1e9;
+        try {
+            Timestamp beat = Timestamp.from(now);
+            if (primary.update("update replica_heartbeat set beat_at = ? where id = ?", beat, ReplicaHeartbeat.ID) == 0) {
+                primary.update("insert into replica_heartbeat (id, beat_at) values (?, ?)", ReplicaHeartbeat.ID, beat);
+            }
+        } catch (DataAccessException ex) {
+            // another instance inserted the row first, or the primary is down; the next beat tries again
+            log.debug("Heartbeat not written", ex);
+        }
+    }
+}
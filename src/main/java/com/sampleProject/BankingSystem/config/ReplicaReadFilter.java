@@ -0,0 +1,80 @@
+package com.sampleProject.BankingSystem.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Lets the read-only transactions of GET requests use the replica (see ReplicaRoutingDataSource), except for a
+ * client that wrote within banking.replica.read-your-writes: its reads stay on the primary so it sees its own writes.
+ * The time of the last write travels with the client in the {@link #LAST_WRITE_COOKIE} cookie, so the guarantee holds
+ * whichever instance serves the next request. Clients that drop cookies get no such guarantee. A forged cookie can
+ * only keep its own client on the primary, and for no longer than the window.
+ */
+public class ReplicaReadFilter extends OncePerRequestFilter {
+    public static final String LAST_WRITE_COOKIE = "banking_last_write";
+
+    private final Duration readYourWrites;
+
+    public ReplicaReadFilter(Duration readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod())) {
+            // writes answer with small bodies: hold this one back so the cookie can be stamped after the commit
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            try {
+                chain.doFilter(request, wrapper);
+            } finally {
+                wrapper.addHeader(HttpHeaders.SET_COOKIE, lastWriteCookie(System.currentTimeMillis()));
+                wrapper.copyBodyToResponse();
+            }
+            return;
+        }
+        ReplicaRoutingDataSource.setPreference(wroteRecently(request)
+                ? ReplicaRoutingDataSource.ReadPreference.PRIMARY : ReplicaRoutingDataSource.ReadPreference.REPLICA);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingDataSource.clearPreference();
+        }
+    }
+
+    private String lastWriteCookie(long now) {
+        return ResponseCookie.from(LAST_WRITE_COOKIE, Long.toString(now))
+                .path("/api/v1")
+                .maxAge(readYourWrites.plusSeconds(1))
+                .httpOnly(true)
+                .sameSite("Lax")
+                .build().toString();
+    }
+
+    // instances' clocks may differ a little, so a stamp slightly in the future still counts
+    private boolean wroteRecently(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) return false;
+        long now = System.currentTimeMillis();
+        for (Cookie cookie : cookies) {
+            if (!LAST_WRITE_COOKIE.equals(cookie.getName())) continue;
+            try {
+                long age = now - Long.parseLong(cookie.getValue());
+                return Math.abs(age) < readYourWrites.toMillis();
+            } catch (NumberFormatException ex) {
+                return false;
+            }
+        }
+        return false;
+    }
+}
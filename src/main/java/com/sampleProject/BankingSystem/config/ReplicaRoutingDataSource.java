@@ -0,0 +1,107 @@
+package com.sampleProject.BankingSystem.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends read-only transactions to the replica, everything else to the primary. A read-only transaction only goes
+ * to the replica while the current request allows it (see ReplicaReadFilter) and the replica is not lagging (see
+ * ReplicaLagMonitor); background jobs and writes always use the primary.
+ *
+ * The routing decision is made when a connection is taken, so this must sit behind a LazyConnectionDataSourceProxy:
+ * the transaction manager asks for the connection before the read-only flag of the transaction is visible.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    enum Target { PRIMARY, REPLICA }
+
+    /** Why a request's read-only transactions may or may not use the replica. */
+    public enum ReadPreference {
+        REPLICA,
+        /** the customer wrote recently and must see it */
+        PRIMARY
+    }
+
+    private static final ThreadLocal<ReadPreference> PREFERENCE = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private volatile boolean replicaUsable;
+    final AtomicLong replicaReads = new AtomicLong();
+    final AtomicLong readYourWrites = new AtomicLong();
+    final AtomicLong lagFallbacks = new AtomicLong();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica) {
+        this.primary = primary;
+        this.replica = replica;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    static void setPreference(ReadPreference preference) {
+        PREFERENCE.set(preference);
+    }
+
+    static void clearPreference() {
+        PREFERENCE.remove();
+    }
+
+    DataSource replica() {
+        return replica;
+    }
+
+    boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    void setReplicaUsable(boolean usable) {
+        this.replicaUsable = usable;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return Target.PRIMARY;
+        ReadPreference preference = PREFERENCE.get();
+        if (preference == null) return Target.PRIMARY;
+        if (preference == ReadPreference.PRIMARY) {
+            readYourWrites.incrementAndGet();
+            return Target.PRIMARY;
+        }
+        if (!replicaUsable) {
+            lagFallbacks.incrementAndGet();
+            return Target.PRIMARY;
+        }
+        replicaReads.incrementAndGet();
+        return Target.REPLICA;
+    }
+
+    // pool metrics and the admission gauges look for the primary's pool through this
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? (T) this : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    @Override
+    public void close() {
+        for (DataSource ds : new DataSource[]{replica, primary}) {
+            try {
+                if (ds.isWrapperFor(Closeable.class)) ds.unwrap(Closeable.class).close();
+            } catch (Exception ex) {
+                logger.warn("Could not close " + ds, ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.sampleProject.BankingSystem.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// background housekeeping jobs (@Scheduled methods in the service layer)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
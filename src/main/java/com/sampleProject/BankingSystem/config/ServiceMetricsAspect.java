@@ -0,0 +1,135 @@
+package com.sampleProject.BankingSystem.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import com.sampleProject.BankingSystem.exception.LockFailures;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timers for the banking hot paths:
+ * <ul>
+ *   <li>banking.service: every public AccountService / CustomerService call, tagged service, operation, outcome</li>
+ *   <li>banking.lock.acquire: the SELECT ... FOR UPDATE of every findWithLocking* repository method, tagged repository, outcome</li>
+ *   <li>banking.ledger.record: TransactionService.record / recordAll, tagged operation, outcome</li>
+ * </ul>
+ * A guarded* repository statement (GUARDED locking) takes the row lock and writes the ledger rows at once; its
+ * timing goes to both banking.lock.acquire and banking.ledger.record, with the statement as the operation.
+ * Runs outside the transaction interceptor, so service timings include the commit. Timers are looked up once
+ * per method and outcome and cached, leaving two nanoTime calls and a lock-free record on the hot path.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+    enum Outcome {
+        SUCCESS("success"), INSUFFICIENT_FUNDS("insufficient_funds"), NOT_FOUND("not_found"), REJECTED("rejected"),
+        DEADLOCK("deadlock"), LOCK_TIMEOUT("lock_timeout"), WRITE_CONFLICT("write_conflict"), OVERLOADED("overloaded"),
+        ERROR("error");
+
+        final String tag;
+
+        Outcome(String tag) { this.tag = tag; }
+    }
+
+    private final MeterRegistry registry;
+    private final Meter service = new Meter("banking.service", "service");
+    private final Meter lock = new Meter("banking.lock.acquire", "repository");
+    private final Meter ledger = new Meter("banking.ledger.record", null);
+
+    public ServiceMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.sampleProject.BankingSystem.service.AccountService.*(..))"
+            + " || execution(public * com.sampleProject.BankingSystem.service.CustomerService.*(..))")
+    public Object timeService(ProceedingJoinPoint pjp) throws Throwable {
+        return time(pjp, service, null);
+    }
+
+    @Around("execution(* com.sampleProject.BankingSystem.repository.*Repository.findWithLocking*(..))")
+    public Object timeLock(ProceedingJoinPoint pjp) throws Throwable {
+        return time(pjp, lock, null);
+    }
+
+    // the fragment implementation is a bean of its own, proxied for @Transactional: time the call once, at the repository
+    @Around("execution(* com.sampleProject.BankingSystem.repository.*Repository.guarded*(..))"
+            + " && !within(com.sampleProject.BankingSystem.repository.*Impl)")
+    public Object timeGuarded(ProceedingJoinPoint pjp) throws Throwable {
+        return time(pjp, lock, ledger);
+    }
+
+    @Around("execution(* com.sampleProject.BankingSystem.service.TransactionService.record*(..))")
+    public Object timeLedger(ProceedingJoinPoint pjp) throws Throwable {
+        return time(pjp, ledger, null);
+    }
+
+    // also is null, or a second meter that gets the same timing
+    private Object time(ProceedingJoinPoint pjp, Meter meter, Meter also) throws Throwable {
+        long start = System.nanoTime();
+        Outcome outcome = Outcome.SUCCESS;
+        try {
+            return pjp.proceed();
+        } catch (Throwable ex) {
+            outcome = classify(ex);
+            throw ex;
+        } finally {
+            long nanos = System.nanoTime() - start;
+            Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+            meter.timer(method, outcome).record(nanos, TimeUnit.NANOSECONDS);
+            if (also != null) also.timer(method, outcome).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /** One timer name; its timers are looked up per method and outcome and cached. */
+    private final class Meter {
+        private final String name;
+        private final String ownerTag;
+        private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+        Meter(String name, String ownerTag) {
+            this.name = name;
+            this.ownerTag = ownerTag;
+        }
+
+        Timer timer(Method method, Outcome outcome) {
+            Timer[] byOutcome = timers.computeIfAbsent(method, m -> new Timer[Outcome.values().length]);
+            Timer timer = byOutcome[outcome.ordinal()];
+            if (timer == null) {
+                Timer.Builder builder = Timer.builder(name)
+                        .tag("operation", method.getName())
+                        .tag("outcome", outcome.tag);
+                if (ownerTag != null) builder.tag(ownerTag, method.getDeclaringClass().getSimpleName());
+                // the registry returns the same timer for the same tags, so a racing double registration is harmless
+                timer = builder.register(registry);
+                byOutcome[outcome.ordinal()] = timer;
+            }
+            return timer;
+        }
+    }
+
+    // the services signal business failures with IllegalArgument/IllegalState and a message
+    static Outcome classify(Throwable ex) {
+        if (ex instanceof PessimisticLockingFailureException) return LockFailures.isDeadlock(ex) ? Outcome.DEADLOCK : Outcome.LOCK_TIMEOUT;
+        if (ex instanceof OptimisticLockingFailureException) return Outcome.WRITE_CONFLICT;
+        if (ex instanceof RejectedExecutionException) return Outcome.OVERLOADED;
+        if (ex instanceof IllegalStateException && "Insufficient funds".equals(ex.getMessage())) return Outcome.INSUFFICIENT_FUNDS;
+        if (ex instanceof IllegalArgumentException && ex.getMessage() != null && ex.getMessage().contains("not found")) return Outcome.NOT_FOUND;
+        if (ex instanceof IllegalArgumentException || ex instanceof IllegalStateException) return Outcome.REJECTED;
+        return Outcome.ERROR;
+    }
+}
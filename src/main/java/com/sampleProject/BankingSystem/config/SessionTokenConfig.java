@@ -0,0 +1,26 @@
+package com.sampleProject.BankingSystem.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.sampleProject.BankingSystem.service.SessionTokenService;
+
+// registered here rather than as a @Component so @WebMvcTest slices do not pick the filter up
+@Configuration
+public class SessionTokenConfig {
+
+    @Bean
+    public FilterRegistrationBean<SessionTokenFilter> sessionTokenFilter(SessionTokenService sessionTokenService, ObjectMapper objectMapper,
+                                                                         @Value("${banking.session.required:false}") boolean required) {
+        FilterRegistrationBean<SessionTokenFilter> registration =
+                new FilterRegistrationBean<>(new SessionTokenFilter(sessionTokenService, objectMapper, required));
+        registration.addUrlPatterns("/api/v1/*");
+        // after CORS handling has had a chance at preflights, before any controller
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 100);
+        return registration;
+    }
+}
@@ -0,0 +1,88 @@
+package com.sampleProject.BankingSystem.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.sampleProject.BankingSystem.service.SessionTokenService;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Checks the {@code Authorization: Bearer <token>} header of /api/v1 requests and puts the customer id in the
+ * {@link #CUSTOMER_ID_ATTRIBUTE} request attribute. A bad, expired or revoked token is refused with 401, except on
+ * logout, which clients may call blindly. A missing token is only refused when banking.session.required is on;
+ * login, logout, sign-up and CORS preflights never need one.
+ */
+public class SessionTokenFilter extends OncePerRequestFilter {
+    public static final String CUSTOMER_ID_ATTRIBUTE = "banking.customerId";
+    private static final String BEARER = "Bearer ";
+
+    private final SessionTokenService sessionTokenService;
+    private final ObjectMapper objectMapper;
+    private final boolean required;
+
+    public SessionTokenFilter(SessionTokenService sessionTokenService, ObjectMapper objectMapper, boolean required) {
+        this.sessionTokenService = sessionTokenService;
+        this.objectMapper = objectMapper;
+        this.required = required;
+    }
+
+    /** The bearer token of the request, if any. */
+    public static String bearerToken(String authorization) {
+        return authorization != null && authorization.startsWith(BEARER) ? authorization.substring(BEARER.length()).trim() : null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String token = bearerToken(request.getHeader(HttpHeaders.AUTHORIZATION));
+        if (token != null) {
+            Optional<SessionTokenService.Session> session = sessionTokenService.verify(token);
+            if (session.isPresent()) {
+                request.setAttribute(CUSTOMER_ID_ATTRIBUTE, session.get().customerId());
+            } else if (!isLogout(request)) {
+                reject(response, "invalid_token", "Session token is invalid, expired or revoked");
+                return;
+            }
+        } else if (required && !isOpen(request)) {
+            reject(response, "unauthorized", "Session token required");
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static boolean isOpen(HttpServletRequest request) {
+        String path = path(request);
+        return "OPTIONS".equals(request.getMethod()) || isLogout(request)
+                || ("POST".equals(request.getMethod()) && (path.equals("/api/v1/auth/login") || path.equals("/api/v1/customers")));
+    }
+
+    // an expired or already revoked token has nothing left to revoke; the controller answers 204 regardless
+    private static boolean isLogout(HttpServletRequest request) {
+        return "POST".equals(request.getMethod()) && path(request).equals("/api/v1/auth/logout");
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private void reject(HttpServletResponse response, String error, String message) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), Map.of(
+                "timestamp", Instant.now().toString(),
+                "status", 401,
+                "error", error,
+                "message", message));
+    }
+}
@@ -1,25 +1,47 @@
 package com.sampleProject.BankingSystem.controller;
 
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.sampleProject.BankingSystem.dto.AccountDtos;
 import com.sampleProject.BankingSystem.model.Account;
-import com.sampleProject.BankingSystem.model.BankTransaction;
+import com.sampleProject.BankingSystem.service.AccountBatchService;
 import com.sampleProject.BankingSystem.service.AccountService;
+import com.sampleProject.BankingSystem.service.BalanceBackfillService;
+import com.sampleProject.BankingSystem.service.IdempotencyService;
+import com.sampleProject.BankingSystem.service.StatementExportService;
+import com.sampleProject.BankingSystem.service.TransactionService;
 
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/v1/accounts")
 @CrossOrigin(origins = {"http://localhost:4300","http://localhost:4200"}, allowCredentials = "true")
 public class AccountController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final AccountService accountService;
+    private final AccountBatchService accountBatchService;
+    private final StatementExportService statementExportService;
+    private final IdempotencyService idempotencyService;
+    private final BalanceBackfillService balanceBackfillService;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService, AccountBatchService accountBatchService,
+                             StatementExportService statementExportService, IdempotencyService idempotencyService,
+                             BalanceBackfillService balanceBackfillService) {
         this.accountService = accountService;
+        this.accountBatchService = accountBatchService;
+        this.statementExportService = statementExportService;
+        this.idempotencyService = idempotencyService;
+        this.balanceBackfillService = balanceBackfillService;
     }
 
     @PostMapping
@@ -30,60 +52,131 @@ public class AccountController {
 
     @GetMapping("/{id}")
     public AccountDtos.AccountResponse get(@PathVariable Long id) {
-        return toDto(accountService.getAccount(id));
+        return accountService.getAccountResponse(id);
+    }
+
+    @GetMapping("/{id}/balance")
+    public AccountDtos.BalanceResponse balance(@PathVariable Long id, @RequestParam(required = false) Instant at) {
+        return at == null ? accountService.getBalance(id) : accountService.getBalanceAt(id, at);
+    }
+
+    // one-time fill of balanceAfter on ledger rows written before the column existed; runs in the background
+    @PostMapping("/balance-after/backfill")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public AccountDtos.BackfillResponse startBalanceBackfill() {
+        return balanceBackfillService.start();
+    }
+
+    @GetMapping("/balance-after/backfill")
+    public AccountDtos.BackfillResponse balanceBackfillStatus() {
+        return balanceBackfillService.status();
+    }
+
+    @GetMapping("/balance-cache/stats")
+    public AccountDtos.BalanceCacheStatsResponse balanceCacheStats() {
+        return accountService.balanceCacheStats();
     }
 
     @PostMapping("/{id}/deposit")
-    public AccountDtos.AccountResponse deposit(@PathVariable Long id, @RequestBody @Valid AccountDtos.MoneyRequest req) {
-        return toDto(accountService.deposit(id, req.amount, req.note));
+    public AccountDtos.AccountResponse deposit(@PathVariable Long id, @RequestBody @Valid AccountDtos.MoneyRequest req,
+                                               @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "deposit:" + id, req, AccountDtos.AccountResponse.class,
+                () -> toDto(accountService.deposit(id, req.amount, req.note)));
     }
 
     @PostMapping("/{id}/withdraw")
-    public AccountDtos.AccountResponse withdraw(@PathVariable Long id, @RequestBody @Valid AccountDtos.MoneyRequest req) {
-        return toDto(accountService.withdraw(id, req.amount, req.note));
+    public AccountDtos.AccountResponse withdraw(@PathVariable Long id, @RequestBody @Valid AccountDtos.MoneyRequest req,
+                                                @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "withdraw:" + id, req, AccountDtos.AccountResponse.class,
+                () -> toDto(accountService.withdraw(id, req.amount, req.note)));
     }
 
     @PostMapping("/transfer")
     @ResponseStatus(HttpStatus.NO_CONTENT)
-    public void transfer(@RequestBody @Valid AccountDtos.TransferRequest req) {
-        accountService.transfer(req.fromAccountId, req.toAccountId, req.amount, req.note);
+    public void transfer(@RequestBody @Valid AccountDtos.TransferRequest req,
+                         @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey) {
+        idempotencyService.execute(idempotencyKey, "transfer", req, Void.class, () -> {
+            accountService.transfer(req.fromAccountId, req.toAccountId, req.amount, req.note);
+            return null;
+        });
     }
 
+    @PostMapping("/{id}/hot-mode")
+    public AccountDtos.AccountResponse enableHotMode(@PathVariable Long id, @RequestBody @Valid AccountDtos.HotModeRequest req) {
+        return toDto(accountService.enableHotMode(id, req.slots));
+    }
+
+    @PostMapping("/batch")
+    public AccountDtos.BatchResponse batch(@RequestBody @Valid AccountDtos.BatchRequest req) {
+        return accountBatchService.apply(req);
+    }
+
+    /**
+     * Newest-first page of the account history. Pass the X-Next-Cursor header of a response back as
+     * ?cursor= to get the next page; the header is absent on the last page.
+     */
     @GetMapping("/{id}/transactions")
-    public List<AccountDtos.TransactionResponse> transactions(@PathVariable Long id) {
-        return accountService.listTransactions(id).stream().map(AccountController::toTxnDto).collect(Collectors.toList());
+    public ResponseEntity<List<AccountDtos.TransactionResponse>> transactions(@PathVariable Long id,
+                                                                              @RequestParam(required = false) String cursor,
+                                                                              @RequestParam(required = false) Integer limit) {
+        TransactionService.Page page = accountService.listTransactions(id, cursor, limit);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.nextCursor() != null) ok.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        return ok.body(page.items());
+    }
+
+    /**
+     * Streams the statement for [from, to) as NDJSON (default) or CSV, optionally gzip-encoded.
+     * Rows go from a database cursor straight to the response, so the size of the export is unbounded.
+     */
+    @GetMapping("/{id}/statement")
+    public ResponseEntity<StreamingResponseBody> statement(@PathVariable Long id,
+                                                           @RequestParam(required = false) Instant from,
+                                                           @RequestParam(required = false) Instant to,
+                                                           @RequestParam(defaultValue = "NDJSON") StatementExportService.Format format,
+                                                           @RequestParam(defaultValue = "false") boolean gzip) {
+        accountService.getAccountResponse(id); // fail with 400 before the response is committed
+        Instant start = from != null ? from : Instant.EPOCH;
+        Instant end = to != null ? to : Instant.now();
+        if (!start.isBefore(end)) throw new IllegalArgumentException("from must be before to");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream zipped = new GZIPOutputStream(out, 64 * 1024);
+                statementExportService.export(id, start, end, format, zipped);
+                zipped.finish();
+            } else {
+                statementExportService.export(id, start, end, format, out);
+            }
+        };
+        String extension = format == StatementExportService.Format.CSV ? "csv" : "ndjson";
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .contentType(format == StatementExportService.Format.CSV ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"statement-" + id + "." + extension + "\"");
+        if (gzip) ok.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        return ok.body(body);
     }
 
     @GetMapping("/by-customer/{customerId}")
     public List<AccountDtos.AccountResponse> byCustomer(@PathVariable Long customerId){
-        return accountService.listAccountsForCustomer(customerId).stream().map(AccountController::toDto).collect(Collectors.toList());
+        return accountService.listAccountsForCustomer(customerId);
     }
 
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void delete(@PathVariable Long id) { accountService.deleteAccount(id); }
 
-    private static AccountDtos.AccountResponse toDto(Account a) {
+    static AccountDtos.AccountResponse toDto(Account a) {
         AccountDtos.AccountResponse dto = new AccountDtos.AccountResponse();
         dto.id = a.getId();
         dto.accountNumber = a.getAccountNumber();
         dto.customerId = a.getCustomer() != null ? a.getCustomer().getId() : null;
         dto.accountType = a.getAccountType();
-        dto.balance = a.getBalance();
+        dto.balance = a.getTotalBalance();
         dto.openedAt = a.getOpenedAt();
         dto.interestRate = a.getInterestRate();
         dto.overdraftLimit = a.getOverdraftLimit();
         dto.status = a.getStatus();
         return dto;
     }
-
-    private static AccountDtos.TransactionResponse toTxnDto(BankTransaction t){
-        AccountDtos.TransactionResponse d = new AccountDtos.TransactionResponse();
-        d.id = t.getId();
-        d.txnType = t.getTxnType();
-        d.amount = t.getAmount();
-        d.txnDate = t.getTxnDate();
-        d.note = t.getNote();
-        return d;
-    }
 }
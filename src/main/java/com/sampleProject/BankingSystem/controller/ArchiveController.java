@@ -0,0 +1,45 @@
+package com.sampleProject.BankingSystem.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import com.sampleProject.BankingSystem.dto.ArchiveDtos;
+import com.sampleProject.BankingSystem.service.ArchiveService;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/archive")
+public class ArchiveController {
+    private final ArchiveService archiveService;
+
+    public ArchiveController(ArchiveService archiveService) {
+        this.archiveService = archiveService;
+    }
+
+    @PostMapping("/months/{month}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ArchiveDtos.RunResponse archive(@PathVariable String month) {
+        return archiveService.start(parse(month));
+    }
+
+    @GetMapping("/months/{month}")
+    public ArchiveDtos.RunResponse status(@PathVariable String month) {
+        return archiveService.status(parse(month));
+    }
+
+    @GetMapping("/segments")
+    public List<ArchiveDtos.SegmentResponse> segments() {
+        return archiveService.segments();
+    }
+
+    private static YearMonth parse(String month) {
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("month must be yyyy-MM");
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package com.sampleProject.BankingSystem.controller;
 
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import com.sampleProject.BankingSystem.config.SessionTokenFilter;
 import com.sampleProject.BankingSystem.dto.CustomerDtos;
 import com.sampleProject.BankingSystem.model.Customer;
 import com.sampleProject.BankingSystem.service.CustomerService;
+import com.sampleProject.BankingSystem.service.SessionTokenService;
 
 @RestController
 @RequestMapping("/api/v1/auth")
@@ -14,13 +17,15 @@ import com.sampleProject.BankingSystem.service.CustomerService;
 public class AuthController {
 
     private final CustomerService customerService;
+    private final SessionTokenService sessionTokenService;
 
-    public AuthController(CustomerService customerService) {
+    public AuthController(CustomerService customerService, SessionTokenService sessionTokenService) {
         this.customerService = customerService;
+        this.sessionTokenService = sessionTokenService;
     }
 
-    private CustomerDtos.CustomerResponse toDto(Customer c){
-        CustomerDtos.CustomerResponse d = new CustomerDtos.CustomerResponse();
+    private CustomerDtos.LoginResponse toDto(Customer c){
+        CustomerDtos.LoginResponse d = new CustomerDtos.LoginResponse();
         d.setId(c.getId());
         d.setFirstName(c.getFirstName());
         d.setLastName(c.getLastName());
@@ -32,19 +37,25 @@ public class AuthController {
     }
 
     /**
-     * Simplified login validating plain password (demo only).
+     * Checks the password and issues a signed session token (see SessionTokenService).
      */
     @PostMapping("/login")
-    public ResponseEntity<CustomerDtos.CustomerResponse> login(@RequestBody @Valid CustomerDtos.LoginRequest req){
+    public ResponseEntity<CustomerDtos.LoginResponse> login(@RequestBody @Valid CustomerDtos.LoginRequest req){
         Customer c = customerService.authenticate(req.getEmail(), req.getPassword());
-        return ResponseEntity.ok(toDto(c));
+        SessionTokenService.IssuedToken token = sessionTokenService.issue(c.getId());
+        CustomerDtos.LoginResponse resp = toDto(c);
+        resp.setToken(token.token());
+        resp.setExpiresAt(token.expiresAt());
+        return ResponseEntity.ok(resp);
     }
 
     /**
-     * No-op logout kept for compatibility.
+     * Revokes the bearer token, if any. Always 204, so clients can log out blindly.
      */
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(){
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization){
+        String token = SessionTokenFilter.bearerToken(authorization);
+        if (token != null) sessionTokenService.revoke(token);
         return ResponseEntity.noContent().build();
     }
 }
@@ -30,6 +30,11 @@ public class CustomerController {
         return toDto(customerService.getCustomer(id));
     }
 
+    @GetMapping("/cache/stats")
+    public CustomerDtos.CacheStatsResponse cacheStats() {
+        return customerService.cacheStats();
+    }
+
     @PutMapping("/{id}/profile")
     public CustomerDtos.CustomerResponse update(@PathVariable Long id, @RequestBody @Valid CustomerDtos.UpdateProfileRequest req) {
         Customer updated = customerService.updateProfile(id, req);
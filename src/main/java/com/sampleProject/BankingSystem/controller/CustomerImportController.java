@@ -0,0 +1,63 @@
+package com.sampleProject.BankingSystem.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.sampleProject.BankingSystem.service.CustomerImportService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/api/v1/customers/import")
+public class CustomerImportController {
+    private final CustomerImportService customerImportService;
+
+    public CustomerImportController(CustomerImportService customerImportService) {
+        this.customerImportService = customerImportService;
+    }
+
+    /**
+     * Streams the uploaded CSV into CustomerImportService and answers with the rejected rows as CSV, with the counts
+     * in X-Import-Rows, X-Import-Imported and X-Import-Rejected. The report is spooled to a temporary file while the
+     * upload is read, so a client that only reads once it has sent everything cannot stall the import.
+     */
+    @PostMapping(consumes = "text/csv")
+    public ResponseEntity<StreamingResponseBody> importCsv(HttpServletRequest request) throws IOException {
+        Charset charset = request.getCharacterEncoding() != null ? Charset.forName(request.getCharacterEncoding()) : StandardCharsets.UTF_8;
+        Path report = Files.createTempFile("customer-import", ".csv");
+        CustomerImportService.Result result;
+        try (Reader in = new BufferedReader(new InputStreamReader(request.getInputStream(), charset), 64 * 1024);
+             Writer out = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            result = customerImportService.importCsv(in, out);
+        } catch (IOException | RuntimeException ex) {
+            Files.deleteIfExists(report);
+            throw ex;
+        }
+        StreamingResponseBody body = out -> {
+            try {
+                Files.copy(report, out);
+            } finally {
+                Files.deleteIfExists(report);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"customer-import-rejected.csv\"")
+                .header("X-Import-Rows", Long.toString(result.rows()))
+                .header("X-Import-Imported", Long.toString(result.imported()))
+                .header("X-Import-Rejected", Long.toString(result.rejected()))
+                .body(body);
+    }
+}
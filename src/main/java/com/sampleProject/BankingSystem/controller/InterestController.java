@@ -0,0 +1,40 @@
+package com.sampleProject.BankingSystem.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import com.sampleProject.BankingSystem.dto.InterestDtos;
+import com.sampleProject.BankingSystem.service.InterestPostingService;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+
+@RestController
+@RequestMapping("/api/v1/interest/runs")
+public class InterestController {
+    private final InterestPostingService interestPostingService;
+
+    public InterestController(InterestPostingService interestPostingService) {
+        this.interestPostingService = interestPostingService;
+    }
+
+    // starts (or resumes) the run in the background; poll GET for progress
+    @PostMapping("/{period}")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public InterestDtos.RunResponse start(@PathVariable String period) {
+        return interestPostingService.start(parse(period));
+    }
+
+    @GetMapping("/{period}")
+    public InterestDtos.RunResponse status(@PathVariable String period) {
+        return interestPostingService.status(parse(period));
+    }
+
+    private static YearMonth parse(String period) {
+        try {
+            return YearMonth.parse(period);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("period must be yyyy-MM");
+        }
+    }
+}
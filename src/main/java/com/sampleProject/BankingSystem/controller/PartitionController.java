@@ -0,0 +1,42 @@
+package com.sampleProject.BankingSystem.controller;
+
+import org.springframework.web.bind.annotation.*;
+
+import com.sampleProject.BankingSystem.dto.PartitionDtos;
+import com.sampleProject.BankingSystem.service.TransactionPartitionService;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/transactions/partitions")
+public class PartitionController {
+    private final TransactionPartitionService partitionService;
+
+    public PartitionController(TransactionPartitionService partitionService) {
+        this.partitionService = partitionService;
+    }
+
+    @GetMapping
+    public List<PartitionDtos.PartitionResponse> partitions() {
+        return partitionService.partitions();
+    }
+
+    @PostMapping("/{month}/detach")
+    public PartitionDtos.DetachResponse detach(@PathVariable String month) {
+        YearMonth m = parse(month);
+        PartitionDtos.DetachResponse resp = new PartitionDtos.DetachResponse();
+        resp.month = m.toString();
+        resp.table = partitionService.detach(m);
+        return resp;
+    }
+
+    private static YearMonth parse(String month) {
+        try {
+            return YearMonth.parse(month);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("month must be yyyy-MM");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.sampleProject.BankingSystem.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import com.sampleProject.BankingSystem.dto.ReconciliationDtos;
+import com.sampleProject.BankingSystem.service.ReconciliationService;
+
+@RestController
+@RequestMapping("/api/v1/reconciliation/runs")
+public class ReconciliationController {
+    private final ReconciliationService reconciliationService;
+
+    public ReconciliationController(ReconciliationService reconciliationService) {
+        this.reconciliationService = reconciliationService;
+    }
+
+    // runs in the background; poll GET for progress and mismatches
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public ReconciliationDtos.RunResponse start() {
+        return reconciliationService.start();
+    }
+
+    @GetMapping("/latest")
+    public ReconciliationDtos.RunResponse latest() {
+        return reconciliationService.latest();
+    }
+
+    @GetMapping("/{id}")
+    public ReconciliationDtos.RunResponse status(@PathVariable Long id) {
+        return reconciliationService.status(id);
+    }
+}
@@ -1,10 +1,16 @@
 package com.sampleProject.BankingSystem.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.List;
 
 import com.sampleProject.BankingSystem.model.AccountType;
 
@@ -30,11 +36,47 @@ public class AccountDtos {
         public BigDecimal interestRate;
         public BigDecimal overdraftLimit;
         public String status;
+
+        public AccountResponse() {}
+
+        // used by the JPQL constructor projections in AccountRepository
+        public AccountResponse(Long id, String accountNumber, Long customerId, AccountType accountType, BigDecimal balance,
+                               Instant openedAt, BigDecimal interestRate, BigDecimal overdraftLimit, String status) {
+            this.id = id;
+            this.accountNumber = accountNumber;
+            this.customerId = customerId;
+            this.accountType = accountType;
+            this.balance = balance;
+            this.openedAt = openedAt;
+            this.interestRate = interestRate;
+            this.overdraftLimit = overdraftLimit;
+            this.status = status;
+        }
     }
 
     public static class BalanceResponse {
         public Long accountId;
         public BigDecimal balance;
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        public Instant asOf; // only for ?at= lookups
+    }
+
+    public static class BackfillResponse {
+        public boolean running;
+        public Instant startedAt;
+        public Instant finishedAt;
+        public int accounts;
+        public int accountsDone;
+        public int accountsSkipped;
+        public long rowsUpdated;
+    }
+
+    public static class BalanceCacheStatsResponse {
+        public long size;
+        public long hits;
+        public long misses;
+        public long evictions;
+        public double hitRate;
     }
 
     public static class MoneyRequest {
@@ -55,11 +97,70 @@ public class AccountDtos {
         public String note;
     }
 
+    public static class HotModeRequest {
+        @NotNull
+        @Min(1)
+        @Max(64)
+        public Integer slots;
+    }
+
+    public enum BatchMode { ALL_OR_NOTHING, PER_ITEM }
+
+    public enum BatchOperationType { DEPOSIT, WITHDRAW, TRANSFER }
+
+    public static class BatchOperation {
+        public BatchOperationType type;
+        public Long accountId; // deposit / withdraw
+        public Long fromAccountId; // transfer
+        public Long toAccountId; // transfer
+        public BigDecimal amount;
+        public String note;
+    }
+
+    public static class BatchRequest {
+        public BatchMode mode = BatchMode.ALL_OR_NOTHING;
+        // items are validated one by one so PER_ITEM batches can report each failure
+        @NotEmpty
+        @Size(max = 5000)
+        public List<BatchOperation> operations;
+    }
+
+    public static class BatchItemResult {
+        public int index;
+        public String status; // APPLIED, FAILED, ROLLED_BACK
+        public String error;
+    }
+
+    public static class BatchResponse {
+        public BatchMode mode;
+        public boolean committed;
+        public int applied;
+        public int failed;
+        public List<BatchItemResult> results;
+    }
+
     public static class TransactionResponse {
         public Long id;
         public String txnType;
         public BigDecimal amount;
         public Instant txnDate;
         public String note;
+        public BigDecimal balanceAfter;
+
+        public TransactionResponse() {}
+
+        public TransactionResponse(Long id, String txnType, BigDecimal amount, Instant txnDate, String note) {
+            this(id, txnType, amount, txnDate, note, null);
+        }
+
+        // used by the JPQL constructor projections in BankTransactionRepository
+        public TransactionResponse(Long id, String txnType, BigDecimal amount, Instant txnDate, String note, BigDecimal balanceAfter) {
+            this.id = id;
+            this.txnType = txnType;
+            this.amount = amount;
+            this.txnDate = txnDate;
+            this.note = note;
+            this.balanceAfter = balanceAfter;
+        }
     }
 }
@@ -0,0 +1,28 @@
+package com.sampleProject.BankingSystem.dto;
+
+import java.time.Instant;
+
+public class ArchiveDtos {
+
+    public static class RunResponse {
+        public String month;
+        public String status; // RUNNING, COMPLETED or FAILED
+        public Instant startedAt;
+        public Instant finishedAt;
+        public long rows;
+        public int segments;
+        public long bytes;
+        public String error;
+    }
+
+    public static class SegmentResponse {
+        public String month;
+        public int part;
+        public String fileName;
+        public long rows;
+        public long firstAccountId;
+        public long lastAccountId;
+        public long sizeBytes;
+        public Instant createdAt;
+    }
+}
@@ -142,4 +142,44 @@ public class CustomerDtos {
         public String getPassword() { return password; }
         public void setPassword(String password) { this.password = password; }
     }
+
+    /** The customer plus a session token; send it back as {@code Authorization: Bearer <token>}. */
+    public static class LoginResponse extends CustomerResponse {
+        private String token;
+        private Instant expiresAt;
+
+        public String getToken() { return token; }
+        public void setToken(String token) { this.token = token; }
+        public Instant getExpiresAt() { return expiresAt; }
+        public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+    }
+
+    public static class RegionStats {
+        private long hits;
+        private long misses;
+        private double hitRate;
+        private long evictions;
+        private long elementsInMemory;
+
+        public long getHits() { return hits; }
+        public void setHits(long hits) { this.hits = hits; }
+        public long getMisses() { return misses; }
+        public void setMisses(long misses) { this.misses = misses; }
+        public double getHitRate() { return hitRate; }
+        public void setHitRate(double hitRate) { this.hitRate = hitRate; }
+        public long getEvictions() { return evictions; }
+        public void setEvictions(long evictions) { this.evictions = evictions; }
+        public long getElementsInMemory() { return elementsInMemory; }
+        public void setElementsInMemory(long elementsInMemory) { this.elementsInMemory = elementsInMemory; }
+    }
+
+    public static class CacheStatsResponse {
+        private RegionStats entity;
+        private RegionStats naturalId;
+
+        public RegionStats getEntity() { return entity; }
+        public void setEntity(RegionStats entity) { this.entity = entity; }
+        public RegionStats getNaturalId() { return naturalId; }
+        public void setNaturalId(RegionStats naturalId) { this.naturalId = naturalId; }
+    }
 }
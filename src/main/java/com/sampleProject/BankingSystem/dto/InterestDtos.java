@@ -0,0 +1,30 @@
+package com.sampleProject.BankingSystem.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+public class InterestDtos {
+    public static class RangeResponse {
+        public long rangeStart;
+        public long rangeEnd;
+        public long checkpoint;
+        public boolean done;
+        public long accountsPosted;
+        public BigDecimal amountPosted;
+        public int chunks;
+        public long millis;
+        public double accountsPerSecond;
+    }
+
+    public static class RunResponse {
+        public String period;
+        public String status;
+        public Instant startedAt;
+        public Instant finishedAt;
+        public long accountsPosted;
+        public BigDecimal amountPosted;
+        public int rangesDone;
+        public List<RangeResponse> ranges;
+    }
+}
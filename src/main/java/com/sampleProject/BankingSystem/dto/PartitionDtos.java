@@ -0,0 +1,17 @@
+package com.sampleProject.BankingSystem.dto;
+
+public class PartitionDtos {
+
+    public static class PartitionResponse {
+        public String name;
+        // as PostgreSQL prints them, e.g. FOR VALUES FROM ('2025-11-01 00:00:00+00') TO ('2025-12-01 00:00:00+00')
+        public String bounds;
+        // planner estimate (pg_class.reltuples), not a count
+        public long estimatedRows;
+    }
+
+    public static class DetachResponse {
+        public String month;
+        public String table;
+    }
+}
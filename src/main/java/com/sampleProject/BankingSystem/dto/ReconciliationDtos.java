@@ -0,0 +1,26 @@
+package com.sampleProject.BankingSystem.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+public class ReconciliationDtos {
+    public static class MismatchResponse {
+        public Long accountId;
+        public BigDecimal balance;
+        public BigDecimal ledgerSum;
+        public BigDecimal difference;
+    }
+
+    public static class RunResponse {
+        public Long id;
+        public String status;
+        public Instant startedAt;
+        public Instant finishedAt;
+        public int partitions;
+        public int partitionsDone;
+        public long accountsChecked;
+        public long mismatchCount;
+        public List<MismatchResponse> mismatches; // first MAX_LISTED by account id
+    }
+}
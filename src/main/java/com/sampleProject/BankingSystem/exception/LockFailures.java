@@ -0,0 +1,16 @@
+package com.sampleProject.BankingSystem.exception;
+
+import java.sql.SQLException;
+
+/** Tells a deadlock victim apart from a plain lock wait timeout by the SQL state under a lock failure. */
+public final class LockFailures {
+    private LockFailures() {}
+
+    // 40P01 is Postgres deadlock_detected, 40001 is H2's deadlock code
+    public static boolean isDeadlock(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && ("40P01".equals(sql.getSQLState()) || "40001".equals(sql.getSQLState()))) return true;
+        }
+        return false;
+    }
+}
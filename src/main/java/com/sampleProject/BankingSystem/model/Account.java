@@ -1,5 +1,6 @@
 package com.sampleProject.BankingSystem.model;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -8,14 +9,19 @@ import java.util.List;
 @Entity
 @Table(name = "accounts")
 public class Account {
+    // increment of account_number_seq (see AccountNumberGenerator); changing it needs a new sequence, or blocks would overlap
+    public static final int NUMBER_BLOCK_SIZE = 1000;
+
+    // pooled sequence (not IDENTITY) so Hibernate can batch inserts; see db/align-sequences.sql
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "accounts_seq")
+    @SequenceGenerator(name = "accounts_seq", sequenceName = "accounts_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "account_number", nullable = false, unique = true, length = 32)
     private String accountNumber;
 
-    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "customer_id", nullable = false)
     private Customer customer;
 
@@ -41,6 +47,23 @@ public class Account {
     @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<BankTransaction> transactions;
 
+    // checked by every UPDATE; the OPTIMISTIC locking mode relies on it instead of a row lock
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // Number of balance slots when the account is in hot mode; null for regular accounts
+    @Column(name = "hot_slots")
+    private Integer hotSlots;
+
+    @OneToMany(mappedBy = "account", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<AccountBalanceSlot> balanceSlots;
+
+    // Sum of the slot balances, filled in by the service layer for hot accounts (not persisted)
+    @Transient
+    private BigDecimal slotBalance = BigDecimal.ZERO;
+
     @PrePersist
     void prePersist() {
         if (openedAt == null) openedAt = Instant.now();
@@ -77,4 +100,23 @@ public class Account {
 
     public List<BankTransaction> getTransactions() { return transactions; }
     public void setTransactions(List<BankTransaction> transactions) { this.transactions = transactions; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public Integer getHotSlots() { return hotSlots; }
+    public void setHotSlots(Integer hotSlots) { this.hotSlots = hotSlots; }
+
+    public boolean isHot() { return hotSlots != null && hotSlots > 0; }
+
+    public List<AccountBalanceSlot> getBalanceSlots() { return balanceSlots; }
+    public void setBalanceSlots(List<AccountBalanceSlot> balanceSlots) { this.balanceSlots = balanceSlots; }
+
+    public BigDecimal getSlotBalance() { return slotBalance; }
+    public void setSlotBalance(BigDecimal slotBalance) { this.slotBalance = slotBalance; }
+
+    /** Balance as seen by clients: the account row plus any undrained hot-account slots. */
+    public BigDecimal getTotalBalance() {
+        return slotBalance == null ? balance : balance.add(slotBalance);
+    }
 }
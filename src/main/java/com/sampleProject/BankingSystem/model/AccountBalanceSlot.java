@@ -0,0 +1,39 @@
+package com.sampleProject.BankingSystem.model;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * One sub-balance of a hot account. Deposits land on a random slot so they only
+ * contend on that slot's row; the account total is the account balance plus all slots.
+ */
+@Entity
+@Table(name = "account_balance_slots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_slot_account_slot_no", columnNames = {"account_id", "slot_no"}))
+public class AccountBalanceSlot {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+
+    @Column(name = "slot_no", nullable = false)
+    private int slotNo;
+
+    @Column(name = "balance", nullable = false, precision = 18, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Account getAccount() { return account; }
+    public void setAccount(Account account) { this.account = account; }
+
+    public int getSlotNo() { return slotNo; }
+    public void setSlotNo(int slotNo) { this.slotNo = slotNo; }
+
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+}
@@ -0,0 +1,67 @@
+package com.sampleProject.BankingSystem.model;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/** One segment file of archived transactions (see ArchiveService). A month is one or more parts. */
+@Entity
+@Table(name = "archive_segments", uniqueConstraints = @UniqueConstraint(name = "uk_archive_segment_period_part", columnNames = {"period", "part"}))
+public class ArchiveSegment {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "archive_segments_seq")
+    @SequenceGenerator(name = "archive_segments_seq", sequenceName = "archive_segments_seq", allocationSize = 1)
+    private Long id;
+
+    // yyyy-MM, UTC
+    @Column(name = "period", nullable = false, length = 7)
+    private String period;
+
+    @Column(name = "part", nullable = false)
+    private int part;
+
+    // relative to banking.archive.dir
+    @Column(name = "file_name", nullable = false, length = 100)
+    private String fileName;
+
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+
+    @Column(name = "first_account_id", nullable = false)
+    private long firstAccountId;
+
+    @Column(name = "last_account_id", nullable = false)
+    private long lastAccountId;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+
+    public int getPart() { return part; }
+    public void setPart(int part) { this.part = part; }
+
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+
+    public long getRowCount() { return rowCount; }
+    public void setRowCount(long rowCount) { this.rowCount = rowCount; }
+
+    public long getFirstAccountId() { return firstAccountId; }
+    public void setFirstAccountId(long firstAccountId) { this.firstAccountId = firstAccountId; }
+
+    public long getLastAccountId() { return lastAccountId; }
+    public void setLastAccountId(long lastAccountId) { this.lastAccountId = lastAccountId; }
+
+    public long getSizeBytes() { return sizeBytes; }
+    public void setSizeBytes(long sizeBytes) { this.sizeBytes = sizeBytes; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
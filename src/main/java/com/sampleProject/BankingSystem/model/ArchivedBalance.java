@@ -0,0 +1,47 @@
+package com.sampleProject.BankingSystem.model;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+
+/**
+ * What an account's archived transactions add up to, so reconciliation and the balance backfill do not have to
+ * read the segment files. Written in the same transaction that removes the rows from the ledger.
+ */
+@Entity
+@Table(name = "archived_balances")
+public class ArchivedBalance implements Persistable<Long> {
+    @Id
+    @Column(name = "account_id")
+    private Long accountId;
+
+    // credits positive, debits negative
+    @Column(name = "signed_sum", nullable = false, precision = 18, scale = 2)
+    private BigDecimal signedSum;
+
+    @Column(name = "row_count", nullable = false)
+    private long rowCount;
+
+    // keyed by account id, so tell Spring Data to persist instead of merge
+    @Transient
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { isNew = false; }
+
+    @Override
+    public Long getId() { return accountId; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+
+    public BigDecimal getSignedSum() { return signedSum; }
+    public void setSignedSum(BigDecimal signedSum) { this.signedSum = signedSum; }
+
+    public long getRowCount() { return rowCount; }
+    public void setRowCount(long rowCount) { this.rowCount = rowCount; }
+}
@@ -6,13 +6,16 @@ import java.math.BigDecimal;
 import java.time.Instant;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions",
+        indexes = @Index(name = "idx_txn_account_date_id", columnList = "account_id, txn_date DESC, id DESC"))
 public class BankTransaction {
+    // pooled sequence (not IDENTITY) so ledger inserts are sent as JDBC batches
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "account_id", nullable = false)
     @JsonIgnore
     private Account account;
@@ -23,12 +26,18 @@ public class BankTransaction {
     @Column(name = "amount", nullable = false, precision = 18, scale = 2)
     private BigDecimal amount;
 
-    @Column(name = "txn_date")
+    // the partition key on Postgres (see TransactionPartitionService)
+    @Column(name = "txn_date", nullable = false)
     private Instant txnDate;
 
     @Column(name = "note")
     private String note;
 
+    // account balance right after this row, written under the account row lock; null for rows of hot accounts
+    // (slot deposits do not take that lock) and for rows older than the column until the backfill has run
+    @Column(name = "balance_after", precision = 18, scale = 2)
+    private BigDecimal balanceAfter;
+
     @PrePersist
     void prePersist() {
         if (txnDate == null) txnDate = Instant.now();
@@ -51,4 +60,7 @@ public class BankTransaction {
 
     public String getNote() { return note; }
     public void setNote(String note) { this.note = note; }
+
+    public BigDecimal getBalanceAfter() { return balanceAfter; }
+    public void setBalanceAfter(BigDecimal balanceAfter) { this.balanceAfter = balanceAfter; }
 }
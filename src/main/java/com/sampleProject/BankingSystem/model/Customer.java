@@ -4,10 +4,21 @@ import jakarta.persistence.*;
 import java.time.Instant;
 import java.time.LocalDate;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
+// second-level cached; regions are sized in hibernate-caffeine.conf
 @Entity
 @Table(name = "customers")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Customer.CACHE_REGION)
+@NaturalIdCache(region = Customer.NATURAL_ID_CACHE_REGION)
 public class Customer {
+    public static final String CACHE_REGION = "customers";
+    public static final String NATURAL_ID_CACHE_REGION = "customers-by-email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -18,6 +29,8 @@ public class Customer {
     @Column(name = "last_name", length = 100)
     private String lastName;
 
+    // mutable: updateProfile may change it, Hibernate then re-keys the natural-id cache on commit
+    @NaturalId(mutable = true)
     @Column(name = "email", length = 255, unique = true)
     private String email;
 
@@ -30,7 +43,7 @@ public class Customer {
     @Column(name = "dob")
     private LocalDate dob;
 
-    // Store plain password as per simplified requirement (NOT for production use)
+    // PasswordHasher format ("{bcrypt}..."); rows from before hashing hold plain text until the next login
     @JsonIgnore
     @Column(name = "password", length = 255)
     private String password;
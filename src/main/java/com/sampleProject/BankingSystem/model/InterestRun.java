@@ -0,0 +1,56 @@
+package com.sampleProject.BankingSystem.model;
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * One interest posting per month (see InterestPostingService). The period is the key, so a month can be
+ * posted at most once; a run left RUNNING by a crash is resumed from its range checkpoints.
+ */
+@Entity
+@Table(name = "interest_runs")
+public class InterestRun implements Persistable<String> {
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+
+    // yyyy-MM
+    @Id
+    @Column(name = "period", length = 7)
+    private String period;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    // the period is assigned, not generated, so tell Spring Data to persist instead of merge
+    @Transient
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() { isNew = false; }
+
+    @Override
+    public String getId() { return period; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+}
@@ -0,0 +1,77 @@
+package com.sampleProject.BankingSystem.model;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/**
+ * A slice [rangeStart, rangeEnd] of the account id space within an interest run. The checkpoint is the last
+ * account id already posted; it is moved in the same transaction as the postings, so it never runs ahead of
+ * or behind the ledger.
+ */
+@Entity
+@Table(name = "interest_run_ranges",
+        uniqueConstraints = @UniqueConstraint(name = "uk_interest_range_period_start", columnNames = {"period", "range_start"}))
+public class InterestRunRange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "interest_run_ranges_seq")
+    @SequenceGenerator(name = "interest_run_ranges_seq", sequenceName = "interest_run_ranges_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "period", nullable = false, length = 7)
+    private String period;
+
+    @Column(name = "range_start", nullable = false)
+    private long rangeStart;
+
+    @Column(name = "range_end", nullable = false)
+    private long rangeEnd;
+
+    @Column(name = "checkpoint", nullable = false)
+    private long checkpoint;
+
+    @Column(name = "done", nullable = false)
+    private boolean done;
+
+    @Column(name = "accounts_posted", nullable = false)
+    private long accountsPosted;
+
+    @Column(name = "amount_posted", nullable = false, precision = 18, scale = 2)
+    private BigDecimal amountPosted = BigDecimal.ZERO;
+
+    @Column(name = "chunks", nullable = false)
+    private int chunks;
+
+    // time spent inside chunk transactions, excluding the commit
+    @Column(name = "millis", nullable = false)
+    private long millis;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getPeriod() { return period; }
+    public void setPeriod(String period) { this.period = period; }
+
+    public long getRangeStart() { return rangeStart; }
+    public void setRangeStart(long rangeStart) { this.rangeStart = rangeStart; }
+
+    public long getRangeEnd() { return rangeEnd; }
+    public void setRangeEnd(long rangeEnd) { this.rangeEnd = rangeEnd; }
+
+    public long getCheckpoint() { return checkpoint; }
+    public void setCheckpoint(long checkpoint) { this.checkpoint = checkpoint; }
+
+    public boolean isDone() { return done; }
+    public void setDone(boolean done) { this.done = done; }
+
+    public long getAccountsPosted() { return accountsPosted; }
+    public void setAccountsPosted(long accountsPosted) { this.accountsPosted = accountsPosted; }
+
+    public BigDecimal getAmountPosted() { return amountPosted; }
+    public void setAmountPosted(BigDecimal amountPosted) { this.amountPosted = amountPosted; }
+
+    public int getChunks() { return chunks; }
+    public void setChunks(int chunks) { this.chunks = chunks; }
+
+    public long getMillis() { return millis; }
+    public void setMillis(long millis) { this.millis = millis; }
+}
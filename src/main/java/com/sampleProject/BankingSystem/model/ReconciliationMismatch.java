@@ -0,0 +1,41 @@
+package com.sampleProject.BankingSystem.model;
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+
+/** An account whose balance (row plus hot-account slots) differs from the signed sum of its ledger. */
+@Entity
+@Table(name = "reconciliation_mismatches", indexes = @Index(name = "idx_recon_mismatch_run", columnList = "run_id, account_id"))
+public class ReconciliationMismatch {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reconciliation_mismatches_seq")
+    @SequenceGenerator(name = "reconciliation_mismatches_seq", sequenceName = "reconciliation_mismatches_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "run_id", nullable = false)
+    private Long runId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "balance", nullable = false, precision = 18, scale = 2)
+    private BigDecimal balance;
+
+    @Column(name = "ledger_sum", nullable = false, precision = 18, scale = 2)
+    private BigDecimal ledgerSum;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getRunId() { return runId; }
+    public void setRunId(Long runId) { this.runId = runId; }
+
+    public Long getAccountId() { return accountId; }
+    public void setAccountId(Long accountId) { this.accountId = accountId; }
+
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+
+    public BigDecimal getLedgerSum() { return ledgerSum; }
+    public void setLedgerSum(BigDecimal ledgerSum) { this.ledgerSum = ledgerSum; }
+}
@@ -0,0 +1,64 @@
+package com.sampleProject.BankingSystem.model;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/** One pass of the ledger reconciliation (see ReconciliationService). */
+@Entity
+@Table(name = "reconciliation_runs")
+public class ReconciliationRun {
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reconciliation_runs_seq")
+    @SequenceGenerator(name = "reconciliation_runs_seq", sequenceName = "reconciliation_runs_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(name = "status", nullable = false, length = 20)
+    private String status;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    // refreshed by the instance running it; a RUNNING run whose heartbeat stops is failed by any instance
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+
+    @Column(name = "partitions", nullable = false)
+    private int partitions;
+
+    @Column(name = "accounts_checked", nullable = false)
+    private long accountsChecked;
+
+    @Column(name = "mismatches", nullable = false)
+    private long mismatches;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public Instant getStartedAt() { return startedAt; }
+    public void setStartedAt(Instant startedAt) { this.startedAt = startedAt; }
+
+    public Instant getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(Instant finishedAt) { this.finishedAt = finishedAt; }
+
+    public Instant getHeartbeatAt() { return heartbeatAt; }
+    public void setHeartbeatAt(Instant heartbeatAt) { this.heartbeatAt = heartbeatAt; }
+
+    public int getPartitions() { return partitions; }
+    public void setPartitions(int partitions) { this.partitions = partitions; }
+
+    public long getAccountsChecked() { return accountsChecked; }
+    public void setAccountsChecked(long accountsChecked) { this.accountsChecked = accountsChecked; }
+
+    public long getMismatches() { return mismatches; }
+    public void setMismatches(long mismatches) { this.mismatches = mismatches; }
+}
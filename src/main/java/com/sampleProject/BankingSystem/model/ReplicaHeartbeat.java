@@ -0,0 +1,23 @@
+package com.sampleProject.BankingSystem.model;
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/** A single row the primary stamps regularly; how old it is on the replica is the replica's lag (see ReplicaLagMonitor). */
+@Entity
+@Table(name = "replica_heartbeat")
+public class ReplicaHeartbeat {
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "beat_at", nullable = false)
+    private Instant beatAt;
+
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public Instant getBeatAt() { return beatAt; }
+    public void setBeatAt(Instant beatAt) { this.beatAt = beatAt; }
+}
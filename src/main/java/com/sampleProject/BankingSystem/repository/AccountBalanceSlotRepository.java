@@ -0,0 +1,30 @@
+package com.sampleProject.BankingSystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.sampleProject.BankingSystem.model.AccountBalanceSlot;
+
+import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<AccountBalanceSlot> findWithLockingById(Long id);
+
+    // slot order gives every drainer the same lock order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<AccountBalanceSlot> findWithLockingByAccount_IdOrderBySlotNo(Long accountId);
+
+    List<AccountBalanceSlot> findByAccount_IdOrderBySlotNo(Long accountId);
+
+    @Query("select s.account.id, s.id from AccountBalanceSlot s order by s.account.id, s.slotNo")
+    List<Object[]> findAllSlotIds();
+
+    @Query("select coalesce(sum(s.balance), 0) from AccountBalanceSlot s where s.account.id = :accountId")
+    BigDecimal sumBalanceByAccountId(@Param("accountId") Long accountId);
+}
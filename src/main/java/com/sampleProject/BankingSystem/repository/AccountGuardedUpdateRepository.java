@@ -0,0 +1,24 @@
+package com.sampleProject.BankingSystem.repository;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Balance changes that check the funds, move the money and write the ledger rows in one statement.
+ * The row lock lasts for that statement (and the commit) instead of a SELECT ... FOR UPDATE followed
+ * by a Java round trip. Hot accounts are never touched: their balance also lives in slot rows.
+ */
+public interface AccountGuardedUpdateRepository {
+    /** Whether the database can run the statements below (data-modifying CTEs: PostgreSQL only). */
+    boolean supportsGuardedUpdates();
+
+    /** The new balance, or empty if nothing changed: unknown or hot account, or not enough funds. */
+    Optional<BigDecimal> guardedDebit(Long accountId, BigDecimal amount, String txnType, String note);
+
+    /**
+     * New balances by account id. Anything but both accounts means the transfer did not go through, and
+     * the caller must roll back: the credit side may have been applied on its own.
+     */
+    Map<Long, BigDecimal> guardedTransfer(Long fromId, Long toId, BigDecimal amount, String note);
+}
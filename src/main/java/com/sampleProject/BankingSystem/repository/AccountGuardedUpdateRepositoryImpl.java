@@ -0,0 +1,131 @@
+package com.sampleProject.BankingSystem.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sampleProject.BankingSystem.model.Account;
+import com.sampleProject.BankingSystem.model.BankTransaction;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// the same overdraft rule as AccountService.availableFunds: only CURRENT accounts may go below zero
+class AccountGuardedUpdateRepositoryImpl implements AccountGuardedUpdateRepository {
+    private static final String HEADROOM =
+            "(case when a.account_type = 'CURRENT' then coalesce(a.overdraft_limit, 0) else 0 end)";
+
+    // the version bump keeps OPTIMISTIC writers of the same row honest. txn_date is read after the row lock, like
+    // the locked path's, so txn_date order matches balance_after order.
+    private static final String DEBIT = """
+            with debited as (
+                update accounts a set balance = a.balance - :amount, version = a.version + 1
+                where a.id = :id and coalesce(a.hot_slots, 0) = 0 and a.balance + %s >= :amount
+                returning a.id, a.balance
+            ), ledger as (
+                insert into transactions (id, account_id, txn_type, amount, txn_date, note, balance_after)
+                select :txnId, id, cast(:txnType as varchar), :amount, clock_timestamp(), cast(:note as varchar), balance from debited
+            )
+            select balance from debited""".formatted(HEADROOM);
+
+    // rows are locked in id order, like the locked path; ledger rows are only written if both sides moved
+    private static final String TRANSFER = """
+            with locked as (
+                select id from accounts where id in (:fromId, :toId) order by id for update
+            ), moved as (
+                update accounts a set version = a.version + 1,
+                    balance = case when a.id = :fromId then a.balance - :amount else a.balance + :amount end
+                from locked l
+                where a.id = l.id and coalesce(a.hot_slots, 0) = 0
+                  and (a.id = :toId or a.balance + %s >= :amount)
+                returning a.id, a.balance
+            ), ledger as (
+                insert into transactions (id, account_id, txn_type, amount, txn_date, note, balance_after)
+                select case when id = :fromId then :outId else :inId end, id,
+                    case when id = :fromId then 'TRANSFER_OUT' else 'TRANSFER_IN' end, :amount, clock_timestamp(),
+                    cast(:note as varchar), balance
+                from moved where (select count(*) from moved) = 2
+            )
+            select id, balance from moved""".formatted(HEADROOM);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final boolean supported;
+
+    AccountGuardedUpdateRepositoryImpl(EntityManagerFactory entityManagerFactory) {
+        this.supported = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+    }
+
+    @Override
+    public boolean supportsGuardedUpdates() {
+        return supported;
+    }
+
+    @Override
+    @Transactional
+    public Optional<BigDecimal> guardedDebit(Long accountId, BigDecimal amount, String txnType, String note) {
+        List<?> rows = query(DEBIT)
+                .setParameter("id", accountId)
+                .setParameter("amount", amount)
+                .setParameter("txnId", nextTransactionId())
+                .setParameter("txnType", txnType)
+                .setParameter("note", note)
+                .getResultList();
+        evict(accountId);
+        return rows.stream().findFirst().map(BigDecimal.class::cast);
+    }
+
+    @Override
+    @Transactional
+    public Map<Long, BigDecimal> guardedTransfer(Long fromId, Long toId, BigDecimal amount, String note) {
+        List<?> rows = query(TRANSFER)
+                .setParameter("fromId", fromId)
+                .setParameter("toId", toId)
+                .setParameter("amount", amount)
+                .setParameter("outId", nextTransactionId())
+                .setParameter("inId", nextTransactionId())
+                .setParameter("note", note)
+                .getResultList();
+        evict(fromId);
+        evict(toId);
+        Map<Long, BigDecimal> balances = new HashMap<>();
+        for (Object row : rows) {
+            Object[] cols = (Object[]) row;
+            balances.put(((Number) cols[0]).longValue(), (BigDecimal) cols[1]);
+        }
+        return balances;
+    }
+
+    // the statements cast :txnType and :note, so a null binds without a declared type
+    private Query query(String sql) {
+        return entityManager.createNativeQuery(sql);
+    }
+
+    // from the same pooled block Hibernate uses for BankTransaction, so no extra sequence round trip
+    private Long nextTransactionId() {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(BankTransaction.class);
+        return (Long) ((BeforeExecutionGenerator) persister.getGenerator()).generate(session, null, null, EventType.INSERT);
+    }
+
+    // the statement bypassed the persistence context; drop any copy loaded earlier in this session
+    private void evict(Long accountId) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(Account.class);
+        Object managed = session.getPersistenceContextInternal().getEntity(session.generateEntityKey(accountId, persister));
+        if (managed != null) entityManager.detach(managed);
+    }
+}
@@ -1,19 +1,75 @@
 package com.sampleProject.BankingSystem.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import com.sampleProject.BankingSystem.dto.AccountDtos;
 import com.sampleProject.BankingSystem.model.Account;
+import com.sampleProject.BankingSystem.model.AccountType;
 
 import jakarta.persistence.LockModeType;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface AccountRepository extends JpaRepository<Account, Long> {
+public interface AccountRepository extends JpaRepository<Account, Long>, AccountGuardedUpdateRepository {
+    // account row plus hot-account slots
+    String TOTAL_BALANCE = "a.balance + coalesce((select sum(s.balance) from AccountBalanceSlot s where s.account = a), 0.00BD)";
+
+    // read-side projection: one statement, no customer load
+    String ACCOUNT_RESPONSE = "select new com.sampleProject.BankingSystem.dto.AccountDtos$AccountResponse(" +
+            "a.id, a.accountNumber, a.customer.id, a.accountType, " + TOTAL_BALANCE + ", " +
+            "a.openedAt, a.interestRate, a.overdraftLimit, a.status) from Account a";
+
     Optional<Account> findByAccountNumber(String accountNumber);
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Optional<Account> findWithLockingById(Long id);
 
+    // rows come back (and are locked) in ascending id order, the same order transfer uses
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<Account> findWithLockingByIdInOrderById(Collection<Long> ids);
+
     List<Account> findByCustomer_Id(Long customerId);
+
+    @Query("select min(a.id) from Account a")
+    Long findMinId();
+
+    @Query("select max(a.id) from Account a")
+    Long findMaxId();
+
+    // [id, total balance] for every account in an id range
+    @Query("select a.id, " + TOTAL_BALANCE + " from Account a where a.id between :from and :to")
+    List<Object[]> findTotalBalancesBetween(@Param("from") long from, @Param("to") long to);
+
+    @Query("select min(a.id) from Account a where a.accountType = :type")
+    Long findMinIdByAccountType(@Param("type") AccountType type);
+
+    @Query("select max(a.id) from Account a where a.accountType = :type")
+    Long findMaxIdByAccountType(@Param("type") AccountType type);
+
+    // next chunk of interest-bearing savings accounts opened before openedBefore, after the checkpoint, locked in id order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select a from Account a where a.accountType = com.sampleProject.BankingSystem.model.AccountType.SAVINGS " +
+            "and a.status = 'ACTIVE' and a.interestRate > 0 and a.openedAt < :openedBefore " +
+            "and a.id > :after and a.id <= :last order by a.id")
+    List<Account> findWithLockingInterestChunk(@Param("after") long after, @Param("last") long last,
+                                               @Param("openedBefore") Instant openedBefore, Limit limit);
+
+    @Query("select a.accountType from Account a where a.id = :id")
+    Optional<AccountType> findAccountTypeById(@Param("id") Long id);
+
+    @Query(ACCOUNT_RESPONSE + " where a.id = :id")
+    Optional<AccountDtos.AccountResponse> findResponseById(@Param("id") Long id);
+
+    @Query("select " + TOTAL_BALANCE + " from Account a where a.id = :id")
+    Optional<BigDecimal> findTotalBalanceById(@Param("id") Long id);
+
+    @Query(ACCOUNT_RESPONSE + " where a.customer.id = :customerId order by a.id")
+    List<AccountDtos.AccountResponse> findResponsesByCustomerId(@Param("customerId") Long customerId);
 }
@@ -0,0 +1,15 @@
+package com.sampleProject.BankingSystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.sampleProject.BankingSystem.model.ArchiveSegment;
+
+import java.util.List;
+
+public interface ArchiveSegmentRepository extends JpaRepository<ArchiveSegment, Long> {
+    List<ArchiveSegment> findAllByOrderByPeriodAscPartAsc();
+
+    List<ArchiveSegment> findByPeriodOrderByPartAsc(String period);
+
+    boolean existsByPeriod(String period);
+}
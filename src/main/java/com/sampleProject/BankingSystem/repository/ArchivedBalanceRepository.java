@@ -0,0 +1,11 @@
+package com.sampleProject.BankingSystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.sampleProject.BankingSystem.model.ArchivedBalance;
+
+import java.util.List;
+
+public interface ArchivedBalanceRepository extends JpaRepository<ArchivedBalance, Long> {
+    List<ArchivedBalance> findByAccountIdBetween(Long from, Long to);
+}
@@ -1,11 +1,90 @@
 package com.sampleProject.BankingSystem.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import com.sampleProject.BankingSystem.archive.ArchivedTransaction;
+import com.sampleProject.BankingSystem.dto.AccountDtos;
 import com.sampleProject.BankingSystem.model.BankTransaction;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BankTransactionRepository extends JpaRepository<BankTransaction, Long> {
-    List<BankTransaction> findByAccount_IdOrderByTxnDateDesc(Long accountId);
+    String TRANSACTION_RESPONSE = "select new com.sampleProject.BankingSystem.dto.AccountDtos$TransactionResponse(" +
+            "t.id, t.txnType, t.amount, t.txnDate, t.note, t.balanceAfter) from BankTransaction t";
+
+    // credits count positive, debits negative
+    String SIGNED_AMOUNT = "case when t.txnType in ('WITHDRAWAL', 'TRANSFER_OUT') then -t.amount else t.amount end";
+
+    // keyset pages over idx_txn_account_date_id: newest first, ties broken by id
+    @Query(TRANSACTION_RESPONSE + " where t.account.id = :accountId order by t.txnDate desc, t.id desc")
+    List<AccountDtos.TransactionResponse> findFirstPage(@Param("accountId") Long accountId, Limit limit);
+
+    // the plain txnDate bound is implied by the row comparison; it is there so Postgres can skip newer partitions
+    @Query(TRANSACTION_RESPONSE + " where t.account.id = :accountId and t.txnDate <= :txnDate " +
+            "and (t.txnDate, t.id) < (:txnDate, :id) order by t.txnDate desc, t.id desc")
+    List<AccountDtos.TransactionResponse> findPageBefore(@Param("accountId") Long accountId, @Param("txnDate") Instant txnDate,
+                                                         @Param("id") Long id, Limit limit);
+
+    // newest row at or before :at that carries a running balance: one range probe on idx_txn_account_date_id
+    @Query("select t from BankTransaction t where t.account.id = :accountId and t.txnDate <= :at and t.balanceAfter is not null " +
+            "order by t.txnDate desc, t.id desc")
+    List<BankTransaction> findLatestWithBalanceAt(@Param("accountId") Long accountId, @Param("at") Instant at, Limit limit);
+
+    // rows without a running balance (hot accounts, not yet backfilled) between an anchor row and :at;
+    // txnDate >= :afterDate restates the row comparison in a form partition pruning understands
+    @Query("select coalesce(sum(" + SIGNED_AMOUNT + "), 0) from BankTransaction t where t.account.id = :accountId " +
+            "and t.balanceAfter is null and t.txnDate >= :afterDate and t.txnDate <= :at " +
+            "and (t.txnDate, t.id) > (:afterDate, :afterId)")
+    BigDecimal sumWithoutBalanceBetween(@Param("accountId") Long accountId, @Param("afterDate") Instant afterDate,
+                                        @Param("afterId") Long afterId, @Param("at") Instant at);
+
+    // [account id, signed ledger sum] for every account in an id range, in one grouped scan
+    @Query("select t.account.id, sum(" + SIGNED_AMOUNT + ") from BankTransaction t " +
+            "where t.account.id between :from and :to group by t.account.id")
+    List<Object[]> sumSignedAmountsBetween(@Param("from") long from, @Param("to") long to);
+
+    @Query("select distinct t.account.id from BankTransaction t where t.balanceAfter is null")
+    List<Long> findAccountIdsWithoutBalance();
+
+    // the whole ledger of one account in posting order, for the balance_after backfill (rows are updated, so not read-only)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("select t from BankTransaction t where t.account.id = :accountId order by t.txnDate, t.id")
+    Stream<BankTransaction> streamLedger(@Param("accountId") Long accountId);
+
+    // server-side cursor: must be consumed inside a (read-only) transaction and closed by the caller
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select t from BankTransaction t where t.account.id = :accountId and t.txnDate >= :from and t.txnDate < :to " +
+            "order by t.txnDate, t.id")
+    Stream<BankTransaction> streamStatement(@Param("accountId") Long accountId, @Param("from") Instant from, @Param("to") Instant to);
+
+    @Query("select min(t.txnDate) from BankTransaction t")
+    Instant findOldestTxnDate();
+
+    // a month of the ledger in segment order, for the archive; same cursor rules as streamStatement
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.sampleProject.BankingSystem.archive.ArchivedTransaction(t.id, t.account.id, t.txnType, t.amount, " +
+            "t.txnDate, t.note, t.balanceAfter) from BankTransaction t where t.txnDate >= :from and t.txnDate < :to " +
+            "order by t.account.id, t.txnDate, t.id")
+    Stream<ArchivedTransaction> streamForArchive(@Param("from") Instant from, @Param("to") Instant to);
+
+    @Modifying
+    @Query("delete from BankTransaction t where t.txnDate >= :from and t.txnDate < :to")
+    int deleteBetween(@Param("from") Instant from, @Param("to") Instant to);
 }
@@ -0,0 +1,10 @@
+package com.sampleProject.BankingSystem.repository;
+
+import com.sampleProject.BankingSystem.model.Customer;
+
+import java.util.Optional;
+
+public interface CustomerNaturalIdRepository {
+    /** Looks the customer up by its natural id; expects an already normalised (trimmed, lower-case) email. */
+    Optional<Customer> findByEmail(String email);
+}
@@ -0,0 +1,23 @@
+package com.sampleProject.BankingSystem.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sampleProject.BankingSystem.model.Customer;
+
+import java.util.Optional;
+
+// natural-id loads go email -> id through the natural-id cache, then id -> entity through the entity cache
+class CustomerNaturalIdRepositoryImpl implements CustomerNaturalIdRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // the shared EntityManager only hands out its Session inside a transaction
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Customer> findByEmail(String email) {
+        return entityManager.unwrap(Session.class).bySimpleNaturalId(Customer.class).loadOptional(email);
+    }
+}
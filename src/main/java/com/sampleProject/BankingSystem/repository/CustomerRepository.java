@@ -4,8 +4,6 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.sampleProject.BankingSystem.model.Customer;
 
-import java.util.Optional;
-
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
-    Optional<Customer> findByEmail(String email);
+// findByEmail comes from CustomerNaturalIdRepository and is served from the natural-id cache
+public interface CustomerRepository extends JpaRepository<Customer, Long>, CustomerNaturalIdRepository {
 }
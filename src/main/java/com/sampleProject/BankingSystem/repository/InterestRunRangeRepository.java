@@ -0,0 +1,23 @@
+package com.sampleProject.BankingSystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.sampleProject.BankingSystem.model.InterestRunRange;
+
+import jakarta.persistence.LockModeType;
+import java.util.List;
+import java.util.Optional;
+
+public interface InterestRunRangeRepository extends JpaRepository<InterestRunRange, Long> {
+    List<InterestRunRange> findByPeriodOrderByRangeStart(String period);
+
+    @Query("select r.id from InterestRunRange r where r.period = :period and r.done = false order by r.rangeStart")
+    List<Long> findPendingIds(@Param("period") String period);
+
+    // serializes workers on the same range, also across instances
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<InterestRunRange> findWithLockingById(Long id);
+}
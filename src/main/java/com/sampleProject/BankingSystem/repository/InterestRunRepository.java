@@ -0,0 +1,14 @@
+package com.sampleProject.BankingSystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.sampleProject.BankingSystem.model.InterestRun;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface InterestRunRepository extends JpaRepository<InterestRun, String> {
+    List<InterestRun> findByStatus(String status);
+
+    Optional<InterestRun> findFirstByOrderByPeriodDesc();
+}
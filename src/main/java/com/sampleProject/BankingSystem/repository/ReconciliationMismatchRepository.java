@@ -0,0 +1,12 @@
+package com.sampleProject.BankingSystem.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.sampleProject.BankingSystem.model.ReconciliationMismatch;
+
+import java.util.List;
+
+public interface ReconciliationMismatchRepository extends JpaRepository<ReconciliationMismatch, Long> {
+    List<ReconciliationMismatch> findByRunIdOrderByAccountId(Long runId, Limit limit);
+}
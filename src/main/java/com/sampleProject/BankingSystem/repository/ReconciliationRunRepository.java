@@ -0,0 +1,28 @@
+package com.sampleProject.BankingSystem.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.sampleProject.BankingSystem.model.ReconciliationRun;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+    Optional<ReconciliationRun> findFirstByOrderByIdDesc();
+
+    List<ReconciliationRun> findByStatus(String status);
+
+    // single statements, so neither can overwrite the status the run's own finish writes
+    @Modifying
+    @Query("update ReconciliationRun r set r.heartbeatAt = :now where r.id = :id and r.status = 'RUNNING'")
+    int beat(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update ReconciliationRun r set r.status = 'FAILED', r.finishedAt = :now "
+            + "where r.status = 'RUNNING' and (r.heartbeatAt is null or r.heartbeatAt < :staleBefore)")
+    int failStale(@Param("staleBefore") Instant staleBefore, @Param("now") Instant now);
+}
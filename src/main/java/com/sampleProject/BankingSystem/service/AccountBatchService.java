@@ -0,0 +1,143 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import com.sampleProject.BankingSystem.dto.AccountDtos;
+import com.sampleProject.BankingSystem.model.Account;
+import com.sampleProject.BankingSystem.model.BankTransaction;
+import com.sampleProject.BankingSystem.repository.AccountRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a list of deposits, withdrawals and transfers in one database transaction.
+ * Every account involved is locked exactly once, in ascending id order, before any item is
+ * applied, and all ledger rows are written with a single saveAll at the end.
+ *
+ * ALL_OR_NOTHING rolls the whole batch back if any item fails. PER_ITEM skips failed items
+ * (each item is checked before it changes anything) and commits the rest.
+ */
+@Service
+public class AccountBatchService {
+    private final AccountRepository accountRepository;
+    private final TransactionService transactionService;
+    private final HotAccountService hotAccountService;
+    private final BalanceCache balanceCache;
+
+    public AccountBatchService(AccountRepository accountRepository, TransactionService transactionService, HotAccountService hotAccountService,
+                               BalanceCache balanceCache) {
+        this.accountRepository = accountRepository;
+        this.transactionService = transactionService;
+        this.hotAccountService = hotAccountService;
+        this.balanceCache = balanceCache;
+    }
+
+    @Transactional
+    public AccountDtos.BatchResponse apply(AccountDtos.BatchRequest req) {
+        if (req.operations == null || req.operations.isEmpty()) throw new IllegalArgumentException("operations required");
+        AccountDtos.BatchMode mode = req.mode != null ? req.mode : AccountDtos.BatchMode.ALL_OR_NOTHING;
+
+        // lock ordering by id to avoid deadlock, extended from transfer to the whole batch
+        Set<Long> ids = new TreeSet<>();
+        for (AccountDtos.BatchOperation op : req.operations) {
+            if (op == null) continue;
+            if (op.accountId != null) ids.add(op.accountId);
+            if (op.fromAccountId != null) ids.add(op.fromAccountId);
+            if (op.toAccountId != null) ids.add(op.toAccountId);
+        }
+        Map<Long, Account> locked = ids.isEmpty() ? Map.of()
+                : accountRepository.findWithLockingByIdInOrderById(ids).stream()
+                        .collect(Collectors.toMap(Account::getId, Function.identity()));
+
+        List<AccountDtos.BatchItemResult> results = new ArrayList<>(req.operations.size());
+        List<BankTransaction> ledger = new ArrayList<>();
+        Set<Account> touched = new LinkedHashSet<>();
+        int failed = 0;
+        for (int i = 0; i < req.operations.size(); i++) {
+            AccountDtos.BatchItemResult r = new AccountDtos.BatchItemResult();
+            r.index = i;
+            try {
+                applyOne(req.operations.get(i), locked, ledger, touched);
+                r.status = "APPLIED";
+            } catch (IllegalArgumentException | IllegalStateException ex) {
+                r.status = "FAILED";
+                r.error = ex.getMessage();
+                failed++;
+            }
+            results.add(r);
+        }
+
+        AccountDtos.BatchResponse resp = new AccountDtos.BatchResponse();
+        resp.mode = mode;
+        resp.results = results;
+        resp.failed = failed;
+        if (mode == AccountDtos.BatchMode.ALL_OR_NOTHING && failed > 0) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            results.stream().filter(r -> "APPLIED".equals(r.status)).forEach(r -> r.status = "ROLLED_BACK");
+            resp.committed = false;
+            return resp;
+        }
+        accountRepository.saveAll(touched);
+        touched.forEach(balanceCache::written);
+        transactionService.recordAll(ledger);
+        resp.committed = true;
+        resp.applied = results.size() - failed;
+        return resp;
+    }
+
+    // all checks run before the first mutation so a failed item leaves no trace
+    private void applyOne(AccountDtos.BatchOperation op, Map<Long, Account> locked, List<BankTransaction> ledger, Set<Account> touched) {
+        if (op == null || op.type == null) throw new IllegalArgumentException("type required");
+        BigDecimal amount = op.amount;
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) throw new IllegalArgumentException("Amount must be positive");
+        switch (op.type) {
+            case DEPOSIT -> {
+                Account acc = lockedAccount(locked, op.accountId);
+                acc.setBalance(acc.getBalance().add(amount));
+                touched.add(acc);
+                ledger.add(TransactionService.entry(acc, amount, "DEPOSIT", op.note));
+            }
+            case WITHDRAW -> {
+                Account acc = lockedAccount(locked, op.accountId);
+                debit(acc, amount);
+                touched.add(acc);
+                ledger.add(TransactionService.entry(acc, amount, "WITHDRAWAL", op.note));
+            }
+            case TRANSFER -> {
+                if (op.fromAccountId == null || op.toAccountId == null) throw new IllegalArgumentException("Both fromAccountId and toAccountId are required");
+                if (op.fromAccountId.equals(op.toAccountId)) throw new IllegalArgumentException("fromAccountId and toAccountId must be different");
+                Account from = lockedAccount(locked, op.fromAccountId);
+                Account to = lockedAccount(locked, op.toAccountId);
+                debit(from, amount);
+                to.setBalance(to.getBalance().add(amount));
+                touched.add(from);
+                touched.add(to);
+                ledger.add(TransactionService.entry(from, amount, "TRANSFER_OUT", op.note));
+                ledger.add(TransactionService.entry(to, amount, "TRANSFER_IN", op.note));
+            }
+        }
+    }
+
+    private void debit(Account acc, BigDecimal amount) {
+        if (acc.isHot()) hotAccountService.coverDebit(acc, amount);
+        if (AccountService.availableFunds(acc).compareTo(amount) < 0) throw new IllegalStateException("Insufficient funds");
+        acc.setBalance(acc.getBalance().subtract(amount));
+    }
+
+    private static Account lockedAccount(Map<Long, Account> locked, Long id) {
+        if (id == null) throw new IllegalArgumentException("accountId required");
+        Account acc = locked.get(id);
+        if (acc == null) throw new IllegalArgumentException("Account not found: " + id);
+        return acc;
+    }
+}
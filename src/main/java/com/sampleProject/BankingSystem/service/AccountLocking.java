@@ -0,0 +1,131 @@
+package com.sampleProject.BankingSystem.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.repository.AccountRepository;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Chooses how deposit, withdraw and transfer protect the account row.
+ * <ul>
+ *   <li>PESSIMISTIC: SELECT ... FOR UPDATE. Concurrent writers queue on the row lock.</li>
+ *   <li>OPTIMISTIC: a plain read, with the @Version check in the UPDATE at commit. A writer that
+ *       loses the race is rolled back and retried in a new transaction, with full-jitter backoff,
+ *       up to banking.locking.max-attempts times.</li>
+ *   <li>GUARDED: withdraw and transfer check the funds, update the balance and write the ledger rows in
+ *       one statement (see {@link com.sampleProject.BankingSystem.repository.AccountGuardedUpdateRepository}),
+ *       so the row lock is held for that statement only. Deposits lock pessimistically. Needs PostgreSQL;
+ *       on other databases GUARDED falls back to PESSIMISTIC.</li>
+ * </ul>
+ * banking.locking.default sets the mode. banking.locking.savings / banking.locking.current
+ * override it per AccountType. A transfer uses the more careful mode of its two accounts. Hot accounts
+ * always use PESSIMISTIC, since draining their slots needs the row lock. So do calls that join a
+ * caller's transaction: a retry would need a transaction of its own.
+ */
+@Component
+public class AccountLocking {
+    // most careful first: a transfer between accounts with different modes uses the earlier one
+    public enum Mode { PESSIMISTIC, OPTIMISTIC, GUARDED }
+
+    private final AccountRepository accountRepository;
+    private final HotAccountService hotAccountService;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<AccountType, Mode> modes = new EnumMap<>(AccountType.class);
+    private final Mode uniform;
+    // account type never changes, so entries never go stale; only used when modes differ by type
+    private final Cache<Long, AccountType> types = Caffeine.newBuilder().maximumSize(100_000).build();
+    private final int maxAttempts;
+    private final long backoffNanos;
+    private final long maxBackoffNanos;
+    private final Counter retried;
+    private final Counter exhausted;
+
+    public AccountLocking(AccountRepository accountRepository, HotAccountService hotAccountService,
+                          PlatformTransactionManager transactionManager, MeterRegistry meterRegistry, Environment env) {
+        this.accountRepository = accountRepository;
+        this.hotAccountService = hotAccountService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        boolean guarded = accountRepository.supportsGuardedUpdates();
+        Mode fallback = supported(env.getProperty("banking.locking.default", Mode.class, Mode.PESSIMISTIC), guarded);
+        for (AccountType type : AccountType.values()) {
+            modes.put(type, supported(env.getProperty("banking.locking." + type.name().toLowerCase(), Mode.class, fallback), guarded));
+        }
+        this.uniform = EnumSet.copyOf(modes.values()).size() == 1 ? modes.values().iterator().next() : null;
+        this.maxAttempts = env.getProperty("banking.locking.max-attempts", Integer.class, 5);
+        if (maxAttempts < 1) throw new IllegalArgumentException("banking.locking.max-attempts must be at least 1");
+        this.backoffNanos = env.getProperty("banking.locking.backoff", Duration.class, Duration.ofMillis(2)).toNanos();
+        this.maxBackoffNanos = env.getProperty("banking.locking.max-backoff", Duration.class, Duration.ofMillis(50)).toNanos();
+        this.retried = Counter.builder("banking.lock.conflicts").tag("outcome", "retried").register(meterRegistry);
+        this.exhausted = Counter.builder("banking.lock.conflicts").tag("outcome", "exhausted").register(meterRegistry);
+    }
+
+    private static Mode supported(Mode mode, boolean guarded) {
+        return mode == Mode.GUARDED && !guarded ? Mode.PESSIMISTIC : mode;
+    }
+
+    /** The most careful mode configured for the accounts involved; PESSIMISTIC if any of them is hot. */
+    public Mode modeFor(Long... accountIds) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) return Mode.PESSIMISTIC;
+        Mode mode = Mode.GUARDED;
+        for (Long id : accountIds) {
+            if (!hotAccountService.slotIds(id).isEmpty()) return Mode.PESSIMISTIC;
+            Mode configured = configuredMode(id);
+            if (configured == Mode.PESSIMISTIC) return Mode.PESSIMISTIC;
+            if (configured.compareTo(mode) < 0) mode = configured;
+        }
+        return mode;
+    }
+
+    private Mode configuredMode(Long accountId) {
+        if (uniform != null) return uniform;
+        AccountType type = types.get(accountId, id -> accountRepository.findAccountTypeById(id).orElse(null));
+        // unknown account: let the operation itself report it
+        return type == null ? Mode.PESSIMISTIC : modes.get(type);
+    }
+
+    /** Runs the body in a transaction; in OPTIMISTIC mode a lost version race rolls back and runs it again. */
+    public <T> T execute(Mode mode, Supplier<T> body) {
+        if (mode != Mode.OPTIMISTIC) return transactionTemplate.execute(status -> body.get());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> body.get());
+            } catch (OptimisticLockingFailureException ex) {
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw ex;
+                }
+                retried.increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    // full jitter: uniform in [0, min(max, base * 2^(attempt-1))), so racing writers spread out
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, backoffNanos << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) return;
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a conflicting update", ex);
+        }
+    }
+}
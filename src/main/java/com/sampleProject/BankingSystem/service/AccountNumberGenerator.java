@@ -0,0 +1,69 @@
+package com.sampleProject.BankingSystem.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.stereotype.Component;
+
+import com.sampleProject.BankingSystem.model.Account;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Account numbers from blocks of account_number_seq (created by AccountNumberSequenceContributor). Each nextval reserves Account.NUMBER_BLOCK_SIZE serials for this
+ * instance alone, so numbers are unique across instances without a lookup; within a block they are
+ * handed out from memory. Serials left in a block at shutdown are skipped.
+ *
+ * Format: 12-digit zero-padded serial plus a Luhn check digit (13 digits). The randomly picked numbers
+ * of older accounts are 12 digits long, so the two can never collide.
+ */
+@Component
+public class AccountNumberGenerator {
+    private record Block(long end, AtomicLong next) {}
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final String nextBlockSql;
+    private volatile Block block = new Block(0, new AtomicLong());
+
+    public AccountNumberGenerator(EntityManagerFactory entityManagerFactory) {
+        this.nextBlockSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .getSequenceSupport().getSequenceNextValString("account_number_seq");
+    }
+
+    public String next() {
+        while (true) {
+            Block current = block;
+            long serial = current.next().getAndIncrement();
+            if (serial < current.end()) return format(serial);
+            refill(current);
+        }
+    }
+
+    private synchronized void refill(Block exhausted) {
+        if (block != exhausted) return; // another thread got there first
+        long start = ((Number) entityManager.createNativeQuery(nextBlockSql).getSingleResult()).longValue();
+        block = new Block(start + Account.NUMBER_BLOCK_SIZE, new AtomicLong(start));
+    }
+
+    static String format(long serial) {
+        String digits = String.format("%012d", serial);
+        return digits + luhnCheckDigit(digits);
+    }
+
+    static int luhnCheckDigit(String digits) {
+        int sum = 0;
+        // double every second digit, starting with the rightmost one (the check digit goes after it)
+        for (int i = digits.length() - 1, pos = 0; i >= 0; i--, pos++) {
+            int d = digits.charAt(i) - '0';
+            if (pos % 2 == 0) {
+                d *= 2;
+                if (d > 9) d -= 9;
+            }
+            sum += d;
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
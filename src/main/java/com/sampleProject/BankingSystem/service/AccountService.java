@@ -1,5 +1,6 @@
 package com.sampleProject.BankingSystem.service;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -9,8 +10,9 @@ import com.sampleProject.BankingSystem.repository.AccountRepository;
 import com.sampleProject.BankingSystem.repository.CustomerRepository;
 
 import java.math.BigDecimal;
-import java.security.SecureRandom;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -19,12 +21,21 @@ public class AccountService {
     private final CustomerRepository customerRepository;
     private final AccountRepository accountRepository;
     private final TransactionService transactionService;
-    private final SecureRandom random = new SecureRandom();
+    private final HotAccountService hotAccountService;
+    private final BalanceCache balanceCache;
+    private final AccountLocking accountLocking;
+    private final AccountNumberGenerator accountNumberGenerator;
 
-    public AccountService(CustomerRepository customerRepository, AccountRepository accountRepository, TransactionService transactionService) {
+    public AccountService(CustomerRepository customerRepository, AccountRepository accountRepository, TransactionService transactionService,
+                          HotAccountService hotAccountService, BalanceCache balanceCache, AccountLocking accountLocking,
+                          AccountNumberGenerator accountNumberGenerator) {
         this.customerRepository = customerRepository;
         this.accountRepository = accountRepository;
         this.transactionService = transactionService;
+        this.hotAccountService = hotAccountService;
+        this.balanceCache = balanceCache;
+        this.accountLocking = accountLocking;
+        this.accountNumberGenerator = accountNumberGenerator;
     }
 
     @Transactional
@@ -38,108 +49,219 @@ public class AccountService {
         account.setAccountType(req.accountType);
         account.setInterestRate(req.interestRate);
         account.setOverdraftLimit(req.overdraftLimit);
-        account.setAccountNumber(req.accountNumber != null ? req.accountNumber : generateAccountNumber());
+        account.setAccountNumber(req.accountNumber != null ? req.accountNumber : accountNumberGenerator.next());
         BigDecimal opening = req.openingBalance != null ? req.openingBalance : BigDecimal.ZERO;
         if (opening.compareTo(BigDecimal.ZERO) < 0) throw new IllegalArgumentException("openingBalance must be >= 0");
         account.setBalance(opening);
         account = accountRepository.save(account);
+        balanceCache.written(account);
         if (opening.compareTo(BigDecimal.ZERO) > 0) {
             transactionService.record(account, opening, "OPENING_DEPOSIT", "Opening balance");
         }
         return account;
     }
 
+    @Transactional(readOnly = true)
     public Account getAccount(Long id) {
-        return accountRepository.findById(id)
+        Account acc = accountRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found: " + id));
+        hotAccountService.loadSlotBalance(acc);
+        return acc;
+    }
+
+    @Transactional(readOnly = true)
+    public AccountDtos.AccountResponse getAccountResponse(Long id) {
+        return accountRepository.findResponseById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + id));
+    }
+
+    public AccountDtos.BalanceResponse getBalance(Long id) {
+        AccountDtos.BalanceResponse resp = new AccountDtos.BalanceResponse();
+        resp.accountId = id;
+        resp.balance = balanceCache.get(id, k -> accountRepository.findTotalBalanceById(k)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + k)));
+        return resp;
+    }
+
+    /** Balance as it stood at the given time, from the ledger's running balances rather than a replay. */
+    public AccountDtos.BalanceResponse getBalanceAt(Long id, Instant at) {
+        if (!accountRepository.existsById(id)) throw new IllegalArgumentException("Account not found: " + id);
+        AccountDtos.BalanceResponse resp = new AccountDtos.BalanceResponse();
+        resp.accountId = id;
+        resp.balance = transactionService.balanceAt(id, at);
+        resp.asOf = at;
+        return resp;
+    }
+
+    public AccountDtos.BalanceCacheStatsResponse balanceCacheStats() {
+        CacheStats stats = balanceCache.stats();
+        AccountDtos.BalanceCacheStatsResponse resp = new AccountDtos.BalanceCacheStatsResponse();
+        resp.size = balanceCache.size();
+        resp.hits = stats.hitCount();
+        resp.misses = stats.missCount();
+        resp.evictions = stats.evictionCount();
+        resp.hitRate = stats.hitRate();
+        return resp;
     }
 
-    @Transactional
     public Account deposit(Long id, BigDecimal amount, String note) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
-        Account acc = accountRepository.findWithLockingById(id)
+        AccountLocking.Mode mode = accountLocking.modeFor(id);
+        return accountLocking.execute(mode, () -> applyDeposit(id, amount, note, mode));
+    }
+
+    private Account applyDeposit(Long id, BigDecimal amount, String note, AccountLocking.Mode mode) {
+        List<Long> slots = hotAccountService.slotIds(id);
+        if (!slots.isEmpty()) {
+            // hot account: credit a random slot instead of queueing on the account row lock
+            Account acc = hotAccountService.creditSlot(id, slots, amount);
+            balanceCache.written(acc);
+            transactionService.record(acc, amount, "DEPOSIT", note);
+            return acc;
+        }
+        Account acc = loadForUpdate(id, mode)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found: " + id));
         acc.setBalance(acc.getBalance().add(amount));
         accountRepository.save(acc);
+        balanceCache.written(acc);
         transactionService.record(acc, amount, "DEPOSIT", note);
         return acc;
     }
 
-    @Transactional
     public Account withdraw(Long id, BigDecimal amount, String note) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new IllegalArgumentException("Amount must be positive");
         }
-        Account acc = accountRepository.findWithLockingById(id)
-                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + id));
-        BigDecimal available = acc.getBalance();
-        if (acc.getAccountType() == AccountType.CURRENT && acc.getOverdraftLimit() != null) {
-            available = available.add(acc.getOverdraftLimit());
+        AccountLocking.Mode mode = accountLocking.modeFor(id);
+        if (mode == AccountLocking.Mode.GUARDED) {
+            Optional<BigDecimal> debited = accountLocking.execute(mode, () -> accountRepository.guardedDebit(id, amount, "WITHDRAWAL", note)
+                    .map(balance -> {
+                        balanceCache.written(id, balance);
+                        return balance;
+                    }));
+            if (debited.isPresent()) {
+                // the row lock ended with the commit, so the rest of the row is read after it; the balance stays the
+                // one this debit left, whatever has been written since
+                Account acc = getAccount(id);
+                acc.setBalance(debited.get());
+                return acc;
+            }
+            // nothing changed: the locked path finds out why (unknown account, insufficient funds, turned hot)
         }
-        if (available.compareTo(amount) < 0) {
+        AccountLocking.Mode locked = mode == AccountLocking.Mode.GUARDED ? AccountLocking.Mode.PESSIMISTIC : mode;
+        return accountLocking.execute(locked, () -> applyWithdraw(id, amount, note, locked));
+    }
+
+    private Account applyWithdraw(Long id, BigDecimal amount, String note, AccountLocking.Mode mode) {
+        Account acc = loadForUpdate(id, mode)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + id));
+        if (acc.isHot()) hotAccountService.coverDebit(acc, amount);
+        if (availableFunds(acc).compareTo(amount) < 0) {
             throw new IllegalStateException("Insufficient funds");
         }
         acc.setBalance(acc.getBalance().subtract(amount));
         accountRepository.save(acc);
+        balanceCache.written(acc);
         transactionService.record(acc, amount, "WITHDRAWAL", note);
         return acc;
     }
 
-    @Transactional
     public void transfer(Long fromId, Long toId, BigDecimal amount, String note) {
         if (fromId == null || toId == null) throw new IllegalArgumentException("Both fromAccountId and toAccountId are required");
         if (fromId.equals(toId)) throw new IllegalArgumentException("fromAccountId and toAccountId must be different");
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) throw new IllegalArgumentException("Amount must be positive");
+        AccountLocking.Mode mode = accountLocking.modeFor(fromId, toId);
+        if (mode == AccountLocking.Mode.GUARDED) {
+            try {
+                accountLocking.execute(mode, () -> {
+                    Map<Long, BigDecimal> balances = accountRepository.guardedTransfer(fromId, toId, amount, note);
+                    // a lone credit must not commit
+                    if (balances.size() != 2) throw new GuardedUpdateMissed();
+                    balances.forEach(balanceCache::written);
+                    return null;
+                });
+                return;
+            } catch (GuardedUpdateMissed ex) {
+                // rolled back: the locked path finds out why (unknown account, insufficient funds, turned hot)
+            }
+        }
+        AccountLocking.Mode locked = mode == AccountLocking.Mode.GUARDED ? AccountLocking.Mode.PESSIMISTIC : mode;
+        accountLocking.execute(locked, () -> {
+            applyTransfer(fromId, toId, amount, note, locked);
+            return null;
+        });
+    }
+
+    // rolls back a guarded transfer that moved less than both sides; never leaves AccountService
+    private static final class GuardedUpdateMissed extends RuntimeException {
+        GuardedUpdateMissed() { super(null, null, false, false); }
+    }
+
+    private void applyTransfer(Long fromId, Long toId, BigDecimal amount, String note, AccountLocking.Mode mode) {
         // lock ordering by id to avoid deadlock
         Long first = fromId < toId ? fromId : toId;
         Long second = fromId < toId ? toId : fromId;
-        Account firstAcc = accountRepository.findWithLockingById(first)
+        Account firstAcc = loadForUpdate(first, mode)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found (ensure you are using ACCOUNT IDs, not customer IDs): " + first));
-        Account secondAcc = accountRepository.findWithLockingById(second)
+        Account secondAcc = loadForUpdate(second, mode)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found (ensure you are using ACCOUNT IDs, not customer IDs): " + second));
         Account from = fromId.equals(firstAcc.getId()) ? firstAcc : secondAcc;
         Account to = from == firstAcc ? secondAcc : firstAcc;
+        if (from.isHot()) hotAccountService.coverDebit(from, amount);
 
-        BigDecimal available = from.getBalance();
-        if (from.getAccountType() == AccountType.CURRENT && from.getOverdraftLimit() != null) {
-            available = available.add(from.getOverdraftLimit());
-        }
-        if (available.compareTo(amount) < 0) throw new IllegalStateException("Insufficient funds");
+        if (availableFunds(from).compareTo(amount) < 0) throw new IllegalStateException("Insufficient funds");
         from.setBalance(from.getBalance().subtract(amount));
         to.setBalance(to.getBalance().add(amount));
         accountRepository.save(from);
         accountRepository.save(to);
+        balanceCache.written(from);
+        balanceCache.written(to);
         transactionService.record(from, amount, "TRANSFER_OUT", note);
         transactionService.record(to, amount, "TRANSFER_IN", note);
     }
 
-    public List<BankTransaction> listTransactions(Long accountId) {
-        return transactionService.list(accountId);
+    // OPTIMISTIC skips the row lock; the @Version check at commit catches a concurrent writer instead
+    private Optional<Account> loadForUpdate(Long id, AccountLocking.Mode mode) {
+        return mode == AccountLocking.Mode.OPTIMISTIC ? accountRepository.findById(id) : accountRepository.findWithLockingById(id);
     }
 
-    public List<Account> listAccountsForCustomer(Long customerId) {
-        return accountRepository.findByCustomer_Id(customerId);
+    // balance plus overdraft headroom for CURRENT accounts; callers must hold the account row lock
+    // (or, in OPTIMISTIC mode, commit against the version they read)
+    static BigDecimal availableFunds(Account acc) {
+        BigDecimal available = acc.getBalance();
+        if (acc.getAccountType() == AccountType.CURRENT && acc.getOverdraftLimit() != null) {
+            available = available.add(acc.getOverdraftLimit());
+        }
+        return available;
     }
 
-    private String generateAccountNumber() {
-        // simple 12-digit random
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i < 12; i++) sb.append(random.nextInt(10));
-        // ensure uniqueness attempt (not strict, just quick check)
-        Optional<Account> existing = accountRepository.findByAccountNumber(sb.toString());
-        return existing.isPresent() ? generateAccountNumber() : sb.toString();
+    @Transactional(readOnly = true)
+    public TransactionService.Page listTransactions(Long accountId, String cursor, Integer limit) {
+        return transactionService.list(accountId, cursor, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AccountDtos.AccountResponse> listAccountsForCustomer(Long customerId) {
+        return accountRepository.findResponsesByCustomerId(customerId);
+    }
+
+    @Transactional
+    public Account enableHotMode(Long id, int slots) {
+        return hotAccountService.enableHotMode(id, slots);
     }
 
     @Transactional
     public void deleteAccount(Long id) {
         Account acc = accountRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Account not found: " + id));
-        if (acc.getBalance() != null && acc.getBalance().compareTo(BigDecimal.ZERO) != 0) {
+        hotAccountService.loadSlotBalance(acc);
+        if (acc.getBalance() != null && acc.getTotalBalance().compareTo(BigDecimal.ZERO) != 0) {
             throw new IllegalStateException("Account balance must be zero to delete");
         }
         // JPA cascade (orphanRemoval) will delete transactions
         accountRepository.delete(acc);
+        balanceCache.deleted(id);
     }
 }
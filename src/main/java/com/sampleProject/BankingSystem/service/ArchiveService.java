@@ -0,0 +1,401 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import com.sampleProject.BankingSystem.archive.ArchivedTransaction;
+import com.sampleProject.BankingSystem.archive.Segment;
+import com.sampleProject.BankingSystem.archive.SegmentWriter;
+import com.sampleProject.BankingSystem.dto.ArchiveDtos;
+import com.sampleProject.BankingSystem.model.ArchiveSegment;
+import com.sampleProject.BankingSystem.model.ArchivedBalance;
+import com.sampleProject.BankingSystem.repository.ArchiveSegmentRepository;
+import com.sampleProject.BankingSystem.repository.ArchivedBalanceRepository;
+import com.sampleProject.BankingSystem.repository.BankTransactionRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Moves closed months of the ledger out of the database into segment files under banking.archive.dir: immutable,
+ * sorted by account, zlib-compressed in blocks and indexed per block (see SegmentWriter). History, statements and
+ * balance-as-of lookups read them through ArchiveStore, merged with the rows still in the ledger.
+ *
+ * A month can be archived once it ended at least banking.archive.hot-days ago, and only if it is the oldest month
+ * left in the ledger. A run
+ * <ol>
+ *   <li>streams the month from one read-only cursor into segment-yyyy-MM-n.seg files, rolling over to a new part
+ *       at banking.archive.max-segment-bytes, and fsyncs them</li>
+ *   <li>reads every part back and checks its row count and total against what was written</li>
+ *   <li>in one transaction records the parts, adds each account's archived total to archived_balances and takes the
+ *       month out of the ledger: a month with a partition of its own is detached (and dropped after the commit),
+ *       otherwise its rows are deleted. The number removed must match the number archived</li>
+ * </ol>
+ * If anything fails the transaction rolls back and the files are deleted, so the run can simply be started again.
+ * One run at a time per instance; its status is kept in memory.
+ */
+@Service
+public class ArchiveService {
+    private static final Logger log = LoggerFactory.getLogger(ArchiveService.class);
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+    private static final int UPSERT_CHUNK = 1000;
+
+    private final BankTransactionRepository transactionRepository;
+    private final ArchiveSegmentRepository segmentRepository;
+    private final ArchivedBalanceRepository archivedBalanceRepository;
+    private final ArchiveStore archiveStore;
+    private final TransactionPartitionService partitionService;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate readTx;
+    private final int hotDays;
+    private final int blockBytes;
+    private final long maxSegmentBytes;
+
+    private final Object lock = new Object();
+    private CompletableFuture<?> current;
+    private volatile Run run;
+
+    // status of the latest run; the worker thread updates it
+    private static final class Run {
+        final YearMonth month;
+        final Instant startedAt = Instant.now();
+        volatile String status = RUNNING;
+        volatile Instant finishedAt;
+        volatile long rows;
+        volatile int segments;
+        volatile long bytes;
+        volatile String error;
+
+        Run(YearMonth month) {
+            this.month = month;
+        }
+    }
+
+    // one segment file being written
+    private static final class Part {
+        final int number;
+        final Path file;
+        final Path tmp;
+        long rows;
+        long firstAccountId;
+        long lastAccountId;
+        BigDecimal signedSum = BigDecimal.ZERO;
+        long sizeBytes;
+
+        Part(Path dir, YearMonth month, int number) {
+            this.number = number;
+            this.file = dir.resolve("segment-" + month + "-" + number + ".seg");
+            this.tmp = dir.resolve(file.getFileName() + ".tmp");
+        }
+    }
+
+    // an account's archived rows in the month being archived
+    private static final class Totals {
+        BigDecimal signedSum = BigDecimal.ZERO;
+        long rows;
+    }
+
+    public ArchiveService(BankTransactionRepository transactionRepository, ArchiveSegmentRepository segmentRepository,
+                          ArchivedBalanceRepository archivedBalanceRepository, ArchiveStore archiveStore,
+                          TransactionPartitionService partitionService, PlatformTransactionManager transactionManager,
+                          Environment env) {
+        this.transactionRepository = transactionRepository;
+        this.segmentRepository = segmentRepository;
+        this.archivedBalanceRepository = archivedBalanceRepository;
+        this.archiveStore = archiveStore;
+        this.partitionService = partitionService;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.readTx = new TransactionTemplate(transactionManager);
+        readTx.setReadOnly(true);
+        this.hotDays = env.getProperty("banking.archive.hot-days", Integer.class, 90);
+        this.blockBytes = (int) env.getProperty("banking.archive.block-bytes", DataSize.class, DataSize.ofKilobytes(64)).toBytes();
+        this.maxSegmentBytes = env.getProperty("banking.archive.max-segment-bytes", DataSize.class, DataSize.ofGigabytes(1)).toBytes();
+        if (hotDays < 1) throw new IllegalArgumentException("banking.archive.hot-days must be at least 1");
+        if (blockBytes < 1024) throw new IllegalArgumentException("banking.archive.block-bytes must be at least 1KB");
+        // a segment is mapped as one buffer, so it has to stay well under 2GB
+        if (maxSegmentBytes < blockBytes || maxSegmentBytes > DataSize.ofGigabytes(1).toBytes()) {
+            throw new IllegalArgumentException("banking.archive.max-segment-bytes must be between block-bytes and 1GB");
+        }
+    }
+
+    /** Starts archiving the month in the background. */
+    public ArchiveDtos.RunResponse start(YearMonth month) {
+        synchronized (lock) {
+            if (current != null && !current.isDone()) throw new IllegalStateException("Archiving " + run.month + " is in progress");
+            checkArchivable(month);
+            Run r = new Run(month);
+            run = r;
+            ExecutorService pool = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("archive-"));
+            current = CompletableFuture.runAsync(() -> archive(r), pool).whenComplete((v, ex) -> pool.shutdown());
+            return response(r);
+        }
+    }
+
+    /** Archives the oldest month in the ledger if it is due; for banking.archive.cron. */
+    @Scheduled(cron = "${banking.archive.cron:-}")
+    public void archiveDue() {
+        Instant oldest = transactionRepository.findOldestTxnDate();
+        if (oldest == null) return;
+        YearMonth month = YearMonth.from(oldest.atZone(ZoneOffset.UTC));
+        if (!isClosed(month)) return;
+        try {
+            start(month);
+        } catch (IllegalArgumentException | IllegalStateException ex) {
+            log.info("Not archiving {}: {}", month, ex.getMessage());
+        }
+    }
+
+    /** The latest run for the month on this instance, or a summary of the archived month. */
+    public ArchiveDtos.RunResponse status(YearMonth month) {
+        Run r = run;
+        if (r != null && r.month.equals(month)) return response(r);
+        List<ArchiveSegment> parts = segmentRepository.findByPeriodOrderByPartAsc(month.toString());
+        if (parts.isEmpty()) throw new IllegalArgumentException("Month not archived: " + month);
+        ArchiveDtos.RunResponse resp = new ArchiveDtos.RunResponse();
+        resp.month = month.toString();
+        resp.status = COMPLETED;
+        resp.finishedAt = parts.stream().map(ArchiveSegment::getCreatedAt).max(Instant::compareTo).orElse(null);
+        resp.rows = parts.stream().mapToLong(ArchiveSegment::getRowCount).sum();
+        resp.segments = parts.size();
+        resp.bytes = parts.stream().mapToLong(ArchiveSegment::getSizeBytes).sum();
+        return resp;
+    }
+
+    public List<ArchiveDtos.SegmentResponse> segments() {
+        return segmentRepository.findAllByOrderByPeriodAscPartAsc().stream().map(s -> {
+            ArchiveDtos.SegmentResponse resp = new ArchiveDtos.SegmentResponse();
+            resp.month = s.getPeriod();
+            resp.part = s.getPart();
+            resp.fileName = s.getFileName();
+            resp.rows = s.getRowCount();
+            resp.firstAccountId = s.getFirstAccountId();
+            resp.lastAccountId = s.getLastAccountId();
+            resp.sizeBytes = s.getSizeBytes();
+            resp.createdAt = s.getCreatedAt();
+            return resp;
+        }).toList();
+    }
+
+    private boolean isClosed(YearMonth month) {
+        return !TransactionPartitionService.monthStart(month.plusMonths(1)).isAfter(Instant.now().minus(Duration.ofDays(hotDays)));
+    }
+
+    private void checkArchivable(YearMonth month) {
+        if (!isClosed(month)) throw new IllegalArgumentException(month + " is within the last " + hotDays + " days");
+        if (segmentRepository.existsByPeriod(month.toString())) throw new IllegalStateException(month + " is already archived");
+        Instant oldest = transactionRepository.findOldestTxnDate();
+        if (oldest == null || !oldest.isBefore(TransactionPartitionService.monthStart(month.plusMonths(1)))) {
+            throw new IllegalArgumentException("No transactions in " + month);
+        }
+        if (oldest.isBefore(TransactionPartitionService.monthStart(month))) {
+            throw new IllegalStateException("Archive " + YearMonth.from(oldest.atZone(ZoneOffset.UTC)) + " first");
+        }
+    }
+
+    void archive(Run r) {
+        YearMonth month = r.month;
+        Instant from = TransactionPartitionService.monthStart(month);
+        Instant to = TransactionPartitionService.monthStart(month.plusMonths(1));
+        List<Part> parts = new ArrayList<>();
+        Map<Long, Totals> totals = new HashMap<>();
+        boolean ownPartition = false;
+        try {
+            Files.createDirectories(archiveStore.directory());
+            readTx.executeWithoutResult(s -> {
+                try (Stream<ArchivedTransaction> rows = transactionRepository.streamForArchive(from, to)) {
+                    write(month, rows, parts, totals, r);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            for (Part p : parts) {
+                Files.move(p.tmp, p.file, StandardCopyOption.ATOMIC_MOVE);
+                verify(p);
+            }
+            fsyncDirectory();
+
+            ownPartition = partitionService.hasOwnPartition(month);
+            boolean detach = ownPartition;
+            tx.executeWithoutResult(s -> {
+                Instant now = Instant.now();
+                for (Part p : parts) segmentRepository.save(segment(month, p, now));
+                addArchivedBalances(totals);
+                long removed = detach ? partitionService.detachInTransaction(month) : transactionRepository.deleteBetween(from, to);
+                if (removed != r.rows) {
+                    throw new IllegalStateException("Archived " + r.rows + " rows of " + month + " but the ledger holds " + removed);
+                }
+                segmentRepository.flush();
+                // readers see the new segments before the rows leave the ledger; history and statements read the
+                // archive only below the live rows they already have, so nothing shows up twice meanwhile
+                archiveStore.refresh();
+            });
+            archiveStore.refresh();
+            r.status = COMPLETED;
+            log.info("Archived {}: {} rows in {} segment(s), {} bytes", month, r.rows, r.segments, r.bytes);
+        } catch (RuntimeException | IOException ex) {
+            for (Part p : parts) {
+                try {
+                    Files.deleteIfExists(p.tmp);
+                    Files.deleteIfExists(p.file);
+                } catch (IOException cleanup) {
+                    ex.addSuppressed(cleanup);
+                }
+            }
+            archiveStore.refresh();
+            r.error = ex.getMessage();
+            r.status = FAILED;
+            log.error("Archiving {} failed; the ledger is unchanged", month, ex);
+            return;
+        } finally {
+            r.finishedAt = Instant.now();
+        }
+        if (ownPartition) {
+            try {
+                partitionService.dropDetached(month);
+            } catch (RuntimeException ex) {
+                log.warn("Archived {} but could not drop its detached partition", month, ex);
+            }
+        }
+    }
+
+    private void write(YearMonth month, Stream<ArchivedTransaction> rows, List<Part> parts, Map<Long, Totals> totals, Run r) throws IOException {
+        SegmentWriter writer = null;
+        Part part = null;
+        try {
+            for (ArchivedTransaction row : (Iterable<ArchivedTransaction>) rows::iterator) {
+                if (writer == null || writer.size() >= maxSegmentBytes) {
+                    if (writer != null) close(writer, part, r);
+                    part = new Part(archiveStore.directory(), month, parts.size() + 1);
+                    parts.add(part);
+                    // left behind by a run that did not finish; the month is not in the manifest
+                    Files.deleteIfExists(part.tmp);
+                    Files.deleteIfExists(part.file);
+                    writer = new SegmentWriter(part.tmp, blockBytes);
+                    part.firstAccountId = row.accountId();
+                }
+                writer.append(row);
+                BigDecimal signed = ArchiveStore.signed(row);
+                part.rows++;
+                part.lastAccountId = row.accountId();
+                part.signedSum = part.signedSum.add(signed);
+                Totals t = totals.computeIfAbsent(row.accountId(), id -> new Totals());
+                t.signedSum = t.signedSum.add(signed);
+                t.rows++;
+                r.rows++;
+            }
+            if (writer != null) close(writer, part, r);
+            writer = null;
+        } finally {
+            if (writer != null) writer.close();
+        }
+    }
+
+    private static void close(SegmentWriter writer, Part part, Run r) throws IOException {
+        writer.close();
+        part.sizeBytes = Files.size(part.tmp);
+        r.segments++;
+        r.bytes += part.sizeBytes;
+    }
+
+    // the rows are deleted from the ledger on the strength of this check
+    private static void verify(Part p) throws IOException {
+        Segment segment = Segment.open(p.file);
+        long[] rows = {0};
+        BigDecimal[] sum = {BigDecimal.ZERO};
+        segment.forEach(row -> {
+            rows[0]++;
+            sum[0] = sum[0].add(ArchiveStore.signed(row));
+        });
+        if (rows[0] != p.rows || segment.rows() != p.rows || sum[0].compareTo(p.signedSum) != 0) {
+            throw new IllegalStateException("Segment " + p.file.getFileName() + " does not read back as written");
+        }
+    }
+
+    // makes the renames durable
+    private void fsyncDirectory() {
+        try (FileChannel dir = FileChannel.open(archiveStore.directory(), StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException ex) {
+            // not supported on every platform
+            log.debug("Could not fsync {}", archiveStore.directory(), ex);
+        }
+    }
+
+    private void addArchivedBalances(Map<Long, Totals> totals) {
+        List<Long> ids = new ArrayList<>(totals.keySet());
+        for (int i = 0; i < ids.size(); i += UPSERT_CHUNK) {
+            List<Long> chunk = ids.subList(i, Math.min(ids.size(), i + UPSERT_CHUNK));
+            Map<Long, ArchivedBalance> existing = archivedBalanceRepository.findAllById(chunk).stream()
+                    .collect(Collectors.toMap(ArchivedBalance::getAccountId, Function.identity()));
+            List<ArchivedBalance> batch = new ArrayList<>(chunk.size());
+            for (Long id : chunk) {
+                Totals t = totals.get(id);
+                ArchivedBalance b = existing.get(id);
+                if (b == null) {
+                    b = new ArchivedBalance();
+                    b.setAccountId(id);
+                    b.setSignedSum(BigDecimal.ZERO);
+                }
+                b.setSignedSum(b.getSignedSum().add(t.signedSum));
+                b.setRowCount(b.getRowCount() + t.rows);
+                batch.add(b);
+            }
+            archivedBalanceRepository.saveAll(batch);
+        }
+    }
+
+    private static ArchiveSegment segment(YearMonth month, Part p, Instant now) {
+        ArchiveSegment s = new ArchiveSegment();
+        s.setPeriod(month.toString());
+        s.setPart(p.number);
+        s.setFileName(p.file.getFileName().toString());
+        s.setRowCount(p.rows);
+        s.setFirstAccountId(p.firstAccountId);
+        s.setLastAccountId(p.lastAccountId);
+        s.setSizeBytes(p.sizeBytes);
+        s.setCreatedAt(now);
+        return s;
+    }
+
+    private static ArchiveDtos.RunResponse response(Run r) {
+        ArchiveDtos.RunResponse resp = new ArchiveDtos.RunResponse();
+        resp.month = r.month.toString();
+        resp.status = r.status;
+        resp.startedAt = r.startedAt;
+        resp.finishedAt = r.finishedAt;
+        resp.rows = r.rows;
+        resp.segments = r.segments;
+        resp.bytes = r.bytes;
+        resp.error = r.error;
+        return resp;
+    }
+}
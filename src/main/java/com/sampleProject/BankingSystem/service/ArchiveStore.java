@@ -0,0 +1,172 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.sampleProject.BankingSystem.archive.ArchivedTransaction;
+import com.sampleProject.BankingSystem.archive.Segment;
+import com.sampleProject.BankingSystem.dto.AccountDtos;
+import com.sampleProject.BankingSystem.model.ArchiveSegment;
+import com.sampleProject.BankingSystem.repository.ArchiveSegmentRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of the transaction archive (see ArchiveService). Keeps the segment manifest in memory, so reading
+ * archived history costs no database round trip, and maps each segment file once, on first use.
+ *
+ * Every archived row is older than every row still in the ledger: months are archived oldest first. The horizon is
+ * the end of the newest archived month.
+ *
+ * The manifest is reloaded at startup, every banking.archive.manifest-refresh, and by an archive run as it commits.
+ * Other instances see a new month after their next reload, so banking.archive.dir must be storage they all share.
+ */
+@Component
+public class ArchiveStore {
+
+    /** Receives archived rows; statement writers throw IOException. */
+    public interface RowWriter {
+        void write(ArchivedTransaction row) throws IOException;
+    }
+
+    // one month's parts, in part order
+    private record Month(YearMonth month, Instant start, Instant end, List<ArchiveSegment> parts) {}
+
+    private record Manifest(List<Month> months, Instant horizon) {}
+
+    private final ArchiveSegmentRepository segmentRepository;
+    private final Path directory;
+    private final Map<String, Segment> open = new ConcurrentHashMap<>();
+    private volatile Manifest manifest = new Manifest(List.of(), null);
+
+    public ArchiveStore(ArchiveSegmentRepository segmentRepository, Environment env) {
+        this.segmentRepository = segmentRepository;
+        this.directory = Path.of(env.getProperty("banking.archive.dir", "archive")).toAbsolutePath();
+    }
+
+    public Path directory() {
+        return directory;
+    }
+
+    /** End of the newest archived month, or null if nothing is archived. */
+    public Instant horizon() {
+        return manifest.horizon();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${banking.archive.manifest-refresh:PT1M}", initialDelayString = "${banking.archive.manifest-refresh:PT1M}")
+    public synchronized void refresh() {
+        List<Month> months = new ArrayList<>();
+        for (ArchiveSegment s : segmentRepository.findAllByOrderByPeriodAscPartAsc()) {
+            Month last = months.isEmpty() ? null : months.get(months.size() - 1);
+            if (last == null || !last.month().toString().equals(s.getPeriod())) {
+                YearMonth m = YearMonth.parse(s.getPeriod());
+                last = new Month(m, TransactionPartitionService.monthStart(m), TransactionPartitionService.monthStart(m.plusMonths(1)), new ArrayList<>());
+                months.add(last);
+            }
+            last.parts().add(s);
+        }
+        manifest = new Manifest(months, months.isEmpty() ? null : months.get(months.size() - 1).end());
+        // a run that failed to commit may write the same file names again
+        Set<String> files = months.stream().flatMap(m -> m.parts().stream()).map(ArchiveSegment::getFileName).collect(Collectors.toSet());
+        open.keySet().retainAll(files);
+    }
+
+    /**
+     * Up to limit archived rows of the account older than (beforeDate, beforeId), newest first. A null beforeDate
+     * starts at the newest archived row.
+     */
+    public List<AccountDtos.TransactionResponse> history(long accountId, Instant beforeDate, Long beforeId, int limit) {
+        List<Month> months = manifest.months();
+        List<AccountDtos.TransactionResponse> out = new ArrayList<>();
+        for (int i = months.size() - 1; i >= 0 && out.size() < limit; i--) {
+            Month m = months.get(i);
+            if (beforeDate != null && m.start().isAfter(beforeDate)) continue;
+            List<ArchivedTransaction> rows = rows(m, accountId);
+            for (int r = rows.size() - 1; r >= 0 && out.size() < limit; r--) {
+                ArchivedTransaction row = rows.get(r);
+                if (beforeDate == null || row.txnDate().isBefore(beforeDate)
+                        || (row.txnDate().equals(beforeDate) && row.id() < beforeId)) {
+                    out.add(response(row));
+                }
+            }
+        }
+        return out;
+    }
+
+    /** Hands the account's archived rows with from <= txnDate < to to the writer, oldest first. Returns the count. */
+    public long statement(long accountId, Instant from, Instant to, RowWriter writer) throws IOException {
+        long count = 0;
+        for (Month m : manifest.months()) {
+            if (!m.end().isAfter(from) || !m.start().isBefore(to)) continue;
+            for (ArchivedTransaction row : rows(m, accountId)) {
+                if (row.txnDate().isBefore(from) || !row.txnDate().isBefore(to)) continue;
+                writer.write(row);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The account's balance after its last archived row at or before the given time: the newest running balance
+     * plus the rows after it that have none, or the sum of every row if none has one.
+     */
+    public BigDecimal balanceAt(long accountId, Instant at) {
+        List<Month> months = manifest.months();
+        BigDecimal pending = BigDecimal.ZERO;
+        for (int i = months.size() - 1; i >= 0; i--) {
+            Month m = months.get(i);
+            if (m.start().isAfter(at)) continue;
+            List<ArchivedTransaction> rows = rows(m, accountId);
+            for (int r = rows.size() - 1; r >= 0; r--) {
+                ArchivedTransaction row = rows.get(r);
+                if (row.txnDate().isAfter(at)) continue;
+                if (row.balanceAfter() != null) return row.balanceAfter().add(pending);
+                pending = pending.add(signed(row));
+            }
+        }
+        return pending;
+    }
+
+    static BigDecimal signed(ArchivedTransaction row) {
+        return TransactionService.isDebit(row.txnType()) ? row.amount().negate() : row.amount();
+    }
+
+    static AccountDtos.TransactionResponse response(ArchivedTransaction row) {
+        return new AccountDtos.TransactionResponse(row.id(), row.txnType(), row.amount(), row.txnDate(), row.note(), row.balanceAfter());
+    }
+
+    private List<ArchivedTransaction> rows(Month month, long accountId) {
+        List<ArchivedTransaction> rows = new ArrayList<>();
+        for (ArchiveSegment part : month.parts()) {
+            if (accountId < part.getFirstAccountId() || accountId > part.getLastAccountId()) continue;
+            rows.addAll(segment(part).rows(accountId));
+        }
+        return rows;
+    }
+
+    private Segment segment(ArchiveSegment part) {
+        return open.computeIfAbsent(part.getFileName(), name -> {
+            try {
+                return Segment.open(directory.resolve(name));
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot open archive segment " + name, ex);
+            }
+        });
+    }
+}
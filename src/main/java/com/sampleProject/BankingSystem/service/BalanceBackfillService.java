@@ -0,0 +1,158 @@
+package com.sampleProject.BankingSystem.service;
+
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sampleProject.BankingSystem.dto.AccountDtos;
+import com.sampleProject.BankingSystem.model.Account;
+import com.sampleProject.BankingSystem.model.ArchivedBalance;
+import com.sampleProject.BankingSystem.model.BankTransaction;
+import com.sampleProject.BankingSystem.repository.AccountRepository;
+import com.sampleProject.BankingSystem.repository.ArchivedBalanceRepository;
+import com.sampleProject.BankingSystem.repository.BankTransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * One-time job that fills BankTransaction.balanceAfter for rows written before the column existed. Accounts
+ * are processed in parallel, each in its own transaction holding the account row lock: the ledger is replayed in
+ * posting order, starting from the account's archived total, and the running balance is written to the rows that
+ * lack one, as batched updates.
+ *
+ * An account is left untouched (and counted as skipped) if it is hot, or if the replay disagrees with a running
+ * balance already stored or with the account balance. Balance-as-of lookups still work for such accounts; they add
+ * up the rows without a running balance instead. The job can be run again at any time.
+ */
+@Service
+public class BalanceBackfillService {
+    private static final Logger log = LoggerFactory.getLogger(BalanceBackfillService.class);
+    private static final int FLUSH_EVERY = 500;
+
+    private final AccountRepository accountRepository;
+    private final BankTransactionRepository transactionRepository;
+    private final ArchivedBalanceRepository archivedBalanceRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate tx;
+    private final int threads;
+
+    private final Object lock = new Object();
+    private CompletableFuture<?> current;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile int accounts;
+    private final AtomicInteger accountsDone = new AtomicInteger();
+    private final AtomicInteger accountsSkipped = new AtomicInteger();
+    private final AtomicLong rowsUpdated = new AtomicLong();
+
+    public BalanceBackfillService(AccountRepository accountRepository, BankTransactionRepository transactionRepository,
+                                  ArchivedBalanceRepository archivedBalanceRepository, EntityManager entityManager,
+                                  PlatformTransactionManager transactionManager, Environment env) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.archivedBalanceRepository = archivedBalanceRepository;
+        this.entityManager = entityManager;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.threads = env.getProperty("banking.balance-backfill.threads", Integer.class, 4);
+        if (threads < 1) throw new IllegalArgumentException("banking.balance-backfill.threads must be at least 1");
+    }
+
+    /** Starts the backfill in the background unless it is already running. */
+    public AccountDtos.BackfillResponse start() {
+        synchronized (lock) {
+            if (current != null && !current.isDone()) return status();
+            List<Long> ids = transactionRepository.findAccountIdsWithoutBalance();
+            startedAt = Instant.now();
+            finishedAt = null;
+            accounts = ids.size();
+            accountsDone.set(0);
+            accountsSkipped.set(0);
+            rowsUpdated.set(0);
+            ExecutorService pool = Executors.newFixedThreadPool(threads, new CustomizableThreadFactory("balance-backfill-"));
+            CompletableFuture<?>[] work = ids.stream()
+                    .map(id -> CompletableFuture.runAsync(() -> backfillAccount(id), pool))
+                    .toArray(CompletableFuture[]::new);
+            current = CompletableFuture.allOf(work).whenComplete((v, ex) -> {
+                pool.shutdown();
+                finishedAt = Instant.now();
+                if (ex != null) log.error("Balance backfill stopped; start it again to continue", ex);
+                else log.info("Balance backfill done: {} accounts, {} skipped, {} rows", accountsDone.get(), accountsSkipped.get(), rowsUpdated.get());
+            });
+            return status();
+        }
+    }
+
+    public AccountDtos.BackfillResponse status() {
+        AccountDtos.BackfillResponse resp = new AccountDtos.BackfillResponse();
+        synchronized (lock) {
+            resp.running = current != null && !current.isDone();
+        }
+        resp.startedAt = startedAt;
+        resp.finishedAt = finishedAt;
+        resp.accounts = accounts;
+        resp.accountsDone = accountsDone.get();
+        resp.accountsSkipped = accountsSkipped.get();
+        resp.rowsUpdated = rowsUpdated.get();
+        return resp;
+    }
+
+    void backfillAccount(Long accountId) {
+        Long updated = tx.execute(status -> {
+            // the lock keeps writers of this account out while its history is replayed
+            Account acc = accountRepository.findWithLockingById(accountId).orElse(null);
+            if (acc == null || acc.isHot()) return null;
+            BigDecimal expectedEnd = acc.getBalance();
+            BigDecimal running = archivedBalanceRepository.findById(accountId).map(ArchivedBalance::getSignedSum).orElse(BigDecimal.ZERO);
+            long rows = 0;
+            List<BankTransaction> pending = new ArrayList<>(FLUSH_EVERY);
+            try (Stream<BankTransaction> ledger = transactionRepository.streamLedger(accountId)) {
+                for (BankTransaction t : (Iterable<BankTransaction>) ledger::iterator) {
+                    running = TransactionService.isDebit(t.getTxnType()) ? running.subtract(t.getAmount()) : running.add(t.getAmount());
+                    if (t.getBalanceAfter() != null) {
+                        if (t.getBalanceAfter().compareTo(running) != 0) {
+                            status.setRollbackOnly();
+                            return null;
+                        }
+                        entityManager.detach(t);
+                        continue;
+                    }
+                    t.setBalanceAfter(running);
+                    rows++;
+                    pending.add(t);
+                    // send the updates as one JDBC batch, then let go of the rows
+                    if (pending.size() == FLUSH_EVERY) {
+                        entityManager.flush();
+                        pending.forEach(entityManager::detach);
+                        pending.clear();
+                    }
+                }
+            }
+            if (running.compareTo(expectedEnd) != 0) {
+                status.setRollbackOnly();
+                return null;
+            }
+            return rows;
+        });
+        if (updated == null) {
+            accountsSkipped.incrementAndGet();
+            log.warn("Balance backfill skipped account {}: hot, deleted, or its ledger does not add up to its balance", accountId);
+        } else {
+            accountsDone.incrementAndGet();
+            rowsUpdated.addAndGet(updated);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.sampleProject.BankingSystem.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sampleProject.BankingSystem.model.Account;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, time-limited cache of committed account balances (account row plus hot-account slots).
+ *
+ * Writers call {@link #written} / {@link #deleted} inside their transaction; the cache is only
+ * touched after commit, so readers never see an uncommitted balance. Every write takes a stamp while
+ * it still holds the account row lock (in OPTIMISTIC mode: after reading the version its commit is
+ * checked against), and a put only replaces an entry with an older stamp, so
+ * out-of-order afterCommit callbacks cannot bring back a stale balance. While a write to an account is
+ * in flight, reads of that account go to the database and are not cached. Hot-account writes do not
+ * hold the row lock and cannot know the committed balance, so they put a stamped tombstone: reads go to the
+ * database until a load that started after the write replaces it.
+ */
+@Component
+public class BalanceCache {
+    // balance == null marks a deleted account; stale marks a hot-account write whose balance must be loaded
+    private record Entry(long stamp, BigDecimal balance, boolean stale) {}
+
+    private final Cache<Long, Entry> cache;
+    private final AtomicLong clock = new AtomicLong();
+    private final ConcurrentHashMap<Long, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    public BalanceCache(@Value("${banking.balance-cache.max-size:10000}") long maxSize,
+                        @Value("${banking.balance-cache.ttl:PT30S}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /** Cached balance of the account, falling back to the loader (which throws for unknown accounts). */
+    public BigDecimal get(Long accountId, Function<Long, BigDecimal> loader) {
+        Entry cached = cache.getIfPresent(accountId);
+        if (cached != null && !cached.stale()) {
+            if (cached.balance() == null) throw new IllegalArgumentException("Account not found: " + accountId);
+            return cached.balance();
+        }
+        long stamp = clock.get();
+        boolean cacheable = !inFlight.containsKey(accountId);
+        BigDecimal balance = loader.apply(accountId);
+        if (cacheable) put(accountId, new Entry(stamp, balance, false));
+        return balance;
+    }
+
+    /** Publishes the account's balance once the current transaction commits. Call with the row lock held. */
+    public void written(Account acc) {
+        Long id = acc.getId();
+        if (acc.isHot()) {
+            long stamp = begin(id);
+            onCommit(id, () -> put(id, new Entry(stamp, null, true)));
+            return;
+        }
+        written(id, acc.getTotalBalance());
+    }
+
+    /** Same as {@link #written(Account)} for a regular (not hot) account whose new balance is known. */
+    public void written(Long accountId, BigDecimal balance) {
+        long stamp = begin(accountId);
+        onCommit(accountId, () -> put(accountId, new Entry(stamp, balance, false)));
+    }
+
+    public void deleted(Long accountId) {
+        long stamp = begin(accountId);
+        onCommit(accountId, () -> put(accountId, new Entry(stamp, null, false)));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private long begin(Long accountId) {
+        // register before stamping: a reader that sees a newer clock also sees this write in flight
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            inFlight.computeIfAbsent(accountId, k -> new AtomicInteger()).incrementAndGet();
+        }
+        return clock.incrementAndGet();
+    }
+
+    /*
+     * A load stamped with the tombstone's own stamp read the clock after that write began and found it no longer
+     * in flight, so it saw the write's commit: it may replace the tombstone.
+     */
+    private void put(Long accountId, Entry entry) {
+        cache.asMap().compute(accountId, (k, cur) -> cur == null || cur.stamp() < entry.stamp()
+                || cur.stale() && cur.stamp() == entry.stamp() ? entry : cur);
+    }
+
+    private void onCommit(Long accountId, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() { action.run(); }
+
+            @Override
+            public void afterCompletion(int status) {
+                inFlight.computeIfPresent(accountId, (k, n) -> n.decrementAndGet() == 0 ? null : n);
+            }
+        });
+    }
+}
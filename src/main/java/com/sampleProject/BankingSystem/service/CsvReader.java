@@ -0,0 +1,79 @@
+package com.sampleProject.BankingSystem.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads RFC 4180 CSV one record at a time: comma-separated, optionally double-quoted fields, "" for a quote inside
+ * one, quoted fields may span lines, LF or CRLF line ends. The counterpart of StatementExportService.csv.
+ */
+class CsvReader {
+    record Record(long number, List<String> fields, boolean unterminatedQuote) {}
+
+    private final Reader in;
+    private long lines;
+    private int peeked = -2;
+
+    CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /** The next record, numbered by the line it starts on (from 1), or null at the end of the input. Skips blank lines. */
+    Record next() throws IOException {
+        while (true) {
+            int c = peek();
+            if (c < 0) return null;
+            if (c != '\n' && c != '\r') return record(lines + 1);
+            read();
+        }
+    }
+
+    private Record record(long number) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            int c = read();
+            if (quoted) {
+                if (c < 0) {
+                    fields.add(field.toString());
+                    return new Record(number, fields, true);
+                }
+                if (c == '"') {
+                    if (peek() == '"') field.append((char) read());
+                    else quoted = false;
+                } else {
+                    field.append((char) c);
+                }
+                continue;
+            }
+            if (c < 0 || c == '\n' || (c == '\r' && (peek() == '\n' || peek() < 0))) {
+                if (c == '\r') read();
+                fields.add(field.toString());
+                return new Record(number, fields, false);
+            }
+            if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+        }
+    }
+
+    private int read() throws IOException {
+        int c = peeked != -2 ? peeked : in.read();
+        peeked = -2;
+        if (c == '\n') lines++;
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) peeked = in.read();
+        return peeked;
+    }
+}
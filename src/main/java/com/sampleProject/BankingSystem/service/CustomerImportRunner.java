@@ -0,0 +1,53 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Command-line customer import: with banking.customer-import.file set, the application imports that CSV (see
+ * CustomerImportService), writes the rejected rows to banking.customer-import.report (default: next to the file,
+ * with ".rejected.csv" appended) and exits. Start it with --spring.main.web-application-type=none.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.customer-import.file")
+public class CustomerImportRunner implements ApplicationRunner {
+    private static final Logger log = LoggerFactory.getLogger(CustomerImportRunner.class);
+
+    private final CustomerImportService customerImportService;
+    private final ConfigurableApplicationContext context;
+    private final Path file;
+    private final Path report;
+
+    public CustomerImportRunner(CustomerImportService customerImportService, ConfigurableApplicationContext context, Environment env) {
+        this.customerImportService = customerImportService;
+        this.context = context;
+        this.file = Path.of(env.getProperty("banking.customer-import.file"));
+        String reportPath = env.getProperty("banking.customer-import.report");
+        this.report = reportPath != null ? Path.of(reportPath) : Path.of(file + ".rejected.csv");
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws IOException {
+        CustomerImportService.Result result;
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+             Writer out = Files.newBufferedWriter(report, StandardCharsets.UTF_8)) {
+            result = customerImportService.importCsv(in, out);
+        }
+        log.info("Imported {} of {} customers from {}; {} rejected rows in {}", result.imported(), result.rows(), file, result.rejected(), report);
+        System.exit(SpringApplication.exit(context));
+    }
+}
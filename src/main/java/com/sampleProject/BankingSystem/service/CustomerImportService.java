@@ -0,0 +1,334 @@
+package com.sampleProject.BankingSystem.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sampleProject.BankingSystem.dto.CustomerDtos;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk customer import from CSV, for the millions of customers an acquisition brings in at once. The header names
+ * the columns (firstName, lastName, email, phone, dob, password, in any order; lastName may be left out). Each row
+ * passes the same checks as POST /api/v1/customers: the CreateCustomerRequest constraints, @Adult included, then
+ * the same trimming and lower-casing of the email.
+ *
+ * The file is read once, as a stream. Rows go in chunks of banking.customer-import.batch-size to
+ * banking.customer-import.threads workers. A worker validates its chunk; the reading thread then settles repeated
+ * emails, chunk by chunk in file order, and hands the chunk back to a worker, which looks up all of its emails in one
+ * query, hashes the passwords (through PasswordHasher, like a sign-up) and inserts the survivors as one JDBC batch.
+ * A password that is already a PasswordHasher bcrypt hash ("{bcrypt}$2a$...") is stored as it is, which skips the
+ * hashing that otherwise dominates the run.
+ *
+ * A rejected row never stops the import: it goes to the report as "row,email,error", in file order, where row is
+ * the line the record starts on. Repeats of an email within the file are rejected against its first valid row
+ * (the emails seen so far are kept in memory), so a row that fails its checks never takes an email from a later one. A chunk whose batch trips the unique email constraint, because someone
+ * signed up meanwhile, is retried row by row.
+ */
+@Service
+public class CustomerImportService {
+    private static final Logger log = LoggerFactory.getLogger(CustomerImportService.class);
+    static final List<String> COLUMNS = List.of("firstName", "lastName", "email", "phone", "dob", "password");
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\{bcrypt}\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+    private static final String INSERT = "insert into customers (first_name, last_name, email, phone, dob, password, created_at, updated_at) "
+            + "values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    public record Result(long rows, long imported, long rejected) {}
+
+    private record Row(long number, CustomerDtos.CreateCustomerRequest request, String error) {}
+
+    private record Rejection(long row, String email, String error) {}
+
+    private record Validated(List<Row> valid, List<Rejection> rejections) {}
+
+    private record ChunkResult(int imported, List<Rejection> rejections) {}
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordHasher passwordHasher;
+    private final Validator validator;
+    private final int batchSize;
+    private final int threads;
+
+    public CustomerImportService(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                                 PasswordHasher passwordHasher, Validator validator, Environment env) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordHasher = passwordHasher;
+        this.validator = validator;
+        this.batchSize = env.getProperty("banking.customer-import.batch-size", Integer.class, 1000);
+        int configured = env.getProperty("banking.customer-import.threads", Integer.class, 0);
+        // 0: half the cores, like the hashing pool the workers feed
+        this.threads = configured > 0 ? configured : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        if (batchSize < 1) throw new IllegalArgumentException("banking.customer-import.batch-size must be positive");
+    }
+
+    /** Imports every valid row of the CSV and writes the rejected ones to the report. */
+    public Result importCsv(Reader csv, Writer report) throws IOException {
+        CsvReader reader = new CsvReader(csv);
+        CsvReader.Record header = reader.next();
+        if (header == null) throw new IllegalArgumentException("CSV is empty");
+        int[] index = columns(header.fields());
+
+        report.write("row,email,error\n");
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads), new CustomizableThreadFactory("customer-import-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        // chunks in file order, first being validated, then being imported; each holds its own file-order rejections,
+        // so taking from the heads keeps both the email claims and the report in order
+        Deque<Future<Validated>> validating = new ArrayDeque<>();
+        Deque<Future<ChunkResult>> pending = new ArrayDeque<>();
+        Map<String, Long> firstRowByEmail = new HashMap<>();
+        long rows = 0;
+        long[] totals = new long[2];
+        try {
+            List<Row> chunk = new ArrayList<>(batchSize);
+            List<Rejection> early = new ArrayList<>();
+            CsvReader.Record record;
+            while ((record = reader.next()) != null) {
+                rows++;
+                Row row = parse(record, index);
+                if (row.error() != null) early.add(new Rejection(row.number(), row.request().getEmail(), row.error()));
+                else chunk.add(row);
+                if (chunk.size() + early.size() >= batchSize) {
+                    submit(pool, validating, chunk, early);
+                    chunk = new ArrayList<>(batchSize);
+                    early = new ArrayList<>();
+                    settle(pool, validating, pending, firstRowByEmail, false);
+                    drain(pending, report, totals, false);
+                }
+            }
+            if (!chunk.isEmpty() || !early.isEmpty()) submit(pool, validating, chunk, early);
+            settle(pool, validating, pending, firstRowByEmail, true);
+            drain(pending, report, totals, true);
+        } finally {
+            validating.forEach(f -> f.cancel(true));
+            pending.forEach(f -> f.cancel(true));
+            pool.shutdownNow();
+        }
+        report.flush();
+        log.info("Customer import: {} rows, {} imported, {} rejected", rows, totals[0], totals[1]);
+        return new Result(rows, totals[0], totals[1]);
+    }
+
+    private static int[] columns(List<String> header) {
+        int[] index = new int[COLUMNS.size()];
+        Arrays.fill(index, -1);
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).trim();
+            int column = COLUMNS.indexOf(name);
+            if (column < 0) throw new IllegalArgumentException("Unknown CSV column: " + name);
+            if (index[column] >= 0) throw new IllegalArgumentException("Duplicate CSV column: " + name);
+            index[column] = i;
+        }
+        for (int i = 0; i < index.length; i++) {
+            if (index[i] < 0 && !"lastName".equals(COLUMNS.get(i))) {
+                throw new IllegalArgumentException("Missing CSV column: " + COLUMNS.get(i));
+            }
+        }
+        return index;
+    }
+
+    // cheap, on the reading thread: the field mapping; the constraint checks run on the workers
+    private static Row parse(CsvReader.Record record, int[] index) {
+        List<String> fields = record.fields();
+        CustomerDtos.CreateCustomerRequest req = new CustomerDtos.CreateCustomerRequest();
+        req.setFirstName(field(fields, index[0]));
+        req.setLastName(field(fields, index[1]));
+        req.setEmail(field(fields, index[2]));
+        req.setPhone(field(fields, index[3]));
+        req.setPassword(field(fields, index[5]));
+        if (record.unterminatedQuote()) return new Row(record.number(), req, "Unterminated quoted field");
+        int expected = (int) Arrays.stream(index).filter(i -> i >= 0).count();
+        if (fields.size() != expected) {
+            return new Row(record.number(), req, "Expected " + expected + " fields but found " + fields.size());
+        }
+        String dob = field(fields, index[4]);
+        try {
+            req.setDob(dob == null ? null : LocalDate.parse(dob.trim()));
+        } catch (DateTimeParseException ex) {
+            return new Row(record.number(), req, "dob: must be a date (yyyy-MM-dd)");
+        }
+        return new Row(record.number(), req, null);
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index < 0 || index >= fields.size()) return null;
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static String normalizedEmail(CustomerDtos.CreateCustomerRequest req) {
+        return req.getEmail() == null ? null : req.getEmail().trim().toLowerCase(Locale.ROOT);
+    }
+
+    private void submit(ThreadPoolExecutor pool, Deque<Future<Validated>> validating, List<Row> chunk, List<Rejection> early) {
+        validating.add(pool.submit(() -> validateChunk(chunk, early)));
+    }
+
+    // on the reading thread, in file order: the first valid row with an email keeps it, later valid ones are repeats
+    private void settle(ThreadPoolExecutor pool, Deque<Future<Validated>> validating, Deque<Future<ChunkResult>> pending,
+                        Map<String, Long> firstRowByEmail, boolean all) {
+        while (!validating.isEmpty() && (all || validating.peek().isDone())) {
+            Validated validated = result(validating.poll());
+            List<Rejection> rejections = validated.rejections();
+            List<Row> unique = new ArrayList<>(validated.valid().size());
+            for (Row row : validated.valid()) {
+                String email = normalizedEmail(row.request());
+                Long first = firstRowByEmail.putIfAbsent(email, row.number());
+                if (first != null) rejections.add(new Rejection(row.number(), email, "Duplicate of row " + first));
+                else unique.add(row);
+            }
+            pending.add(pool.submit(() -> importChunk(unique, rejections)));
+        }
+    }
+
+    private static void drain(Deque<Future<ChunkResult>> pending, Writer report, long[] totals, boolean all) throws IOException {
+        while (!pending.isEmpty() && (all || pending.peek().isDone())) {
+            ChunkResult result = result(pending.poll());
+            totals[0] += result.imported();
+            totals[1] += result.rejections().size();
+            for (Rejection r : result.rejections()) {
+                report.write(Long.toString(r.row()));
+                report.write(',');
+                report.write(StatementExportService.csv(r.email()));
+                report.write(',');
+                report.write(StatementExportService.csv(r.error()));
+                report.write('\n');
+            }
+        }
+    }
+
+    private static <T> T result(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during customer import", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private Validated validateChunk(List<Row> chunk, List<Rejection> early) {
+        List<Rejection> rejections = new ArrayList<>(early);
+        List<Row> valid = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            String error = validate(row.request());
+            if (error != null) rejections.add(new Rejection(row.number(), row.request().getEmail(), error));
+            else valid.add(row);
+        }
+        return new Validated(valid, rejections);
+    }
+
+    private ChunkResult importChunk(List<Row> valid, List<Rejection> rejections) {
+        Set<String> registered = registered(valid.stream().map(r -> normalizedEmail(r.request())).toList());
+        List<Object[]> inserts = new ArrayList<>(valid.size());
+        List<Row> inserted = new ArrayList<>(valid.size());
+        Timestamp now = Timestamp.from(Instant.now());
+        for (Row row : valid) {
+            CustomerDtos.CreateCustomerRequest req = row.request();
+            String email = normalizedEmail(req);
+            if (registered.contains(email)) {
+                rejections.add(new Rejection(row.number(), email, "Email already registered"));
+                continue;
+            }
+            inserts.add(new Object[]{req.getFirstName().trim(), req.getLastName() != null ? req.getLastName().trim() : null,
+                    email, req.getPhone().trim(), req.getDob(), hash(req.getPassword()), now, now});
+            inserted.add(row);
+        }
+
+        int imported = inserts.size();
+        if (!inserts.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbc.batchUpdate(INSERT, inserts));
+            } catch (DataIntegrityViolationException ex) {
+                // an email registered since the lookup; the batch rolled back as a whole
+                imported = 0;
+                for (int i = 0; i < inserts.size(); i++) {
+                    try {
+                        jdbc.update(INSERT, inserts.get(i));
+                        imported++;
+                    } catch (DataIntegrityViolationException rowEx) {
+                        rejections.add(new Rejection(inserted.get(i).number(), (String) inserts.get(i)[2], "Email already registered"));
+                    }
+                }
+            }
+        }
+        rejections.sort(Comparator.comparingLong(Rejection::row));
+        return new ChunkResult(imported, rejections);
+    }
+
+    // the CreateCustomerRequest constraints, as @Valid applies them to POST /api/v1/customers
+    private String validate(CustomerDtos.CreateCustomerRequest req) {
+        boolean hashed = req.getPassword() != null && BCRYPT_HASH.matcher(req.getPassword()).matches();
+        List<String> messages = new ArrayList<>();
+        for (ConstraintViolation<CustomerDtos.CreateCustomerRequest> v : validator.validate(req)) {
+            String field = v.getPropertyPath().toString();
+            if (hashed && "password".equals(field)) continue;
+            messages.add(field + ": " + v.getMessage());
+        }
+        if (messages.isEmpty()) return null;
+        Collections.sort(messages);
+        return String.join("; ", messages);
+    }
+
+    private Set<String> registered(List<String> emails) {
+        if (emails.isEmpty()) return Set.of();
+        String in = emails.stream().map(e -> "?").collect(Collectors.joining(", "));
+        return new HashSet<>(jdbc.queryForList("select email from customers where email in (" + in + ")", String.class, emails.toArray()));
+    }
+
+    // shares PasswordHasher's pool with logins; when its queue is full, wait rather than fail the row
+    private String hash(String password) {
+        if (BCRYPT_HASH.matcher(password).matches()) return password;
+        while (true) {
+            try {
+                return passwordHasher.hash(password);
+            } catch (RejectedExecutionException ex) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted during customer import", ie);
+                }
+            }
+        }
+    }
+}
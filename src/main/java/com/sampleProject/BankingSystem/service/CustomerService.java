@@ -1,12 +1,22 @@
 package com.sampleProject.BankingSystem.service;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.sampleProject.BankingSystem.dto.CustomerDtos;
 import com.sampleProject.BankingSystem.model.Customer;
 import com.sampleProject.BankingSystem.repository.CustomerRepository;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import javax.cache.CacheManager;
+
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,14 +25,22 @@ import org.slf4j.LoggerFactory;
 public class CustomerService {
     private static final Logger log = LoggerFactory.getLogger(CustomerService.class);
     private final CustomerRepository customerRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PasswordHasher passwordHasher;
+    private final TransactionTemplate transactionTemplate;
     private static final Pattern PASSWORD_PATTERN = Pattern.compile("^(?=.*[A-Za-z])(?=.*\\d).{6,100}$");
     private static final Pattern PHONE_PATTERN = Pattern.compile("^[0-9]{10}$");
 
-    public CustomerService(CustomerRepository customerRepository) {
+    public CustomerService(CustomerRepository customerRepository, EntityManagerFactory entityManagerFactory,
+                           PasswordHasher passwordHasher, PlatformTransactionManager transactionManager) {
         this.customerRepository = customerRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.passwordHasher = passwordHasher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
-    @Transactional
+    // not @Transactional: hashing takes tens of milliseconds and must not hold a connection.
+    // save() is the only write; the unique email constraint backs up the duplicate check.
     public Customer createCustomer(CustomerDtos.CreateCustomerRequest req) {
         log.info("Attempting to create customer email={} firstName={}", req.getEmail(), req.getFirstName());
         if (req.getEmail() == null) {
@@ -59,30 +77,72 @@ public class CustomerService {
         c.setEmail(email);
         c.setPhone(phone);
         c.setDob(req.getDob());
-        c.setPassword(password);
+        c.setPassword(passwordHasher.hash(password));
         Customer saved = customerRepository.save(c);
         log.info("Created customer id={} email={}", saved.getId(), saved.getEmail());
         return saved;
     }
 
+    @Transactional(readOnly = true)
     public Customer getCustomer(Long id) {
         return customerRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Customer not found: " + id));
     }
 
+    // Caffeine's own counters for the regions (monitoring.native-statistics in hibernate-caffeine.conf), so
+    // Hibernate's global statistics can stay off
+    public CustomerDtos.CacheStatsResponse cacheStats() {
+        CacheManager cacheManager = ((JCacheRegionFactory) entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getCache().getRegionFactory()).getCacheManager();
+        CustomerDtos.CacheStatsResponse resp = new CustomerDtos.CacheStatsResponse();
+        resp.setEntity(regionStats(cacheManager, Customer.CACHE_REGION));
+        resp.setNaturalId(regionStats(cacheManager, Customer.NATURAL_ID_CACHE_REGION));
+        return resp;
+    }
+
+    private static CustomerDtos.RegionStats regionStats(CacheManager cacheManager, String region) {
+        com.github.benmanes.caffeine.cache.Cache<?, ?> cache = cacheManager.getCache(region)
+                .unwrap(com.github.benmanes.caffeine.cache.Cache.class);
+        CacheStats stats = cache.stats();
+        CustomerDtos.RegionStats r = new CustomerDtos.RegionStats();
+        r.setHits(stats.hitCount());
+        r.setMisses(stats.missCount());
+        r.setHitRate(stats.hitRate());
+        r.setEvictions(stats.evictionCount());
+        r.setElementsInMemory(cache.estimatedSize());
+        return r;
+    }
+
     public Customer findByEmail(String email) {
         return customerRepository.findByEmail(email.trim().toLowerCase()).orElseThrow(() -> new IllegalArgumentException("Customer not found: " + email));
     }
 
+    // the hash check runs on PasswordHasher's pool, outside any transaction
     public Customer authenticate(String email, String password) {
         Customer c = findByEmail(email);
-        if (c.getPassword() == null || !c.getPassword().equals(password)) {
+        if (!passwordHasher.matches(password, c.getPassword())) {
             log.warn("Authentication failed for email={}", email);
             throw new IllegalArgumentException("Invalid credentials");
         }
+        if (passwordHasher.needsRehash(c.getPassword())) rehash(c, password);
         log.info("Authentication success for email={}", email);
         return c;
     }
+
+    // plain-text or weaker hash: replace it now that we have the password, unless it changed meanwhile
+    private void rehash(Customer c, String password) {
+        String stored = c.getPassword();
+        String hash;
+        try {
+            hash = passwordHasher.hash(password);
+        } catch (RejectedExecutionException ex) {
+            return; // hashing pool is full; the next login tries again
+        }
+        transactionTemplate.executeWithoutResult(status -> customerRepository.findById(c.getId())
+                .filter(current -> stored.equals(current.getPassword()))
+                .ifPresent(current -> current.setPassword(hash)));
+        log.info("Rehashed password for customer id={}", c.getId());
+    }
     @Transactional
     public Customer updateProfile(Long id, com.sampleProject.BankingSystem.dto.CustomerDtos.UpdateProfileRequest req) {
         Customer c = customerRepository.findById(id)
@@ -0,0 +1,135 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sampleProject.BankingSystem.model.Account;
+import com.sampleProject.BankingSystem.model.AccountBalanceSlot;
+import com.sampleProject.BankingSystem.repository.AccountBalanceSlotRepository;
+import com.sampleProject.BankingSystem.repository.AccountRepository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Hot-account mode: the balance of a busy account is split across N slot rows so that
+ * deposits only lock one random slot instead of the account row. Debits still lock the
+ * account row and drain the slots into it when the row alone cannot cover the amount.
+ *
+ * Hot mode can only be switched on (or widened), never off, so a deposit that does not yet
+ * know an account is hot and credits the account row is still correct.
+ */
+@Service
+public class HotAccountService {
+    public static final int MAX_SLOTS = 64;
+
+    private final AccountRepository accountRepository;
+    private final AccountBalanceSlotRepository slotRepository;
+    // accountId -> slot row ids (in slot order) for hot accounts only; loaded on first use
+    private final Map<Long, List<Long>> slotIds = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public HotAccountService(AccountRepository accountRepository, AccountBalanceSlotRepository slotRepository) {
+        this.accountRepository = accountRepository;
+        this.slotRepository = slotRepository;
+    }
+
+    /** Slot row ids of a hot account, empty for a regular account. Does not hit the database once loaded. */
+    public List<Long> slotIds(Long accountId) {
+        if (!loaded) loadSlotIds();
+        return slotIds.getOrDefault(accountId, List.of());
+    }
+
+    private synchronized void loadSlotIds() {
+        if (loaded) return;
+        Map<Long, List<Long>> byAccount = new HashMap<>();
+        for (Object[] row : slotRepository.findAllSlotIds()) {
+            byAccount.computeIfAbsent((Long) row[0], k -> new ArrayList<>()).add((Long) row[1]);
+        }
+        byAccount.forEach((accountId, ids) -> slotIds.put(accountId, List.copyOf(ids)));
+        loaded = true;
+    }
+
+    @Transactional
+    public Account enableHotMode(Long accountId, int slots) {
+        if (slots < 1 || slots > MAX_SLOTS) throw new IllegalArgumentException("slots must be between 1 and " + MAX_SLOTS);
+        Account acc = accountRepository.findWithLockingById(accountId)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + accountId));
+        int current = acc.getHotSlots() != null ? acc.getHotSlots() : 0;
+        if (slots < current) throw new IllegalStateException("Hot account slots cannot be reduced (currently " + current + ")");
+        for (int i = current; i < slots; i++) {
+            AccountBalanceSlot slot = new AccountBalanceSlot();
+            slot.setAccount(acc);
+            slot.setSlotNo(i);
+            slotRepository.save(slot);
+        }
+        acc.setHotSlots(slots);
+        accountRepository.save(acc);
+        acc.setSlotBalance(slotRepository.sumBalanceByAccountId(accountId));
+        List<Long> ids = slotRepository.findByAccount_IdOrderBySlotNo(accountId).stream().map(AccountBalanceSlot::getId).toList();
+        afterCommit(() -> slotIds.put(accountId, ids));
+        return acc;
+    }
+
+    /**
+     * Credits a random slot of a hot account. Only the chosen slot row is locked (by primary key);
+     * the account row is read without a lock and returned with its slot total filled in.
+     */
+    @Transactional
+    public Account creditSlot(Long accountId, List<Long> slots, BigDecimal amount) {
+        Long slotId = slots.get(ThreadLocalRandom.current().nextInt(slots.size()));
+        AccountBalanceSlot slot = slotRepository.findWithLockingById(slotId)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + accountId));
+        slot.setBalance(slot.getBalance().add(amount));
+        slotRepository.save(slot);
+        Account acc = accountRepository.findById(accountId)
+                .orElseThrow(() -> new IllegalArgumentException("Account not found: " + accountId));
+        acc.setSlotBalance(slotRepository.sumBalanceByAccountId(accountId));
+        return acc;
+    }
+
+    /**
+     * Called with the account row already locked. When the row balance cannot cover the debit,
+     * all slots are locked (in slot order) and folded into the row so the usual funds check
+     * sees the full balance.
+     */
+    @Transactional
+    public void coverDebit(Account acc, BigDecimal amount) {
+        if (acc.getBalance().compareTo(amount) >= 0) {
+            acc.setSlotBalance(slotRepository.sumBalanceByAccountId(acc.getId()));
+            return;
+        }
+        BigDecimal drained = BigDecimal.ZERO;
+        List<AccountBalanceSlot> slots = slotRepository.findWithLockingByAccount_IdOrderBySlotNo(acc.getId());
+        for (AccountBalanceSlot slot : slots) {
+            if (slot.getBalance().signum() == 0) continue;
+            drained = drained.add(slot.getBalance());
+            slot.setBalance(BigDecimal.ZERO);
+        }
+        slotRepository.saveAll(slots);
+        acc.setBalance(acc.getBalance().add(drained));
+        acc.setSlotBalance(BigDecimal.ZERO);
+    }
+
+    public void loadSlotBalance(Account acc) {
+        if (acc.isHot()) acc.setSlotBalance(slotRepository.sumBalanceByAccountId(acc.getId()));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() { action.run(); }
+        });
+    }
+}
@@ -0,0 +1,178 @@
+package com.sampleProject.BankingSystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sampleProject.BankingSystem.model.IdempotencyRecord;
+import com.sampleProject.BankingSystem.repository.IdempotencyRecordRepository;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Exactly-once execution of money-moving requests that carry an Idempotency-Key header.
+ *
+ * The operation and its stored response commit in one transaction. Replays are answered from a
+ * bounded in-memory front, then from the idempotency_keys table, without running the operation
+ * (so without taking any account lock). A duplicate that arrives while the first request is still
+ * running waits for it and gets the same response. Failed operations are not stored: the transaction
+ * rolls back and the key can be retried.
+ */
+@Service
+public class IdempotencyService {
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private record Stored(String fingerprint, String body) {}
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Cache<String, Stored> front;
+    private final ConcurrentHashMap<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository recordRepository, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${banking.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${banking.idempotency.wait-timeout:PT30S}") Duration waitTimeout,
+                              @Value("${banking.idempotency.front-size:10000}") long frontSize) {
+        this.recordRepository = recordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.front = Caffeine.newBuilder().maximumSize(frontSize).expireAfterWrite(ttl).build();
+    }
+
+    /**
+     * Runs the operation once per key. Without a key the operation simply runs.
+     *
+     * @param operation identifies the endpoint and path, e.g. "deposit:5"; part of the request fingerprint
+     */
+    public <T> T execute(String key, String operation, Object request, Class<T> responseType, Supplier<T> action) {
+        if (key == null) return action.get();
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(operation, request);
+
+        Stored stored = front.getIfPresent(key);
+        if (stored == null) {
+            CompletableFuture<Stored> mine = new CompletableFuture<>();
+            CompletableFuture<Stored> running = inFlight.putIfAbsent(key, mine);
+            stored = running != null ? await(running) : runOnce(key, fingerprint, action, mine);
+        }
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+        }
+        return read(stored.body(), responseType);
+    }
+
+    private <T> Stored runOnce(String key, String fingerprint, Supplier<T> action, CompletableFuture<Stored> mine) {
+        try {
+            Stored stored = findStored(key).orElseGet(() -> {
+                try {
+                    return transactionTemplate.execute(status -> {
+                        // an expired record the purge has not reached yet would make the insert below a key conflict
+                        recordRepository.deleteExpired(key, Instant.now());
+                        Stored result = new Stored(fingerprint, write(action.get()));
+                        IdempotencyRecord rec = new IdempotencyRecord();
+                        rec.setKey(key);
+                        rec.setFingerprint(fingerprint);
+                        rec.setResponseBody(result.body());
+                        rec.setCreatedAt(Instant.now());
+                        rec.setExpiresAt(rec.getCreatedAt().plus(ttl));
+                        recordRepository.saveAndFlush(rec);
+                        return result;
+                    });
+                } catch (DataIntegrityViolationException ex) {
+                    // another instance committed the same key first; our attempt was rolled back
+                    return findStored(key).orElseThrow(() -> ex);
+                }
+            });
+            front.put(key, stored);
+            mine.complete(stored);
+            return stored;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Stored await(CompletableFuture<Stored> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException("A request with this Idempotency-Key is still in progress");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the original request");
+        }
+    }
+
+    private Optional<Stored> findStored(String key) {
+        return recordRepository.findById(key)
+                .filter(r -> r.getExpiresAt().isAfter(Instant.now()))
+                .map(r -> new Stored(r.getFingerprint(), r.getResponseBody()));
+    }
+
+    @Scheduled(fixedDelayString = "${banking.idempotency.cleanup-interval:PT10M}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = recordRepository.deleteExpired(Instant.now());
+        if (removed > 0) log.info("Purged {} expired idempotency keys", removed);
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return operation + ":" + HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("Cannot fingerprint request", ex);
+        }
+    }
+
+    private String write(Object value) {
+        try {
+            return value == null ? null : objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot store response", ex);
+        }
+    }
+
+    private <T> T read(String body, Class<T> type) {
+        try {
+            return body == null ? null : objectMapper.readValue(body, type);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot read stored response", ex);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package com.sampleProject.BankingSystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sampleProject.BankingSystem.dto.InterestDtos;
+import com.sampleProject.BankingSystem.model.Account;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.model.BankTransaction;
+import com.sampleProject.BankingSystem.model.InterestRun;
+import com.sampleProject.BankingSystem.model.InterestRunRange;
+import com.sampleProject.BankingSystem.repository.AccountRepository;
+import com.sampleProject.BankingSystem.repository.InterestRunRangeRepository;
+import com.sampleProject.BankingSystem.repository.InterestRunRepository;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Monthly interest for SAVINGS accounts: balance * interestRate / 12, rounded half-even to cents, credited to
+ * the account row with one INTEREST ledger row per account. The balance is the ledger's as of the end of the month
+ * (TransactionService.balanceAt), so money paid in since earns nothing for it, and accounts opened after the month
+ * are skipped.
+ *
+ * Months are posted in order: the first run can only be for the last month that has ended, and each later one for a
+ * month after the newest run. Posting never reaches back past a month that already has a run.
+ *
+ * A run splits the savings id space into banking.interest.ranges ranges, posted in parallel on
+ * banking.interest.threads threads. Each range is walked in chunks of banking.interest.chunk-size accounts; a
+ * chunk locks its accounts, credits them, inserts the ledger rows as JDBC batches and moves the range checkpoint,
+ * all in one transaction. A crash therefore loses at most the chunks in flight, and a restarted run (POST again,
+ * or automatically at startup) continues after the checkpoints without posting any account twice.
+ */
+@Service
+public class InterestPostingService {
+    private static final Logger log = LoggerFactory.getLogger(InterestPostingService.class);
+    public static final String TXN_TYPE = "INTEREST";
+    private static final BigDecimal MONTHS_PER_YEAR = BigDecimal.valueOf(12);
+
+    private final AccountRepository accountRepository;
+    private final InterestRunRepository runRepository;
+    private final InterestRunRangeRepository rangeRepository;
+    private final TransactionService transactionService;
+    private final BalanceCache balanceCache;
+    private final TransactionTemplate tx;
+    private final int threads;
+    private final int ranges;
+    private final int chunkSize;
+    private final boolean resumeOnStartup;
+    private final Timer chunkTimer;
+    private final Counter accountsPosted;
+    // periods being posted by this instance
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+
+    public InterestPostingService(AccountRepository accountRepository, InterestRunRepository runRepository,
+                                  InterestRunRangeRepository rangeRepository, TransactionService transactionService,
+                                  BalanceCache balanceCache,
+                                  PlatformTransactionManager transactionManager, MeterRegistry registry, Environment env) {
+        this.accountRepository = accountRepository;
+        this.runRepository = runRepository;
+        this.rangeRepository = rangeRepository;
+        this.transactionService = transactionService;
+        this.balanceCache = balanceCache;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.threads = env.getProperty("banking.interest.threads", Integer.class, 4);
+        this.ranges = env.getProperty("banking.interest.ranges", Integer.class, 16);
+        this.chunkSize = env.getProperty("banking.interest.chunk-size", Integer.class, 500);
+        this.resumeOnStartup = env.getProperty("banking.interest.resume-on-startup", Boolean.class, true);
+        if (threads < 1 || ranges < 1 || chunkSize < 1) {
+            throw new IllegalArgumentException("banking.interest.threads, ranges and chunk-size must be at least 1");
+        }
+        this.chunkTimer = Timer.builder("banking.interest.chunk").register(registry);
+        this.accountsPosted = Counter.builder("banking.interest.accounts").register(registry);
+    }
+
+    /**
+     * Starts posting interest for the next month due, or resumes an interrupted run, and returns at once.
+     * A month that was already posted, or that comes before the newest run, is refused.
+     */
+    public InterestDtos.RunResponse start(YearMonth period) {
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        if (!period.isBefore(current)) {
+            throw new IllegalArgumentException("Interest for " + period + " can only be posted after the month has ended");
+        }
+        String key = period.toString();
+        if (!runRepository.existsById(key)) {
+            // yyyy-MM sorts by month
+            String newest = runRepository.findFirstByOrderByPeriodDesc().map(InterestRun::getPeriod).orElse(null);
+            if (newest == null ? !period.equals(current.minusMonths(1)) : key.compareTo(newest) < 0) {
+                throw new IllegalArgumentException("Interest for " + period + " cannot be posted: the next month due is "
+                        + (newest == null ? current.minusMonths(1) + "" : "after " + newest));
+            }
+        }
+        if (!active.add(key)) return status(period);
+        List<Long> pending;
+        try {
+            pending = tx.execute(s -> plan(key));
+        } catch (RuntimeException ex) {
+            active.remove(key);
+            throw ex;
+        }
+        launch(key, pending);
+        return status(period);
+    }
+
+    public InterestDtos.RunResponse status(YearMonth period) {
+        String key = period.toString();
+        InterestRun run = runRepository.findById(key)
+                .orElseThrow(() -> new IllegalArgumentException("No interest run for " + key));
+        InterestDtos.RunResponse resp = new InterestDtos.RunResponse();
+        resp.period = key;
+        resp.status = run.getStatus();
+        resp.startedAt = run.getStartedAt();
+        resp.finishedAt = run.getFinishedAt();
+        resp.amountPosted = BigDecimal.ZERO;
+        resp.ranges = new ArrayList<>();
+        for (InterestRunRange r : rangeRepository.findByPeriodOrderByRangeStart(key)) {
+            InterestDtos.RangeResponse rr = new InterestDtos.RangeResponse();
+            rr.rangeStart = r.getRangeStart();
+            rr.rangeEnd = r.getRangeEnd();
+            rr.checkpoint = r.getCheckpoint();
+            rr.done = r.isDone();
+            rr.accountsPosted = r.getAccountsPosted();
+            rr.amountPosted = r.getAmountPosted();
+            rr.chunks = r.getChunks();
+            rr.millis = r.getMillis();
+            rr.accountsPerSecond = r.getMillis() == 0 ? 0 : r.getAccountsPosted() * 1000.0 / r.getMillis();
+            resp.ranges.add(rr);
+            resp.accountsPosted += r.getAccountsPosted();
+            resp.amountPosted = resp.amountPosted.add(r.getAmountPosted());
+            if (r.isDone()) resp.rangesDone++;
+        }
+        return resp;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeInterrupted() {
+        if (!resumeOnStartup) return;
+        for (InterestRun run : runRepository.findByStatus(InterestRun.RUNNING)) {
+            log.info("Resuming interrupted interest run {}", run.getPeriod());
+            start(YearMonth.parse(run.getPeriod()));
+        }
+    }
+
+    // creates the run and its ranges on first start; returns the ranges still to do
+    private List<Long> plan(String period) {
+        InterestRun run = runRepository.findById(period).orElse(null);
+        if (run != null && InterestRun.COMPLETED.equals(run.getStatus())) {
+            throw new IllegalStateException("Interest for " + period + " has already been posted");
+        }
+        if (run == null) {
+            run = new InterestRun();
+            run.setPeriod(period);
+            run.setStatus(InterestRun.RUNNING);
+            run.setStartedAt(Instant.now());
+            runRepository.save(run);
+            Long min = accountRepository.findMinIdByAccountType(AccountType.SAVINGS);
+            Long max = accountRepository.findMaxIdByAccountType(AccountType.SAVINGS);
+            if (min != null) {
+                long width = Math.max(1, (max - min + ranges) / ranges);
+                for (long start = min; start <= max; start += width) {
+                    InterestRunRange range = new InterestRunRange();
+                    range.setPeriod(period);
+                    range.setRangeStart(start);
+                    range.setRangeEnd(Math.min(max, start + width - 1));
+                    range.setCheckpoint(start - 1);
+                    rangeRepository.save(range);
+                }
+            }
+            rangeRepository.flush();
+        }
+        return rangeRepository.findPendingIds(period);
+    }
+
+    private void launch(String period, List<Long> pending) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, pending.size())),
+                new CustomizableThreadFactory("interest-" + period + "-"));
+        CompletableFuture<?>[] work = pending.stream()
+                .map(rangeId -> CompletableFuture.runAsync(() -> postRange(rangeId), pool))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(work).whenComplete((v, ex) -> {
+            pool.shutdown();
+            try {
+                if (ex != null) {
+                    log.error("Interest run {} stopped; start it again to resume from the checkpoints", period, ex);
+                } else {
+                    tx.executeWithoutResult(s -> complete(period));
+                }
+            } finally {
+                active.remove(period);
+            }
+        });
+    }
+
+    private void complete(String period) {
+        InterestRun run = runRepository.findById(period).orElseThrow();
+        run.setStatus(InterestRun.COMPLETED);
+        run.setFinishedAt(Instant.now());
+        log.info("Interest run {} completed", period);
+    }
+
+    private void postRange(Long rangeId) {
+        while (postChunk(rangeId)) {
+            // next chunk
+        }
+    }
+
+    /** Posts the next chunk of a range in its own transaction; false once the range is done. */
+    boolean postChunk(Long rangeId) {
+        return Boolean.TRUE.equals(tx.execute(s -> {
+            InterestRunRange range = rangeRepository.findWithLockingById(rangeId).orElseThrow();
+            if (range.isDone()) return false;
+            long began = System.nanoTime();
+            Instant monthEnd = YearMonth.parse(range.getPeriod()).plusMonths(1).atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+            List<Account> accounts = accountRepository.findWithLockingInterestChunk(range.getCheckpoint(), range.getRangeEnd(),
+                    monthEnd, Limit.of(chunkSize));
+            String note = "Interest " + range.getPeriod();
+            List<BankTransaction> ledger = new ArrayList<>(accounts.size());
+            BigDecimal total = BigDecimal.ZERO;
+            for (Account acc : accounts) {
+                // slot deposits of a hot account are in the ledger too, so this covers them
+                BigDecimal interest = monthlyInterest(transactionService.balanceAt(acc.getId(), monthEnd), acc.getInterestRate());
+                if (interest.signum() <= 0) continue;
+                acc.setBalance(acc.getBalance().add(interest));
+                balanceCache.written(acc);
+                ledger.add(TransactionService.entry(acc, interest, TXN_TYPE, note));
+                total = total.add(interest);
+            }
+            transactionService.recordAll(ledger);
+
+            boolean last = accounts.size() < chunkSize;
+            range.setCheckpoint(last ? range.getRangeEnd() : accounts.get(accounts.size() - 1).getId());
+            range.setDone(last || range.getCheckpoint() == range.getRangeEnd());
+            range.setAccountsPosted(range.getAccountsPosted() + ledger.size());
+            range.setAmountPosted(range.getAmountPosted().add(total));
+            range.setChunks(range.getChunks() + 1);
+            // send the batched updates and inserts now so the chunk timing covers them
+            accountRepository.flush();
+            long nanos = System.nanoTime() - began;
+            range.setMillis(range.getMillis() + TimeUnit.NANOSECONDS.toMillis(nanos));
+
+            chunkTimer.record(nanos, TimeUnit.NANOSECONDS);
+            accountsPosted.increment(ledger.size());
+            log.debug("Interest {} range {}-{}: {} accounts in {} ms ({} accounts/s)", range.getPeriod(), range.getRangeStart(),
+                    range.getRangeEnd(), ledger.size(), nanos / 1_000_000, Math.round(ledger.size() * 1e9 / Math.max(1, nanos)));
+            if (range.isDone()) {
+                log.info("Interest {} range {}-{} done: {} accounts, {} chunks, {} accounts/s", range.getPeriod(), range.getRangeStart(),
+                        range.getRangeEnd(), range.getAccountsPosted(), range.getChunks(),
+                        range.getMillis() == 0 ? 0 : range.getAccountsPosted() * 1000 / range.getMillis());
+            }
+            return !range.isDone();
+        }));
+    }
+
+    static BigDecimal monthlyInterest(BigDecimal balance, BigDecimal annualRate) {
+        if (balance.signum() <= 0 || annualRate == null || annualRate.signum() <= 0) return BigDecimal.ZERO;
+        return balance.multiply(annualRate).divide(MONTHS_PER_YEAR, 2, RoundingMode.HALF_EVEN);
+    }
+}
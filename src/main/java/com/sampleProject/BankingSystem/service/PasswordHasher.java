@@ -0,0 +1,104 @@
+package com.sampleProject.BankingSystem.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BCrypt hashing on a small fixed pool of its own. A login storm can then use at most
+ * banking.password-hashing.threads cores, and at most banking.password-hashing.queue-capacity callers
+ * wait for a turn. Everyone beyond that gets a RejectedExecutionException straight away (503), instead
+ * of holding a request thread while the money-movement endpoints starve for CPU.
+ *
+ * Stored values carry the encoder id ("{bcrypt}$2a$10$..."). Values without one are plain-text
+ * passwords from before hashing; they still match, and {@link #needsRehash} asks for them to be
+ * replaced, as it does for hashes made with a lower cost than the current one.
+ */
+@Component
+public class PasswordHasher {
+    // constant-time comparison; only ever used to match, never to encode
+    private static final PasswordEncoder LEGACY_PLAIN_TEXT = new PasswordEncoder() {
+        @Override
+        public String encode(CharSequence raw) {
+            throw new UnsupportedOperationException("Plain-text passwords are no longer stored");
+        }
+
+        @Override
+        public boolean matches(CharSequence raw, String stored) {
+            return MessageDigest.isEqual(raw.toString().getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+    };
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+
+    public PasswordHasher(@Value("${banking.password-hashing.bcrypt-strength:10}") int strength,
+                          @Value("${banking.password-hashing.threads:0}") int threads,
+                          @Value("${banking.password-hashing.queue-capacity:32}") int queueCapacity,
+                          MeterRegistry meterRegistry) {
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder("bcrypt",
+                Map.of("bcrypt", new BCryptPasswordEncoder(strength)));
+        delegating.setDefaultPasswordEncoderForMatches(LEGACY_PLAIN_TEXT);
+        this.encoder = delegating;
+        // 0: half the cores, so hashing never takes the whole machine
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger n = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        new ExecutorServiceMetrics(executor, "password.hashing", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    public String hash(String raw) {
+        return run(() -> encoder.encode(raw));
+    }
+
+    public boolean matches(String raw, String stored) {
+        if (raw == null || stored == null) return false;
+        return run(() -> encoder.matches(raw, stored));
+    }
+
+    /** True for plain-text values and for hashes weaker than the current settings; cheap, runs inline. */
+    public boolean needsRehash(String stored) {
+        return stored != null && encoder.upgradeEncoding(stored);
+    }
+
+    private <T> T run(Callable<T> work) {
+        try {
+            return executor.submit(work).get();
+        } catch (RejectedExecutionException ex) {
+            throw new RejectedExecutionException("Too many logins in progress, please retry", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
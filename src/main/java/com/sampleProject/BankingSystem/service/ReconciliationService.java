@@ -0,0 +1,363 @@
+package com.sampleProject.BankingSystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sampleProject.BankingSystem.dto.ReconciliationDtos;
+import com.sampleProject.BankingSystem.model.ArchivedBalance;
+import com.sampleProject.BankingSystem.model.ReconciliationMismatch;
+import com.sampleProject.BankingSystem.model.ReconciliationRun;
+import com.sampleProject.BankingSystem.repository.AccountRepository;
+import com.sampleProject.BankingSystem.repository.ArchivedBalanceRepository;
+import com.sampleProject.BankingSystem.repository.BankTransactionRepository;
+import com.sampleProject.BankingSystem.repository.ReconciliationMismatchRepository;
+import com.sampleProject.BankingSystem.repository.ReconciliationRunRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks that every account's balance (row plus hot-account slots) equals the signed sum of its ledger.
+ *
+ * The id space is cut into partitions of banking.reconciliation.partition-size ids and reconciled on a fork-join
+ * pool of banking.reconciliation.parallelism threads. A partition costs three statements: the balances of its
+ * accounts, one grouped sum over their transactions and their archived totals (see ArchiveService), all read in one
+ * REPEATABLE READ transaction (on Postgres, one snapshot) so a transfer or an archive run that commits in between
+ * does not show up as a mismatch. Accounts that do not add up are
+ * checked once more on their own before they are written to reconciliation_mismatches.
+ *
+ * Throttle, so a run can share the database with live traffic:
+ * <ul>
+ *   <li>at most banking.reconciliation.max-accounts-per-second accounts are read, across all threads (0: no limit)</li>
+ *   <li>before each partition the run waits, in steps of banking.reconciliation.busy-backoff, for as long as
+ *       request threads are queueing for a database connection (0: do not wait)</li>
+ * </ul>
+ *
+ * A run lives in the instance that started it, which stamps its heartbeat every
+ * banking.reconciliation.heartbeat-interval. Any instance fails a RUNNING run whose heartbeat is older than
+ * banking.reconciliation.stale-after, at startup and on every heartbeat, so a run that is still going elsewhere is
+ * left alone.
+ */
+@Service
+public class ReconciliationService {
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationService.class);
+    public static final int MAX_LISTED = 1000;
+
+    private final AccountRepository accountRepository;
+    private final BankTransactionRepository transactionRepository;
+    private final ArchivedBalanceRepository archivedBalanceRepository;
+    private final ReconciliationRunRepository runRepository;
+    private final ReconciliationMismatchRepository mismatchRepository;
+    private final MeterRegistry registry;
+    private final TransactionTemplate tx;
+    private final TransactionTemplate snapshotTx;
+    private final int parallelism;
+    private final int partitionSize;
+    private final long maxAccountsPerSecond;
+    private final Duration busyBackoff;
+    private final Duration staleAfter;
+    private final Timer partitionTimer;
+    private final Counter pauses;
+    // end of the time already handed out by the rate limit (System.nanoTime)
+    private final AtomicLong nextFree = new AtomicLong(System.nanoTime());
+    private volatile Progress current;
+
+    private static final class Progress {
+        final Long runId;
+        final int partitions;
+        final AtomicInteger partitionsDone = new AtomicInteger();
+        final AtomicLong accountsChecked = new AtomicLong();
+        final AtomicLong mismatches = new AtomicLong();
+
+        Progress(Long runId, int partitions) {
+            this.runId = runId;
+            this.partitions = partitions;
+        }
+    }
+
+    public ReconciliationService(AccountRepository accountRepository, BankTransactionRepository transactionRepository,
+                                 ArchivedBalanceRepository archivedBalanceRepository, ReconciliationRunRepository runRepository,
+                                 ReconciliationMismatchRepository mismatchRepository,
+                                 PlatformTransactionManager transactionManager, MeterRegistry registry, Environment env) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.archivedBalanceRepository = archivedBalanceRepository;
+        this.runRepository = runRepository;
+        this.mismatchRepository = mismatchRepository;
+        this.registry = registry;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.snapshotTx = new TransactionTemplate(transactionManager);
+        snapshotTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        snapshotTx.setReadOnly(true);
+        this.parallelism = env.getProperty("banking.reconciliation.parallelism", Integer.class, 2);
+        this.partitionSize = env.getProperty("banking.reconciliation.partition-size", Integer.class, 1000);
+        this.maxAccountsPerSecond = env.getProperty("banking.reconciliation.max-accounts-per-second", Long.class, 0L);
+        this.busyBackoff = Binder.get(env).bind("banking.reconciliation.busy-backoff", Duration.class).orElse(Duration.ofMillis(200));
+        Duration heartbeat = Binder.get(env).bind("banking.reconciliation.heartbeat-interval", Duration.class).orElse(Duration.ofSeconds(30));
+        this.staleAfter = Binder.get(env).bind("banking.reconciliation.stale-after", Duration.class).orElse(Duration.ofMinutes(2));
+        if (parallelism < 1 || partitionSize < 1 || maxAccountsPerSecond < 0 || busyBackoff.isNegative()) {
+            throw new IllegalArgumentException("banking.reconciliation.parallelism and partition-size must be at least 1, the throttle settings not negative");
+        }
+        if (staleAfter.compareTo(heartbeat.multipliedBy(2)) < 0) {
+            throw new IllegalArgumentException("banking.reconciliation.stale-after must be at least twice the heartbeat-interval");
+        }
+        this.partitionTimer = Timer.builder("banking.reconciliation.partition").register(registry);
+        this.pauses = Counter.builder("banking.reconciliation.pauses")
+                .description("Partitions held back because requests were waiting for a connection").register(registry);
+    }
+
+    /** Starts a run in the background. Only one run at a time. */
+    public synchronized ReconciliationDtos.RunResponse start() {
+        Progress running = current;
+        if (running != null) throw new IllegalStateException("Reconciliation run " + running.runId + " is still in progress");
+        Long min = accountRepository.findMinId();
+        Long max = accountRepository.findMaxId();
+        int partitions = min == null ? 0 : (int) ((max - min) / partitionSize + 1);
+        ReconciliationRun run = tx.execute(s -> {
+            ReconciliationRun r = new ReconciliationRun();
+            r.setStatus(ReconciliationRun.RUNNING);
+            r.setStartedAt(Instant.now());
+            r.setHeartbeatAt(r.getStartedAt());
+            r.setPartitions(partitions);
+            return runRepository.save(r);
+        });
+        Progress progress = new Progress(run.getId(), partitions);
+        current = progress;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        pool.execute(new RunTask(progress, min == null ? 0 : min));
+        return status(run.getId());
+    }
+
+    // a run only lives in the process that started it; one whose heartbeat stopped will never finish
+    @EventListener(ApplicationReadyEvent.class)
+    public void failAbandoned() {
+        Instant now = Instant.now();
+        int failed = tx.execute(s -> runRepository.failStale(now.minus(staleAfter), now));
+        if (failed > 0) log.warn("Marked {} reconciliation run(s) without a heartbeat since {} as FAILED", failed, now.minus(staleAfter));
+    }
+
+    @Scheduled(fixedDelayString = "${banking.reconciliation.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        Progress running = current;
+        if (running != null) tx.executeWithoutResult(s -> runRepository.beat(running.runId, Instant.now()));
+        failAbandoned();
+    }
+
+    @Scheduled(cron = "${banking.reconciliation.cron:-}")
+    public void scheduledRun() {
+        try {
+            start();
+        } catch (IllegalStateException ex) {
+            log.info("Scheduled reconciliation skipped: {}", ex.getMessage());
+        }
+    }
+
+    public ReconciliationDtos.RunResponse status(Long runId) {
+        ReconciliationRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new IllegalArgumentException("Reconciliation run not found: " + runId));
+        ReconciliationDtos.RunResponse resp = new ReconciliationDtos.RunResponse();
+        resp.id = run.getId();
+        resp.status = run.getStatus();
+        resp.startedAt = run.getStartedAt();
+        resp.finishedAt = run.getFinishedAt();
+        resp.partitions = run.getPartitions();
+        Progress progress = current;
+        if (progress != null && progress.runId.equals(runId)) {
+            resp.partitionsDone = progress.partitionsDone.get();
+            resp.accountsChecked = progress.accountsChecked.get();
+            resp.mismatchCount = progress.mismatches.get();
+        } else {
+            resp.partitionsDone = ReconciliationRun.COMPLETED.equals(run.getStatus()) ? run.getPartitions() : 0;
+            resp.accountsChecked = run.getAccountsChecked();
+            resp.mismatchCount = run.getMismatches();
+        }
+        resp.mismatches = mismatchRepository.findByRunIdOrderByAccountId(runId, Limit.of(MAX_LISTED)).stream().map(m -> {
+            ReconciliationDtos.MismatchResponse r = new ReconciliationDtos.MismatchResponse();
+            r.accountId = m.getAccountId();
+            r.balance = m.getBalance();
+            r.ledgerSum = m.getLedgerSum();
+            r.difference = m.getBalance().subtract(m.getLedgerSum());
+            return r;
+        }).toList();
+        return resp;
+    }
+
+    public ReconciliationDtos.RunResponse latest() {
+        return runRepository.findFirstByOrderByIdDesc().map(r -> status(r.getId()))
+                .orElseThrow(() -> new IllegalArgumentException("No reconciliation run yet"));
+    }
+
+    // the whole run: the partition tree, then the final status
+    private final class RunTask extends RecursiveAction {
+        private final Progress progress;
+        private final long minId;
+
+        RunTask(Progress progress, long minId) {
+            this.progress = progress;
+            this.minId = minId;
+        }
+
+        @Override
+        protected void compute() {
+            String status = ReconciliationRun.COMPLETED;
+            try {
+                if (progress.partitions > 0) new PartitionTask(progress, minId, 0, progress.partitions).invoke();
+                log.info("Reconciliation run {} done: {} accounts, {} mismatches", progress.runId,
+                        progress.accountsChecked.get(), progress.mismatches.get());
+            } catch (RuntimeException ex) {
+                status = ReconciliationRun.FAILED;
+                log.error("Reconciliation run {} failed", progress.runId, ex);
+            } finally {
+                finish(progress, status);
+                // only now: a pool shut down earlier interrupts its workers once it looks idle
+                getPool().shutdown();
+            }
+        }
+    }
+
+    // partitions [from, to) of the id space, split in halves down to single partitions
+    private final class PartitionTask extends RecursiveAction {
+        private final Progress progress;
+        private final long minId;
+        private final int from;
+        private final int to;
+
+        PartitionTask(Progress progress, long minId, int from, int to) {
+            this.progress = progress;
+            this.minId = minId;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PartitionTask(progress, minId, from, mid), new PartitionTask(progress, minId, mid, to));
+                return;
+            }
+            long first = minId + (long) from * partitionSize;
+            reconcile(progress, first, first + partitionSize - 1);
+        }
+    }
+
+    private void reconcile(Progress progress, long firstId, long lastId) {
+        awaitQuietPool();
+        long began = System.nanoTime();
+        List<ReconciliationMismatch> suspects = new ArrayList<>();
+        int accounts = snapshotTx.execute(s -> compare(progress, firstId, lastId, suspects));
+        // a suspect is checked again on its own, in a later snapshot, and only reported if it still does not add up;
+        // this keeps transfers that raced the first read out of the report where the database allows phantom reads
+        List<ReconciliationMismatch> found = new ArrayList<>();
+        for (ReconciliationMismatch suspect : suspects) {
+            snapshotTx.executeWithoutResult(s -> compare(progress, suspect.getAccountId(), suspect.getAccountId(), found));
+        }
+        if (!found.isEmpty()) tx.executeWithoutResult(s -> mismatchRepository.saveAll(found));
+        partitionTimer.record(System.nanoTime() - began, TimeUnit.NANOSECONDS);
+        progress.partitionsDone.incrementAndGet();
+        progress.accountsChecked.addAndGet(accounts);
+        progress.mismatches.addAndGet(found.size());
+        pace(accounts);
+    }
+
+    // adds the accounts in [firstId, lastId] whose balance differs from their ledger sum; returns how many were read
+    private int compare(Progress progress, long firstId, long lastId, List<ReconciliationMismatch> out) {
+        Map<Long, BigDecimal> ledger = new HashMap<>();
+        for (Object[] row : transactionRepository.sumSignedAmountsBetween(firstId, lastId)) {
+            ledger.put((Long) row[0], (BigDecimal) row[1]);
+        }
+        for (ArchivedBalance archived : archivedBalanceRepository.findByAccountIdBetween(firstId, lastId)) {
+            ledger.merge(archived.getAccountId(), archived.getSignedSum(), BigDecimal::add);
+        }
+        List<Object[]> balances = accountRepository.findTotalBalancesBetween(firstId, lastId);
+        for (Object[] row : balances) {
+            Long id = (Long) row[0];
+            BigDecimal balance = (BigDecimal) row[1];
+            BigDecimal sum = ledger.getOrDefault(id, BigDecimal.ZERO);
+            if (balance.compareTo(sum) == 0) continue;
+            ReconciliationMismatch m = new ReconciliationMismatch();
+            m.setRunId(progress.runId);
+            m.setAccountId(id);
+            m.setBalance(balance);
+            m.setLedgerSum(sum);
+            out.add(m);
+        }
+        return balances.size();
+    }
+
+    private void finish(Progress progress, String status) {
+        try {
+            tx.executeWithoutResult(s -> {
+                ReconciliationRun run = runRepository.findById(progress.runId).orElseThrow();
+                run.setStatus(status);
+                run.setFinishedAt(Instant.now());
+                run.setAccountsChecked(progress.accountsChecked.get());
+                run.setMismatches(progress.mismatches.get());
+            });
+        } finally {
+            current = null;
+        }
+    }
+
+    // holds this thread back until the accounts just read fit under the rate limit, shared by all threads
+    private void pace(int accounts) {
+        if (maxAccountsPerSecond == 0 || accounts == 0) return;
+        long cost = accounts * 1_000_000_000L / maxAccountsPerSecond;
+        long now = System.nanoTime();
+        long until = nextFree.accumulateAndGet(cost, (prev, c) -> Math.max(prev, now) + c);
+        sleep(until - now);
+    }
+
+    private void awaitQuietPool() {
+        if (busyBackoff.isZero()) return;
+        while (connectionWaiters() > 0) {
+            pauses.increment();
+            sleep(busyBackoff.toNanos());
+        }
+    }
+
+    // request threads waiting for a pooled connection (HikariCP) or for an admission permit in front of it; the
+    // replica's pool is not the one the partitions compete for
+    private double connectionWaiters() {
+        double waiting = 0;
+        for (Gauge g : registry.find("hikaricp.connections.pending").gauges()) {
+            if (!"replica".equals(g.getId().getTag("pool"))) waiting += g.value();
+        }
+        for (Gauge g : registry.find("banking.db.admission.queued").gauges()) waiting += g.value();
+        return waiting;
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) return;
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reconciliation interrupted", ex);
+        }
+    }
+}
@@ -1,8 +1,189 @@
 package com.sampleProject.BankingSystem.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.regex.Pattern;
+
 /**
- * Deprecated: In-memory session tokens removed. Use database-backed authentication if needed.
+ * Stateless session tokens: {@code <key id>.<payload>.<signature>}, all base64url. The payload is the
+ * customer id, the expiry (epoch seconds) and a random token id; the signature is HMAC-SHA256 over
+ * {@code <key id>.<payload>}. Verifying needs no database access, only a MAC and a revocation lookup.
+ *
+ * Key ring: banking.session.keys.&lt;id&gt; holds base64 secrets (at least 32 bytes), and
+ * banking.session.active-key names the one new tokens are signed with. To rotate, add a key, make it active,
+ * and drop the old one once banking.session.ttl has passed. Without configured keys a random key is made at
+ * startup, so tokens do not survive a restart and are not accepted by other instances.
+ *
+ * Logout revokes a token until it would have expired anyway. Revocations are kept in memory, per instance.
  */
+@Service
 public class SessionTokenService {
-    // No implementation.
+    private static final Logger log = LoggerFactory.getLogger(SessionTokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Pattern KEY_ID = Pattern.compile("[A-Za-z0-9_-]{1,16}");
+    private static final int PAYLOAD_BYTES = 24;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    public record Session(long customerId, Instant expiresAt, long tokenId) {}
+
+    public record IssuedToken(String token, Instant expiresAt) {}
+
+    /**
+     * Mac is not thread-safe, and with virtual threads every request runs on a new thread, so a per-thread Mac
+     * would be made afresh each time. Instead a key keeps up to one idle Mac per core (a MAC never blocks, so no
+     * more run at once) and clones its initialised prototype when none is idle.
+     */
+    private static final class SigningKey {
+        private final String id;
+        private final Mac prototype;
+        private final BlockingQueue<Mac> idle = new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+
+        SigningKey(String id, SecretKeySpec spec) throws GeneralSecurityException {
+            this.id = id;
+            this.prototype = Mac.getInstance(ALGORITHM);
+            prototype.init(spec);
+        }
+
+        String id() { return id; }
+
+        byte[] sign(byte[] data) {
+            Mac mac = idle.poll();
+            if (mac == null) mac = copy();
+            try {
+                return mac.doFinal(data);
+            } finally {
+                idle.offer(mac);
+            }
+        }
+
+        private Mac copy() {
+            try {
+                return (Mac) prototype.clone();
+            } catch (CloneNotSupportedException ex) {
+                throw new IllegalStateException(ALGORITHM + " provider cannot clone a Mac", ex);
+            }
+        }
+    }
+
+    private final Map<String, SigningKey> keys = new HashMap<>();
+    private final SigningKey active;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+    // token id -> expiry (epoch seconds); an entry lives exactly as long as the token it revokes
+    private final Cache<Long, Long> revoked = Caffeine.newBuilder()
+            .expireAfter(new Expiry<Long, Long>() {
+                @Override
+                public long expireAfterCreate(Long tokenId, Long expiresAt, long currentTime) {
+                    return Math.max(0, Duration.ofSeconds(expiresAt - Instant.now().getEpochSecond() + 1).toNanos());
+                }
+
+                @Override
+                public long expireAfterUpdate(Long tokenId, Long expiresAt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(Long tokenId, Long expiresAt, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    public SessionTokenService(Environment env) {
+        Binder binder = Binder.get(env);
+        this.ttl = binder.bind("banking.session.ttl", Duration.class).orElse(Duration.ofHours(1));
+        Map<String, String> secrets = binder
+                .bind("banking.session.keys", Bindable.mapOf(String.class, String.class)).orElse(Map.of());
+        secrets.forEach((id, secret) -> addKey(id, Base64.getDecoder().decode(secret)));
+        String activeId = env.getProperty("banking.session.active-key");
+        if (keys.isEmpty()) {
+            log.warn("No banking.session.keys configured; signing session tokens with a random per-process key");
+            byte[] secret = new byte[32];
+            random.nextBytes(secret);
+            activeId = "local";
+            addKey(activeId, secret);
+        }
+        if (activeId == null && keys.size() == 1) activeId = keys.keySet().iterator().next();
+        if (activeId == null || !keys.containsKey(activeId)) {
+            throw new IllegalArgumentException("banking.session.active-key must name one of banking.session.keys");
+        }
+        this.active = keys.get(activeId);
+    }
+
+    private void addKey(String id, byte[] secret) {
+        if (!KEY_ID.matcher(id).matches()) throw new IllegalArgumentException("Invalid session key id: " + id);
+        if (secret.length < 32) throw new IllegalArgumentException("Session key " + id + " must be at least 32 bytes");
+        try {
+            keys.put(id, new SigningKey(id, new SecretKeySpec(secret, ALGORITHM)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public IssuedToken issue(long customerId) {
+        Instant expiresAt = Instant.now().plus(ttl);
+        byte[] payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+                .putLong(customerId).putLong(expiresAt.getEpochSecond()).putLong(random.nextLong()).array();
+        String signed = active.id() + "." + ENCODER.encodeToString(payload);
+        String signature = ENCODER.encodeToString(active.sign(signed.getBytes(StandardCharsets.US_ASCII)));
+        return new IssuedToken(signed + "." + signature, Instant.ofEpochSecond(expiresAt.getEpochSecond()));
+    }
+
+    /** The session, or empty if the token is malformed, signed with an unknown key, tampered with, expired or revoked. */
+    public Optional<Session> verify(String token) {
+        if (token == null) return Optional.empty();
+        int first = token.indexOf('.');
+        int second = token.indexOf('.', first + 1);
+        if (first < 1 || second < 0) return Optional.empty();
+        SigningKey key = keys.get(token.substring(0, first));
+        if (key == null) return Optional.empty();
+        byte[] payload;
+        try {
+            payload = DECODER.decode(token.substring(first + 1, second));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+        if (payload.length != PAYLOAD_BYTES) return Optional.empty();
+        // compared in encoded form: the decoder ignores the unused low bits of the last character, so decoding the
+        // presented signature would accept several spellings of one token
+        byte[] expected = ENCODER.encode(key.sign(token.substring(0, second).getBytes(StandardCharsets.US_ASCII)));
+        if (!MessageDigest.isEqual(expected, token.substring(second + 1).getBytes(StandardCharsets.US_ASCII))) return Optional.empty();
+
+        ByteBuffer buf = ByteBuffer.wrap(payload);
+        long customerId = buf.getLong();
+        long expiresAt = buf.getLong();
+        long tokenId = buf.getLong();
+        if (Instant.now().getEpochSecond() >= expiresAt) return Optional.empty();
+        if (revoked.getIfPresent(tokenId) != null) return Optional.empty();
+        return Optional.of(new Session(customerId, Instant.ofEpochSecond(expiresAt), tokenId));
+    }
+
+    /** Logout: the token stops verifying on this instance. Invalid tokens are ignored. */
+    public void revoke(String token) {
+        verify(token).ifPresent(s -> revoked.put(s.tokenId(), s.expiresAt().getEpochSecond()));
+    }
 }
@@ -0,0 +1,109 @@
+package com.sampleProject.BankingSystem.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.sampleProject.BankingSystem.dto.AccountDtos;
+import com.sampleProject.BankingSystem.model.BankTransaction;
+import com.sampleProject.BankingSystem.repository.BankTransactionRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.stream.Stream;
+
+/**
+ * Streams an account statement straight from a database cursor to an output stream. Rows are
+ * written and detached one at a time, so heap use does not depend on the size of the statement.
+ * Archived months come first, read from their segment files a month at a time.
+ */
+@Service
+public class StatementExportService {
+    public enum Format { NDJSON, CSV }
+
+    private final BankTransactionRepository transactionRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final ArchiveStore archiveStore;
+
+    public StatementExportService(BankTransactionRepository transactionRepository, EntityManager entityManager, ObjectMapper objectMapper,
+                                  ArchiveStore archiveStore) {
+        this.transactionRepository = transactionRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.archiveStore = archiveStore;
+    }
+
+    /** Writes every transaction with from <= txnDate < to, oldest first. Returns the row count. */
+    @Transactional(readOnly = true)
+    public long export(Long accountId, Instant from, Instant to, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        long rows = 0;
+        if (format == Format.CSV) writer.write("id,txnType,amount,txnDate,note,balanceAfter\n");
+        Instant horizon = archiveStore.horizon();
+        if (horizon != null && from.isBefore(horizon)) {
+            rows += archiveStore.statement(accountId, from, to, row -> write(writer, format, ArchiveStore.response(row)));
+        }
+        try (Stream<BankTransaction> stream = transactionRepository.streamStatement(accountId, from, to)) {
+            for (BankTransaction t : (Iterable<BankTransaction>) stream::iterator) {
+                // keep the persistence context from growing with the statement
+                entityManager.detach(t);
+                // already written from the archive: an archive run is removing it from the ledger
+                if (horizon != null && t.getTxnDate().isBefore(horizon)) continue;
+                write(writer, format, new AccountDtos.TransactionResponse(t.getId(), t.getTxnType(), t.getAmount(),
+                        t.getTxnDate(), t.getNote(), t.getBalanceAfter()));
+                rows++;
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private void write(Writer writer, Format format, AccountDtos.TransactionResponse t) throws IOException {
+        if (format == Format.CSV) writeCsv(writer, t); else writeJson(writer, t);
+    }
+
+    private void writeJson(Writer writer, AccountDtos.TransactionResponse t) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(writer)) {
+            gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            gen.writeStartObject();
+            gen.writeNumberField("id", t.id);
+            gen.writeStringField("txnType", t.txnType);
+            gen.writeNumberField("amount", t.amount);
+            gen.writeStringField("txnDate", t.txnDate != null ? t.txnDate.toString() : null);
+            gen.writeStringField("note", t.note);
+            gen.writeFieldName("balanceAfter");
+            if (t.balanceAfter != null) gen.writeNumber(t.balanceAfter); else gen.writeNull();
+            gen.writeEndObject();
+        }
+        writer.write('\n');
+    }
+
+    private static void writeCsv(Writer writer, AccountDtos.TransactionResponse t) throws IOException {
+        writer.write(String.valueOf(t.id));
+        writer.write(',');
+        writer.write(csv(t.txnType));
+        writer.write(',');
+        writer.write(t.amount.toPlainString());
+        writer.write(',');
+        writer.write(t.txnDate != null ? t.txnDate.toString() : "");
+        writer.write(',');
+        writer.write(csv(t.note));
+        writer.write(',');
+        writer.write(t.balanceAfter != null ? t.balanceAfter.toPlainString() : "");
+        writer.write('\n');
+    }
+
+    static String csv(String value) {
+        if (value == null) return "";
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) return value;
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
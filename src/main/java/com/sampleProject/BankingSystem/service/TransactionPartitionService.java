@@ -0,0 +1,274 @@
+package com.sampleProject.BankingSystem.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sampleProject.BankingSystem.dto.PartitionDtos;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Monthly range partitions of transactions on txn_date (UTC months). PostgreSQL only; elsewhere this does nothing.
+ *
+ * At startup a plain transactions table is turned into a partitioned one without copying or rewriting a row:
+ * <ol>
+ *   <li>a CHECK constraint (txn_date before the start of the month after next) is added NOT VALID and then
+ *       validated, and a unique index on (id, txn_date) is built CONCURRENTLY; neither blocks writes</li>
+ *   <li>in one short transaction the table is renamed to transactions_legacy, a partitioned transactions parent is
+ *       created with the same columns, indexes and foreign keys, and the old table is attached as the partition for
+ *       everything up to that bound. The validated CHECK lets PostgreSQL skip the scan, and the existing indexes are
+ *       adopted instead of rebuilt</li>
+ * </ol>
+ * From then on the months up to banking.partitioning.months-ahead ahead get a partition transactions_yyyy_MM,
+ * at startup and on banking.partitioning.cron. New partitions are created standalone and attached, which only takes
+ * a SHARE UPDATE EXCLUSIVE lock on the parent. DDL waits at most banking.partitioning.lock-timeout for its locks.
+ *
+ * There is no default partition, so an archived month can be detached CONCURRENTLY: a catalog change, no rewrite and no
+ * lock that blocks the ledger. Months above the archive horizon cannot: their rows exist nowhere else.
+ */
+@Service
+public class TransactionPartitionService {
+    private static final Logger log = LoggerFactory.getLogger(TransactionPartitionService.class);
+    static final String LEGACY = "transactions_legacy";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ArchiveStore archiveStore;
+    private final boolean supported;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final Duration lockTimeout;
+
+    public TransactionPartitionService(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                                       EntityManagerFactory entityManagerFactory, ArchiveStore archiveStore, Environment env) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.archiveStore = archiveStore;
+        this.supported = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        this.enabled = env.getProperty("banking.partitioning.enabled", Boolean.class, true);
+        this.monthsAhead = env.getProperty("banking.partitioning.months-ahead", Integer.class, 3);
+        this.lockTimeout = Binder.get(env).bind("banking.partitioning.lock-timeout", Duration.class).orElse(Duration.ofSeconds(5));
+        if (monthsAhead < 1) throw new IllegalArgumentException("banking.partitioning.months-ahead must be at least 1");
+    }
+
+    static String partitionName(YearMonth month) {
+        return "transactions_" + month.format(SUFFIX);
+    }
+
+    static Instant monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        maintain();
+    }
+
+    /** Converts the table if it is not partitioned yet and creates the missing partitions ahead of the clock. */
+    @Scheduled(cron = "${banking.partitioning.cron:-}")
+    public void maintain() {
+        if (!supported || !enabled) return;
+        try {
+            if (!isPartitioned()) convert();
+            int created = createAhead();
+            if (created > 0) log.info("Created {} transactions partition(s)", created);
+        } catch (DataAccessException ex) {
+            // the ledger keeps working on whatever is in place; the next run tries again
+            log.error("Partition maintenance failed", ex);
+        }
+    }
+
+    private int createAhead() {
+        Instant legacyEnd = legacyEnd();
+        YearMonth last = YearMonth.now(ZoneOffset.UTC).plusMonths(monthsAhead);
+        int created = 0;
+        for (YearMonth m = YearMonth.now(ZoneOffset.UTC); !m.isAfter(last); m = m.plusMonths(1)) {
+            if (legacyEnd != null && monthStart(m).isBefore(legacyEnd)) continue;
+            if (exists(partitionName(m))) continue;
+            createPartition(m);
+            created++;
+        }
+        return created;
+    }
+
+    public List<PartitionDtos.PartitionResponse> partitions() {
+        if (!supported || !isPartitioned()) return List.of();
+        return jdbc.query("""
+                select c.relname, pg_get_expr(c.relpartbound, c.oid), c.reltuples
+                from pg_inherits i join pg_class c on c.oid = i.inhrelid
+                where i.inhparent = 'transactions'::regclass order by c.relname""", (rs, n) -> {
+            PartitionDtos.PartitionResponse p = new PartitionDtos.PartitionResponse();
+            p.name = rs.getString(1);
+            p.bounds = rs.getString(2);
+            p.estimatedRows = Math.max(0, rs.getLong(3));
+            return p;
+        });
+    }
+
+    /**
+     * Detaches the partition of a month the archive already holds, so history and balances still see its rows
+     * through the archive. The table and its rows stay, outside the ledger. Returns the table name.
+     */
+    public String detach(YearMonth month) {
+        if (!month.isBefore(YearMonth.now(ZoneOffset.UTC))) {
+            throw new IllegalArgumentException("Only past months can be detached: " + month);
+        }
+        Instant horizon = archiveStore.horizon();
+        if (horizon == null || monthStart(month.plusMonths(1)).isAfter(horizon)) {
+            throw new IllegalArgumentException("Only archived months can be detached: " + month
+                    + (horizon == null ? " (nothing is archived)" : " (archived up to " + horizon + ")"));
+        }
+        if (!supported || !isPartitioned()) throw new IllegalStateException("transactions is not partitioned");
+        String name = partitionName(month);
+        if (!isPartitionOfTransactions(name)) throw new IllegalArgumentException("No partition for " + month);
+        // CONCURRENTLY cannot run inside a transaction block: autocommit, on one connection for the session setting
+        jdbc.execute((ConnectionCallback<Void>) con -> {
+            try (Statement st = con.createStatement()) {
+                st.execute("set lock_timeout = '" + lockTimeout.toMillis() + "ms'");
+                try {
+                    st.execute("alter table transactions detach partition " + name + " concurrently");
+                } finally {
+                    st.execute("reset lock_timeout");
+                }
+            }
+            return null;
+        });
+        log.info("Detached partition {}", name);
+        return name;
+    }
+
+    /** Whether the month has a partition of its own, as opposed to being part of transactions_legacy or unpartitioned. */
+    boolean hasOwnPartition(YearMonth month) {
+        return supported && isPartitioned() && isPartitionOfTransactions(partitionName(month));
+    }
+
+    /**
+     * Plain (not CONCURRENTLY) detach, for a caller that removes a month inside its own transaction; the lock on the
+     * parent is held until that transaction ends. Returns the number of rows the detached table holds.
+     */
+    long detachInTransaction(YearMonth month) {
+        String name = partitionName(month);
+        setLocalLockTimeout();
+        jdbc.execute("alter table transactions detach partition " + name);
+        return jdbc.queryForObject("select count(*) from " + name, Long.class);
+    }
+
+    void dropDetached(YearMonth month) {
+        String name = partitionName(month);
+        if (exists(name) && !isPartitionOfTransactions(name)) jdbc.execute("drop table " + name);
+    }
+
+    private boolean isPartitioned() {
+        Boolean partitioned = jdbc.queryForObject(
+                "select coalesce((select relkind = 'p' from pg_class where oid = to_regclass('transactions')), false)", Boolean.class);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    private boolean exists(String table) {
+        return jdbc.queryForObject("select to_regclass(?) is not null", Boolean.class, table);
+    }
+
+    private boolean isPartitionOfTransactions(String table) {
+        return jdbc.queryForObject("select exists (select 1 from pg_inherits where inhrelid = to_regclass(?) " +
+                "and inhparent = 'transactions'::regclass)", Boolean.class, table);
+    }
+
+    // upper bound of the legacy partition, or null if there is none (any more)
+    private Instant legacyEnd() {
+        Timestamp end = jdbc.query("select (regexp_match(pg_get_expr(c.relpartbound, c.oid), 'TO \\(''([^'']+)''\\)'))[1]::timestamptz " +
+                        "from pg_inherits i join pg_class c on c.oid = i.inhrelid " +
+                        "where i.inhparent = 'transactions'::regclass and c.relname = ?",
+                rs -> rs.next() ? rs.getTimestamp(1) : null, LEGACY);
+        return end == null ? null : end.toInstant();
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        tx.executeWithoutResult(s -> {
+            setLocalLockTimeout();
+            jdbc.execute("create table " + name + " (like transactions including defaults)");
+            jdbc.execute("alter table transactions attach partition " + name + " for values from ('" + monthStart(month)
+                    + "') to ('" + monthStart(month.plusMonths(1)) + "')");
+        });
+    }
+
+    private void convert() {
+        Instant bound = monthStart(YearMonth.now(ZoneOffset.UTC).plusMonths(2));
+        log.info("Partitioning transactions; existing rows become {} (txn_date before {})", LEGACY, bound);
+        // 1. proofs for step 2, built while writes go on
+        Boolean hasCheck = jdbc.queryForObject("select exists (select 1 from pg_constraint where conrelid = 'transactions'::regclass " +
+                "and conname = 'transactions_legacy_bound')", Boolean.class);
+        if (!hasCheck) {
+            jdbc.execute("alter table transactions add constraint transactions_legacy_bound " +
+                    "check (txn_date is not null and txn_date < '" + bound + "') not valid");
+        }
+        jdbc.execute("alter table transactions validate constraint transactions_legacy_bound");
+        // a build that was cut short leaves an invalid index behind
+        jdbc.execute("""
+                do $$ begin
+                    if exists (select 1 from pg_index where indexrelid = to_regclass('transactions_legacy_id_date') and not indisvalid) then
+                        drop index transactions_legacy_id_date;
+                    end if;
+                end $$""");
+        jdbc.execute("create unique index concurrently if not exists transactions_legacy_id_date on transactions (id, txn_date)");
+        Instant legacyBound = jdbc.queryForObject("select (regexp_match(pg_get_constraintdef(oid), '< ''([^'']+)''::'))[1]::timestamptz " +
+                "from pg_constraint where conrelid = 'transactions'::regclass and conname = 'transactions_legacy_bound'", Timestamp.class).toInstant();
+
+        // 2. the swap: catalog changes only
+        tx.executeWithoutResult(s -> {
+            setLocalLockTimeout();
+            jdbc.execute("lock table transactions in access exclusive mode");
+            if (isPartitioned()) return; // another instance got here first
+            List<String> foreignKeys = jdbc.queryForList("select quote_ident(conname) || ' ' || pg_get_constraintdef(oid) " +
+                    "from pg_constraint where conrelid = 'transactions'::regclass and contype = 'f'", String.class);
+            String primaryKey = jdbc.query("select conname from pg_constraint where conrelid = 'transactions'::regclass and contype = 'p'",
+                    rs -> rs.next() ? rs.getString(1) : null);
+            jdbc.execute("alter table transactions rename to " + LEGACY);
+            jdbc.execute("alter index if exists idx_txn_account_date_id rename to transactions_legacy_account_date_id");
+            // uses the validated CHECK instead of scanning
+            jdbc.execute("alter table " + LEGACY + " alter column txn_date set not null");
+            // a partitioned key must contain the partition column. The attach below only adopts an index that
+            // already backs a key, so the (id, txn_date) index becomes the legacy table's primary key first.
+            if (primaryKey != null) jdbc.execute("alter table " + LEGACY + " drop constraint " + quote(primaryKey));
+            jdbc.execute("alter table " + LEGACY + " add constraint transactions_legacy_pkey primary key using index transactions_legacy_id_date");
+
+            jdbc.execute("create table transactions (like " + LEGACY + " including defaults) partition by range (txn_date)");
+            jdbc.execute("alter table transactions add constraint transactions_pkey primary key (id, txn_date)");
+            jdbc.execute("create index idx_txn_account_date_id on transactions (account_id, txn_date desc, id desc)");
+            for (String fk : foreignKeys) jdbc.execute("alter table transactions add constraint " + fk);
+            jdbc.execute("alter table transactions attach partition " + LEGACY + " for values from (minvalue) to ('" + legacyBound + "')");
+        });
+        log.info("transactions is partitioned");
+    }
+
+    private void setLocalLockTimeout() {
+        jdbc.execute("set local lock_timeout = '" + lockTimeout.toMillis() + "ms'");
+    }
+
+    private String quote(String identifier) {
+        return jdbc.queryForObject("select quote_ident(?)", String.class, identifier);
+    }
+}
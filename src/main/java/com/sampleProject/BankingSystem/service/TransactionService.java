@@ -3,33 +3,134 @@ package com.sampleProject.BankingSystem.service;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.sampleProject.BankingSystem.dto.AccountDtos;
 import com.sampleProject.BankingSystem.model.Account;
 import com.sampleProject.BankingSystem.model.BankTransaction;
 import com.sampleProject.BankingSystem.repository.BankTransactionRepository;
 
+import org.springframework.data.domain.Limit;
+
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 public class TransactionService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final BankTransactionRepository transactionRepository;
+    private final ArchiveStore archiveStore;
 
-    public TransactionService(BankTransactionRepository transactionRepository) {
+    public TransactionService(BankTransactionRepository transactionRepository, ArchiveStore archiveStore) {
         this.transactionRepository = transactionRepository;
+        this.archiveStore = archiveStore;
     }
 
     @Transactional
     public BankTransaction record(Account account, BigDecimal amount, String type, String note) {
+        return transactionRepository.save(entry(account, amount, type, note));
+    }
+
+    /** Saves many ledger rows in one call so Hibernate can send them as a single JDBC batch. */
+    @Transactional
+    public List<BankTransaction> recordAll(List<BankTransaction> entries) {
+        return transactionRepository.saveAll(entries);
+    }
+
+    /**
+     * A ledger row for an amount already applied to the account, so the account's balance is the balance after it.
+     * Hot accounts get no balanceAfter: their slot deposits run without the account row lock.
+     */
+    public static BankTransaction entry(Account account, BigDecimal amount, String type, String note) {
         BankTransaction txn = new BankTransaction();
         txn.setAccount(account);
         txn.setAmount(amount);
         txn.setTxnType(type);
         txn.setNote(note);
-        return transactionRepository.save(txn);
+        if (!account.isHot()) txn.setBalanceAfter(account.getBalance());
+        return txn;
+    }
+
+    public static boolean isDebit(String type) {
+        return "WITHDRAWAL".equals(type) || "TRANSFER_OUT".equals(type);
+    }
+
+    /**
+     * Balance right after the last transaction at or before the given time: the newest row with a running
+     * balance, plus any rows after it that have none. For an account that never went hot and is backfilled, that
+     * second sum is over an empty range. Without such a row in the ledger, the archive supplies the balance the
+     * ledger starts from.
+     */
+    @Transactional(readOnly = true)
+    public BigDecimal balanceAt(Long accountId, Instant at) {
+        List<BankTransaction> anchor = transactionRepository.findLatestWithBalanceAt(accountId, at, Limit.of(1));
+        if (anchor.isEmpty()) {
+            Instant horizon = archiveStore.horizon();
+            if (horizon == null) return transactionRepository.sumWithoutBalanceBetween(accountId, Instant.EPOCH, 0L, at);
+            // rows below the horizon are the archive's, even while an archive run is still removing them
+            return archiveStore.balanceAt(accountId, at).add(transactionRepository.sumWithoutBalanceBetween(accountId, horizon, 0L, at));
+        }
+        BankTransaction row = anchor.get(0);
+        return row.getBalanceAfter().add(transactionRepository.sumWithoutBalanceBetween(accountId, row.getTxnDate(), row.getId(), at));
+    }
+
+    /** One page of history, newest first. nextCursor is null on the last page. */
+    public record Page(List<AccountDtos.TransactionResponse> items, String nextCursor) {}
+
+    /**
+     * Keyset pagination on (txn_date, id): the cursor carries the last row of the previous page, so
+     * every page is a bounded index range scan no matter how deep into the history it is. A page the ledger cannot
+     * fill continues into the archive, which only holds rows older than any in the ledger.
+     */
+    public Page list(Long accountId, String cursor, Integer limit) {
+        int size = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (size < 1 || size > MAX_PAGE_SIZE) throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        // one extra row tells us whether another page exists
+        Limit fetch = Limit.of(size + 1);
+        List<AccountDtos.TransactionResponse> rows;
+        Instant beforeDate = null;
+        Long beforeId = null;
+        if (cursor == null || cursor.isBlank()) {
+            rows = transactionRepository.findFirstPage(accountId, fetch);
+        } else {
+            String[] key = decodeCursor(cursor);
+            beforeDate = Instant.parse(key[0]);
+            beforeId = Long.valueOf(key[1]);
+            rows = transactionRepository.findPageBefore(accountId, beforeDate, beforeId, fetch);
+        }
+        if (rows.size() <= size && archiveStore.horizon() != null) {
+            if (!rows.isEmpty()) {
+                AccountDtos.TransactionResponse last = rows.get(rows.size() - 1);
+                beforeDate = last.txnDate;
+                beforeId = last.id;
+            }
+            rows = new ArrayList<>(rows);
+            rows.addAll(archiveStore.history(accountId, beforeDate, beforeId, size + 1 - rows.size()));
+        }
+        if (rows.size() <= size) return new Page(rows, null);
+        List<AccountDtos.TransactionResponse> items = rows.subList(0, size);
+        AccountDtos.TransactionResponse last = items.get(size - 1);
+        return new Page(items, encodeCursor(last.txnDate, last.id));
+    }
+
+    static String encodeCursor(Instant txnDate, Long id) {
+        String raw = txnDate + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
-    public List<com.sampleProject.BankingSystem.model.BankTransaction> list(Long accountId) {
-        return transactionRepository.findByAccount_IdOrderByTxnDateDesc(accountId);
+    static String[] decodeCursor(String cursor) {
+        try {
+            String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 2);
+            Instant.parse(key[0]);
+            Long.parseLong(key[1]);
+            return key;
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
     }
 }
 
@@ -0,0 +1,8 @@
+-- accounts and transactions moved from IDENTITY columns to pooled sequences (allocationSize 50).
+-- On a database that already has rows, move each sequence past the highest id so the first pooled
+-- block cannot overlap existing ids. Once aligned, max(id) never exceeds last_value and these are no-ops.
+SELECT setval('accounts_seq', (SELECT MAX(id) FROM accounts))
+WHERE (SELECT MAX(id) FROM accounts) > (SELECT last_value FROM accounts_seq);
+
+SELECT setval('transactions_seq', (SELECT MAX(id) FROM transactions))
+WHERE (SELECT MAX(id) FROM transactions) > (SELECT last_value FROM transactions_seq);
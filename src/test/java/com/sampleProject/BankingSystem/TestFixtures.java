@@ -0,0 +1,93 @@
+package com.sampleProject.BankingSystem;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.sampleProject.BankingSystem.dto.AccountDtos;
+import com.sampleProject.BankingSystem.dto.CustomerDtos;
+import com.sampleProject.BankingSystem.model.Account;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.model.BankTransaction;
+import com.sampleProject.BankingSystem.model.Customer;
+import com.sampleProject.BankingSystem.repository.BankTransactionRepository;
+import com.sampleProject.BankingSystem.service.AccountService;
+import com.sampleProject.BankingSystem.service.CustomerService;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Customers and accounts for @SpringBootTest classes, created through the services like a client would. Picked up by
+ * the application's component scan, so tests only need to autowire it. Emails are unique per call: test classes
+ * that share the default context also share its database.
+ */
+@Component
+public class TestFixtures {
+    public static final String PASSWORD = "Abc123";
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private final CustomerService customerService;
+    private final AccountService accountService;
+    private final BankTransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public TestFixtures(CustomerService customerService, AccountService accountService,
+                        BankTransactionRepository transactionRepository, PlatformTransactionManager transactionManager) {
+        this.customerService = customerService;
+        this.accountService = accountService;
+        this.transactionRepository = transactionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public static String uniqueEmail() {
+        return "customer-" + System.nanoTime() + "-" + SEQUENCE.incrementAndGet() + "@test.com";
+    }
+
+    public Customer customer() {
+        return customer(uniqueEmail());
+    }
+
+    /** An adult customer with the given email and {@link #PASSWORD}. */
+    public Customer customer(String email) {
+        CustomerDtos.CreateCustomerRequest c = new CustomerDtos.CreateCustomerRequest();
+        c.setFirstName("Test");
+        c.setEmail(email);
+        c.setPhone("1234567890");
+        c.setDob(LocalDate.of(1990, 1, 1));
+        c.setPassword(PASSWORD);
+        return customerService.createCustomer(c);
+    }
+
+    /** A null opening balance opens the account empty. */
+    public Account account(Long customerId, AccountType type, String openingBalance) {
+        return account(customerId, type, openingBalance, null);
+    }
+
+    /** Only CURRENT accounts may use an overdraft limit, but any type can be given one. */
+    public Account account(Long customerId, AccountType type, String openingBalance, String overdraftLimit) {
+        AccountDtos.CreateAccountRequest a = new AccountDtos.CreateAccountRequest();
+        a.customerId = customerId;
+        a.accountType = type;
+        a.openingBalance = openingBalance == null ? null : new BigDecimal(openingBalance);
+        a.overdraftLimit = overdraftLimit == null ? null : new BigDecimal(overdraftLimit);
+        return accountService.createAccount(a);
+    }
+
+    /** A new customer with one account; the customer is {@code getCustomer()}. */
+    public Account customerWithAccount(AccountType type, String openingBalance) {
+        return account(customer().getId(), type, openingBalance);
+    }
+
+    /** Every ledger row of an account, oldest first; detached, so a test can change and save them. */
+    public List<BankTransaction> ledger(Long accountId) {
+        return transactionTemplate.execute(status -> {
+            try (Stream<BankTransaction> rows = transactionRepository.streamLedger(accountId)) {
+                return rows.toList();
+            }
+        });
+    }
+}
@@ -0,0 +1,73 @@
+package com.sampleProject.BankingSystem.archive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentTest {
+
+    @TempDir Path dir;
+
+    private static ArchivedTransaction row(long id, long accountId, long second) {
+        boolean odd = id % 2 == 1;
+        return new ArchivedTransaction(id, accountId, odd ? "DEPOSIT" : "WITHDRAWAL", new BigDecimal(id + ".25"),
+                Instant.ofEpochSecond(1_580_000_000L + second, 123_000), odd ? "note, \"" + id + "\"" : null,
+                odd ? new BigDecimal("-" + id + ".5") : null);
+    }
+
+    @Test
+    @DisplayName("rows read back exactly, per account across block boundaries, and in file order")
+    void roundTrip() throws IOException {
+        List<ArchivedTransaction> written = new ArrayList<>();
+        long id = 1;
+        for (long account = 10; account <= 50; account += 10) {
+            for (int i = 0; i < 40 * (account / 10); i++) written.add(row(id++, account, i));
+        }
+        Path file = dir.resolve("s.seg");
+        try (SegmentWriter writer = new SegmentWriter(file, 1024)) {
+            for (ArchivedTransaction r : written) writer.append(r);
+            assertEquals(written.size(), writer.rows());
+        }
+
+        Segment segment = Segment.open(file);
+        assertEquals(written.size(), segment.rows());
+        assertTrue(segment.blocks() > 5, "small blocks split the file");
+        for (long account = 10; account <= 50; account += 10) {
+            long a = account;
+            assertEquals(written.stream().filter(r -> r.accountId() == a).toList(), segment.rows(account));
+        }
+        assertEquals(List.of(), segment.rows(15));
+        assertEquals(List.of(), segment.rows(5));
+        assertEquals(List.of(), segment.rows(60));
+        List<ArchivedTransaction> all = new ArrayList<>();
+        segment.forEach(all::add);
+        assertEquals(written, all);
+    }
+
+    @Test
+    @DisplayName("out-of-order rows are refused and a damaged file is not opened")
+    void rejectsBadInput() throws IOException {
+        Path file = dir.resolve("bad.seg");
+        try (SegmentWriter writer = new SegmentWriter(file, 1024)) {
+            writer.append(row(2, 10, 5));
+            assertThrows(IllegalArgumentException.class, () -> writer.append(row(1, 10, 5)));
+            assertThrows(IllegalArgumentException.class, () -> writer.append(row(3, 9, 6)));
+        }
+        assertEquals(1, Segment.open(file).rows());
+
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> Segment.open(file));
+    }
+}
@@ -0,0 +1,80 @@
+package com.sampleProject.BankingSystem.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.model.Account;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.service.AccountService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Contention benchmark for hot-account mode: many threads deposit into the same account,
+ * first through the account row lock, then spread over 1, 4, 16 and 64 slots.
+ * Run with: mvn -Pbenchmark test -Dtest=HotAccountDepositBenchmark
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("bench")
+@Tag("benchmark")
+class HotAccountDepositBenchmark {
+    private static final int THREADS = 16;
+    private static final int DEPOSITS_PER_THREAD = 50;
+
+    @Autowired AccountService accountService;
+    @Autowired TestFixtures fixtures;
+
+    @Test
+    void depositsPerSecondBySlotCount() throws Exception {
+        Long customerId = fixtures.customer().getId();
+        run(customerId, 0); // warm-up
+        System.out.printf("%n%-8s %12s %10s%n", "slots", "deposits/s", "millis");
+        for (int slots : new int[]{0, 1, 4, 16, 64}) {
+            Result r = run(customerId, slots);
+            System.out.printf("%-8s %12.0f %10d%n", slots == 0 ? "row-lock" : slots, r.perSecond(), r.millis);
+        }
+    }
+
+    private Result run(Long customerId, int slots) throws Exception {
+        Long accountId = fixtures.account(customerId, AccountType.CURRENT, null).getId();
+        if (slots > 0) accountService.enableHotMode(accountId, slots);
+
+        BigDecimal amount = new BigDecimal("1.00");
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < DEPOSITS_PER_THREAD; i++) accountService.deposit(accountId, amount, "bench");
+                return null;
+            }));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : futures) f.get();
+        long millis = (System.nanoTime() - began) / 1_000_000;
+        pool.shutdown();
+
+        Account acc = accountService.getAccount(accountId);
+        int total = THREADS * DEPOSITS_PER_THREAD;
+        assertEquals(0, new BigDecimal(total).compareTo(acc.getTotalBalance()), "every deposit must be accounted for");
+        return new Result(total, Math.max(millis, 1));
+    }
+
+    private record Result(int operations, long millis) {
+        double perSecond() { return operations * 1000.0 / millis; }
+    }
+}
@@ -0,0 +1,120 @@
+package com.sampleProject.BankingSystem.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.service.AccountService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pessimistic vs optimistic row locking as contention rises. The same number of threads transfer between
+ * random pairs drawn from a shrinking pool of accounts. CURRENT accounts are configured PESSIMISTIC and
+ * SAVINGS accounts OPTIMISTIC, so both modes run in one context over the same simulated round trip.
+ * Run with: mvn -Pbenchmark test -Dtest=LockingModeCrossoverBenchmark
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("bench")
+@Tag("benchmark")
+@TestPropertySource(properties = {"banking.locking.current=PESSIMISTIC", "banking.locking.savings=OPTIMISTIC",
+        "banking.locking.max-attempts=10"})
+class LockingModeCrossoverBenchmark {
+    private static final int THREADS = Integer.getInteger("bench.threads", 16);
+    private static final int TRANSFERS_PER_THREAD = Integer.getInteger("bench.transfers.per.thread", 25);
+    private static final BigDecimal OPENING = new BigDecimal("1000000.00");
+
+    @Autowired AccountService accountService;
+    @Autowired TestFixtures fixtures;
+    @Autowired MeterRegistry registry;
+
+    @Test
+    void throughputByContention() throws Exception {
+        Long customerId = fixtures.customer().getId();
+        run(customerId, AccountType.CURRENT, 64); // warm-up
+        run(customerId, AccountType.SAVINGS, 64);
+        System.out.printf("%n%-9s %22s %39s%n", "", "--- pessimistic ---", "----------- optimistic -----------");
+        System.out.printf("%-9s %11s %10s %11s %10s %8s %7s %s%n",
+                "accounts", "transfers/s", "p99 ms", "transfers/s", "p99 ms", "retries", "failed", "faster");
+        for (int accounts : new int[]{1024, 256, 64, 16, 4, 2}) {
+            Result p = run(customerId, AccountType.CURRENT, accounts);
+            Result o = run(customerId, AccountType.SAVINGS, accounts);
+            System.out.printf("%-9d %11.0f %10d %11.0f %10d %8.0f %7d %s%n", accounts,
+                    p.perSecond(), p.p99, o.perSecond(), o.p99, o.retries, o.failed,
+                    o.perSecond() > p.perSecond() ? "optimistic" : "pessimistic");
+        }
+    }
+
+    private Result run(Long customerId, AccountType type, int accounts) throws Exception {
+        List<Long> ids = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) ids.add(openAccount(customerId, type));
+        double retriesBefore = retries();
+        AtomicInteger failed = new AtomicInteger();
+        int total = THREADS * TRANSFERS_PER_THREAD;
+        long[] latencies = new long[total];
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            futures.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = rnd.nextInt(accounts);
+                    int to = (from + 1 + rnd.nextInt(accounts - 1)) % accounts;
+                    long began = System.nanoTime();
+                    try {
+                        accountService.transfer(ids.get(from), ids.get(to), new BigDecimal("1.00"), "bench");
+                    } catch (OptimisticLockingFailureException ex) {
+                        failed.incrementAndGet();
+                    }
+                    latencies[thread * TRANSFERS_PER_THREAD + i] = System.nanoTime() - began;
+                }
+                return null;
+            }));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : futures) f.get();
+        long millis = Math.max(1, (System.nanoTime() - began) / 1_000_000);
+        pool.shutdown();
+
+        BigDecimal sum = ids.stream().map(id -> accountService.getAccount(id).getTotalBalance()).reduce(BigDecimal.ZERO, BigDecimal::add);
+        assertEquals(0, OPENING.multiply(BigDecimal.valueOf(accounts)).compareTo(sum), "transfers must conserve money");
+        Arrays.sort(latencies);
+        return new Result(total - failed.get(), millis, latencies[(int) (total * 0.99)] / 1_000_000,
+                retries() - retriesBefore, failed.get());
+    }
+
+    private double retries() {
+        return registry.get("banking.lock.conflicts").tag("outcome", "retried").counter().count();
+    }
+
+    private Long openAccount(Long customerId, AccountType type) {
+        return fixtures.account(customerId, type, OPENING.toPlainString()).getId();
+    }
+
+    private record Result(int transfers, long millis, long p99, double retries, int failed) {
+        double perSecond() { return transfers * 1000.0 / millis; }
+    }
+}
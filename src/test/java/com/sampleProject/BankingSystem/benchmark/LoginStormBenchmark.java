@@ -0,0 +1,121 @@
+package com.sampleProject.BankingSystem.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.service.AccountService;
+import com.sampleProject.BankingSystem.service.CustomerService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transfer latency while logins hammer the CPU. Each phase runs -Dbench.transfer.threads (default 8)
+ * transfer loops for -Dbench.seconds (default 5), next to -Dbench.login.threads (default 32) login loops:
+ * <ul>
+ *   <li>idle: no logins</li>
+ *   <li>pool: CustomerService.authenticate, hashing on PasswordHasher's bounded pool</li>
+ *   <li>inline: the same BCrypt check run on the login threads themselves, as an unbounded service would</li>
+ * </ul>
+ * Run with: mvn -Pbenchmark test -Dtest=LoginStormBenchmark
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("bench")
+@Tag("benchmark")
+class LoginStormBenchmark {
+    private static final int TRANSFER_THREADS = Integer.getInteger("bench.transfer.threads", 8);
+    private static final int LOGIN_THREADS = Integer.getInteger("bench.login.threads", 32);
+    private static final long SECONDS = Long.getLong("bench.seconds", 5L);
+    private static final int ACCOUNTS = 64;
+    private static final String PASSWORD = TestFixtures.PASSWORD;
+
+    @Autowired AccountService accountService;
+    @Autowired TestFixtures fixtures;
+    @Autowired CustomerService customerService;
+
+    private enum Storm { IDLE, POOL, INLINE }
+
+    @Test
+    void transferLatencyDuringLoginStorm() throws Exception {
+        String email = "storm-" + System.nanoTime() + "@bench.test";
+        List<Long> accounts = openAccounts(fixtures.customer(email).getId());
+        // the stored hash, for the inline phase
+        String hash = new BCryptPasswordEncoder(10).encode(PASSWORD);
+        run(accounts, email, hash, Storm.POOL); // warm-up
+        System.out.printf("%n%-7s %11s %8s %8s %9s %10s%n", "storm", "transfers/s", "p50 ms", "p99 ms", "logins/s", "refused/s");
+        for (Storm storm : Storm.values()) {
+            Result r = run(accounts, email, hash, storm);
+            System.out.printf("%-7s %11.0f %8.1f %8.1f %9.0f %10.0f%n", storm.name().toLowerCase(),
+                    r.transfers / (double) SECONDS, r.p50 / 1e6, r.p99 / 1e6, r.logins / (double) SECONDS, r.refused / (double) SECONDS);
+        }
+    }
+
+    private Result run(List<Long> accounts, String email, String hash, Storm storm) throws Exception {
+        long deadline = System.nanoTime() + SECONDS * 1_000_000_000L;
+        AtomicLong logins = new AtomicLong();
+        AtomicLong refused = new AtomicLong();
+        BCryptPasswordEncoder inline = new BCryptPasswordEncoder(10);
+        int loginThreads = storm == Storm.IDLE ? 0 : LOGIN_THREADS;
+        ExecutorService pool = Executors.newFixedThreadPool(TRANSFER_THREADS + loginThreads);
+        List<Future<List<Long>>> transfers = new ArrayList<>();
+        List<Future<?>> loginLoops = new ArrayList<>();
+        for (int t = 0; t < loginThreads; t++) {
+            loginLoops.add(pool.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        if (storm == Storm.POOL) customerService.authenticate(email, PASSWORD);
+                        else inline.matches(PASSWORD, hash);
+                        logins.incrementAndGet();
+                    } catch (RejectedExecutionException ex) {
+                        refused.incrementAndGet();
+                        Thread.sleep(1); // a client honouring Retry-After would wait far longer
+                    }
+                }
+                return null;
+            }));
+        }
+        for (int t = 0; t < TRANSFER_THREADS; t++) {
+            transfers.add(pool.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int from = rnd.nextInt(accounts.size());
+                    int to = (from + 1 + rnd.nextInt(accounts.size() - 1)) % accounts.size();
+                    long began = System.nanoTime();
+                    accountService.transfer(accounts.get(from), accounts.get(to), new BigDecimal("1.00"), "bench");
+                    latencies.add(System.nanoTime() - began);
+                }
+                return latencies;
+            }));
+        }
+        List<Long> all = new ArrayList<>();
+        for (Future<List<Long>> f : transfers) all.addAll(f.get());
+        for (Future<?> f : loginLoops) f.get();
+        pool.shutdown();
+        long[] sorted = all.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return new Result(sorted.length, sorted[sorted.length / 2], sorted[(int) (sorted.length * 0.99)], logins.get(), refused.get());
+    }
+
+    private List<Long> openAccounts(Long customerId) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) ids.add(fixtures.account(customerId, AccountType.SAVINGS, "1000000.00").getId());
+        return ids;
+    }
+
+    private record Result(int transfers, long p50, long p99, long logins, long refused) {}
+}
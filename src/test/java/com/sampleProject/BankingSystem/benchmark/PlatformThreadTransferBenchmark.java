@@ -0,0 +1,100 @@
+package com.sampleProject.BankingSystem.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.service.AccountService;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Request-per-thread load test: a burst of concurrent requests, each spending -Dbench.io.millis
+ * (default 250) on non-database I/O (an upstream call) and then either reading a balance or, for
+ * one request in -Dbench.transfer.every (default 10), making a transfer. This run
+ * uses a Tomcat-sized pool of 200 platform threads; VirtualThreadTransferBenchmark runs the same
+ * burst on one virtual thread per request with the connection admission semaphore, against the
+ * same Hikari pool size.
+ * Run with: mvn -Pbenchmark test -Dtest='*ThreadTransferBenchmark'
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("bench")
+@Tag("benchmark")
+class PlatformThreadTransferBenchmark {
+    static final int PLATFORM_THREADS = 200;
+    private static final int ACCOUNTS = 256;
+    private static final int REQUESTS = 4000;
+    private static final long IO_MILLIS = Long.getLong("bench.io.millis", 250L);
+    private static final int TRANSFER_EVERY = Integer.getInteger("bench.transfer.every", 10);
+
+    @Autowired AccountService accountService;
+    @Autowired TestFixtures fixtures;
+    @Autowired DataSource dataSource;
+
+    String label() { return "platform"; }
+
+    ExecutorService requestExecutor() { return Executors.newFixedThreadPool(PLATFORM_THREADS); }
+
+    @Test
+    void throughputAndTailLatency() throws Exception {
+        List<Long> accounts = openAccounts();
+        burst(accounts, REQUESTS); // warm-up: JIT, H2 pages and the balance cache
+        Result r = burst(accounts, REQUESTS);
+        System.out.printf("%n%-9s %s requests=%d io=%dms transfer-every=%d requests/s=%.0f p50=%dms p99=%dms max=%dms%n",
+                label(), dataSource.getClass().getSimpleName(), REQUESTS, IO_MILLIS, TRANSFER_EVERY, r.perSecond(), r.p50, r.p99, r.max);
+    }
+
+    private Result burst(List<Long> accounts, int requests) throws Exception {
+        long[] latencies = new long[requests];
+        List<Future<?>> futures = new ArrayList<>(requests);
+        long began = System.nanoTime();
+        try (ExecutorService pool = requestExecutor()) {
+            for (int i = 0; i < requests; i++) {
+                int n = i;
+                long submitted = System.nanoTime();
+                futures.add(pool.submit(() -> {
+                    Thread.sleep(IO_MILLIS);
+                    if (n % TRANSFER_EVERY == 0) transferRandom(accounts);
+                    else accountService.getBalance(accounts.get(n % accounts.size()));
+                    latencies[n] = System.nanoTime() - submitted;
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+        }
+        long millis = Math.max(1, (System.nanoTime() - began) / 1_000_000);
+        Arrays.sort(latencies);
+        return new Result(requests, millis, latencies[requests / 2] / 1_000_000,
+                latencies[(int) (requests * 0.99)] / 1_000_000, latencies[requests - 1] / 1_000_000);
+    }
+
+    private void transferRandom(List<Long> accounts) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int from = rnd.nextInt(accounts.size());
+        int to = (from + 1 + rnd.nextInt(accounts.size() - 1)) % accounts.size();
+        accountService.transfer(accounts.get(from), accounts.get(to), new BigDecimal("1.00"), "bench");
+    }
+
+    private List<Long> openAccounts() {
+        Long customerId = fixtures.customer().getId();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) ids.add(fixtures.account(customerId, AccountType.SAVINGS, "1000000.00").getId());
+        return ids;
+    }
+
+    private record Result(int requests, long millis, long p50, long p99, long max) {
+        double perSecond() { return requests * 1000.0 / millis; }
+    }
+}
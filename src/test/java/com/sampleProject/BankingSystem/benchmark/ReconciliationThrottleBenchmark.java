@@ -0,0 +1,150 @@
+package com.sampleProject.BankingSystem.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.dto.ReconciliationDtos;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.model.ReconciliationRun;
+import com.sampleProject.BankingSystem.repository.AccountRepository;
+import com.sampleProject.BankingSystem.repository.ArchivedBalanceRepository;
+import com.sampleProject.BankingSystem.repository.BankTransactionRepository;
+import com.sampleProject.BankingSystem.repository.ReconciliationMismatchRepository;
+import com.sampleProject.BankingSystem.repository.ReconciliationRunRepository;
+import com.sampleProject.BankingSystem.service.AccountService;
+import com.sampleProject.BankingSystem.service.ReconciliationService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transfer latency while the ledger is reconciled over and over. Each phase runs -Dbench.transfer.threads
+ * (default 32, the bench pool size) transfer loops for -Dbench.seconds (default 5), next to:
+ * <ul>
+ *   <li>idle: no reconciliation</li>
+ *   <li>unthrottled: back-to-back runs, no rate limit and no waiting for the connection pool</li>
+ *   <li>throttled: the same with -Dbench.recon.rate accounts/s (default 20000) and a 50ms busy back-off</li>
+ * </ul>
+ * Run with: mvn -Pbenchmark test -Dtest=ReconciliationThrottleBenchmark
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("bench")
+@Tag("benchmark")
+class ReconciliationThrottleBenchmark {
+    private static final int TRANSFER_THREADS = Integer.getInteger("bench.transfer.threads", 32);
+    private static final long SECONDS = Long.getLong("bench.seconds", 5L);
+    private static final int ACCOUNTS = Integer.getInteger("bench.accounts", 2000);
+    private static final String RATE = System.getProperty("bench.recon.rate", "20000");
+
+    @Autowired AccountService accountService;
+    @Autowired TestFixtures fixtures;
+    @Autowired AccountRepository accountRepository;
+    @Autowired BankTransactionRepository transactionRepository;
+    @Autowired ArchivedBalanceRepository archivedBalanceRepository;
+    @Autowired ReconciliationRunRepository runRepository;
+    @Autowired ReconciliationMismatchRepository mismatchRepository;
+    @Autowired PlatformTransactionManager transactionManager;
+    @Autowired MeterRegistry registry;
+
+    private enum Mode { IDLE, UNTHROTTLED, THROTTLED }
+
+    @Test
+    void transferLatencyDuringReconciliation() throws Exception {
+        List<Long> accounts = openAccounts(fixtures.customer().getId());
+        run(accounts, Mode.UNTHROTTLED); // warm-up
+        System.out.printf("%n%-12s %11s %8s %8s %11s %7s%n", "recon", "transfers/s", "p50 ms", "p99 ms", "accounts/s", "pauses");
+        for (Mode mode : Mode.values()) {
+            Result r = run(accounts, mode);
+            System.out.printf("%-12s %11.0f %8.1f %8.1f %11.0f %7.0f%n", mode.name().toLowerCase(),
+                    r.transfers / (double) SECONDS, r.p50 / 1e6, r.p99 / 1e6, r.reconciled / (double) SECONDS, r.pauses);
+        }
+    }
+
+    private Result run(List<Long> accounts, Mode mode) throws Exception {
+        long deadline = System.nanoTime() + SECONDS * 1_000_000_000L;
+        double pausesBefore = pauses();
+        AtomicLong reconciled = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(TRANSFER_THREADS + 1);
+        Future<?> reconciler = pool.submit(() -> {
+            if (mode == Mode.IDLE) return null;
+            ReconciliationService service = reconciliationService(mode);
+            while (System.nanoTime() < deadline) {
+                ReconciliationDtos.RunResponse status = service.start();
+                while (ReconciliationRun.RUNNING.equals(status.status)) {
+                    Thread.sleep(10);
+                    status = service.status(status.id);
+                }
+                reconciled.addAndGet(status.accountsChecked);
+            }
+            return null;
+        });
+        List<Future<List<Long>>> transfers = new ArrayList<>();
+        for (int t = 0; t < TRANSFER_THREADS; t++) {
+            transfers.add(pool.submit(() -> {
+                List<Long> latencies = new ArrayList<>();
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    int from = rnd.nextInt(accounts.size());
+                    int to = (from + 1 + rnd.nextInt(accounts.size() - 1)) % accounts.size();
+                    long began = System.nanoTime();
+                    accountService.transfer(accounts.get(from), accounts.get(to), new BigDecimal("1.00"), "bench");
+                    latencies.add(System.nanoTime() - began);
+                }
+                return latencies;
+            }));
+        }
+        List<Long> all = new ArrayList<>();
+        for (Future<List<Long>> f : transfers) all.addAll(f.get());
+        reconciler.get();
+        pool.shutdown();
+        long[] sorted = all.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return new Result(sorted.length, sorted[sorted.length / 2], sorted[(int) (sorted.length * 0.99)],
+                reconciled.get(), pauses() - pausesBefore);
+    }
+
+    // a private instance per mode; the application's own bean keeps its configured throttle
+    private ReconciliationService reconciliationService(Mode mode) {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("banking.reconciliation.parallelism", "4")
+                .withProperty("banking.reconciliation.partition-size", "100")
+                .withProperty("banking.reconciliation.max-accounts-per-second", mode == Mode.THROTTLED ? RATE : "0")
+                .withProperty("banking.reconciliation.busy-backoff", mode == Mode.THROTTLED ? "50ms" : "0ms");
+        return new ReconciliationService(accountRepository, transactionRepository, archivedBalanceRepository, runRepository, mismatchRepository,
+                transactionManager, registry, env);
+    }
+
+    private double pauses() {
+        return registry.get("banking.reconciliation.pauses").counter().count();
+    }
+
+    // opened in parallel: one at a time costs several simulated round trips each
+    private List<Long> openAccounts(Long customerId) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<Long>> futures = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) {
+            futures.add(pool.submit(() -> fixtures.account(customerId, AccountType.CURRENT, "1000000.00").getId()));
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Future<Long> f : futures) ids.add(f.get());
+        pool.shutdown();
+        return Collections.unmodifiableList(ids);
+    }
+
+    private record Result(int transfers, long p50, long p99, long reconciled, double pauses) {}
+}
@@ -0,0 +1,29 @@
+package com.sampleProject.BankingSystem.benchmark;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Adds a fixed delay before every SQL statement so the in-process H2 database behaves like a
+ * Postgres server one network round trip away. Without it, lock hold times are pure CPU and
+ * contention effects disappear. Tune with -Dbench.rtt.micros (default 2000, 0 disables).
+ *
+ * Hibernate prepares a JDBC batch once, so the statement counter doubles as a round-trip counter.
+ */
+public class SimulatedLatencyStatementInspector implements StatementInspector {
+    private static final long RTT_NANOS = Long.getLong("bench.rtt.micros", 2000L) * 1_000L;
+    private static final AtomicLong STATEMENTS = new AtomicLong();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.incrementAndGet();
+        if (RTT_NANOS > 0) LockSupport.parkNanos(RTT_NANOS);
+        return sql;
+    }
+
+    public static long statementCount() {
+        return STATEMENTS.get();
+    }
+}
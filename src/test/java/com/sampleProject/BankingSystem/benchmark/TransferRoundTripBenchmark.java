@@ -0,0 +1,84 @@
+package com.sampleProject.BankingSystem.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.service.AccountService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Statements (round trips) per transfer and transfers per second with the application's
+ * JDBC batching settings. UnbatchedTransferRoundTripBenchmark runs the same workload with
+ * batching switched off for the before/after comparison.
+ * Run with: mvn -Pbenchmark test -Dtest='*TransferRoundTripBenchmark'
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("bench")
+@Tag("benchmark")
+class TransferRoundTripBenchmark {
+    private static final int ACCOUNTS = 64;
+    private static final int THREADS = 8;
+    private static final int TRANSFERS_PER_THREAD = 100;
+
+    @Autowired AccountService accountService;
+    @Autowired TestFixtures fixtures;
+
+    String label() { return "batched"; }
+
+    @Test
+    void statementsAndThroughputPerTransfer() throws Exception {
+        List<Long> accounts = openAccounts();
+        for (int i = 0; i < 300; i++) transferRandom(accounts); // warm-up
+
+        int sample = 50;
+        long before = SimulatedLatencyStatementInspector.statementCount();
+        for (int i = 0; i < sample; i++) transferRandom(accounts);
+        double perTransfer = (SimulatedLatencyStatementInspector.statementCount() - before) / (double) sample;
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) transferRandom(accounts);
+                return null;
+            }));
+        }
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> f : futures) f.get();
+        long millis = Math.max(1, (System.nanoTime() - began) / 1_000_000);
+        pool.shutdown();
+
+        System.out.printf("%n%-10s statements/transfer=%.2f transfers/s=%.0f (%d threads)%n",
+                label(), perTransfer, THREADS * TRANSFERS_PER_THREAD * 1000.0 / millis, THREADS);
+    }
+
+    private void transferRandom(List<Long> accounts) {
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int from = rnd.nextInt(accounts.size());
+        int to = (from + 1 + rnd.nextInt(accounts.size() - 1)) % accounts.size();
+        accountService.transfer(accounts.get(from), accounts.get(to), new BigDecimal("1.00"), "bench");
+    }
+
+    private List<Long> openAccounts() {
+        Long customerId = fixtures.customer().getId();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < ACCOUNTS; i++) ids.add(fixtures.account(customerId, AccountType.SAVINGS, "1000000.00").getId());
+        return ids;
+    }
+}
@@ -0,0 +1,14 @@
+package com.sampleProject.BankingSystem.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+/** The transfer workload with JDBC batching and statement ordering switched off. */
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=1",
+        "spring.jpa.properties.hibernate.order_inserts=false",
+        "spring.jpa.properties.hibernate.order_updates=false"
+})
+class UnbatchedTransferRoundTripBenchmark extends TransferRoundTripBenchmark {
+    @Override
+    String label() { return "unbatched"; }
+}
@@ -0,0 +1,16 @@
+package com.sampleProject.BankingSystem.benchmark;
+
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/** The request burst on one virtual thread per request, with the connection admission semaphore. */
+@TestPropertySource(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadTransferBenchmark extends PlatformThreadTransferBenchmark {
+    @Override
+    String label() { return "virtual"; }
+
+    @Override
+    ExecutorService requestExecutor() { return Executors.newVirtualThreadPerTaskExecutor(); }
+}
@@ -0,0 +1,36 @@
+package com.sampleProject.BankingSystem.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlDataSourceTest {
+
+    private static AdmissionControlDataSource admission(int permits) {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:admission;DB_CLOSE_DELAY=-1");
+        return new AdmissionControlDataSource(h2, permits, Duration.ofMillis(50));
+    }
+
+    @Test
+    @DisplayName("a permit is held until the connection is closed, and released only once")
+    void permitFollowsConnection() throws Exception {
+        AdmissionControlDataSource ds = admission(1);
+        Connection c = ds.getConnection();
+        assertEquals(0, ds.availablePermits());
+        assertThrows(SQLTransientConnectionException.class, ds::getConnection);
+        c.close();
+        c.close();
+        assertEquals(1, ds.availablePermits());
+        try (Connection again = ds.getConnection()) {
+            assertTrue(again.isValid(1));
+        }
+        assertEquals(1, ds.availablePermits());
+    }
+}
@@ -0,0 +1,134 @@
+package com.sampleProject.BankingSystem.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.model.Account;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.service.AccountService;
+import com.sampleProject.BankingSystem.service.SessionTokenService;
+
+import jakarta.servlet.http.Cookie;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+// the replica is a second in-process database that only changes when the test copies the primary into it
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-primary;DB_CLOSE_DELAY=-1",
+        "banking.replica.url=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "banking.replica.heartbeat-interval=PT1H"
+})
+class ReadReplicaRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:replica-copy;DB_CLOSE_DELAY=-1";
+
+    @Autowired MockMvc mockMvc;
+    @Autowired TestFixtures fixtures;
+    @Autowired DataSource dataSource;
+    @Autowired ReplicaLagMonitor monitor;
+    @Autowired AccountService accountService;
+    @Autowired SessionTokenService sessionTokenService;
+
+    // what replication would do, all at once
+    private void replicate() throws Exception {
+        Path script = Files.createTempFile("replica", ".sql");
+        try {
+            new JdbcTemplate(dataSource).execute("SCRIPT TO '" + script + "'");
+            try (Connection c = DriverManager.getConnection(REPLICA_URL, "sa", ""); Statement s = c.createStatement()) {
+                s.execute("DROP ALL OBJECTS");
+                s.execute("RUNSCRIPT FROM '" + script + "'");
+            }
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    private void assertBalance(Long id, String bearer, Cookie lastWrite, double expected) throws Exception {
+        var request = get("/api/v1/accounts/" + id);
+        if (bearer != null) request.header(HttpHeaders.AUTHORIZATION, bearer);
+        if (lastWrite != null) request.cookie(lastWrite);
+        mockMvc.perform(request).andExpect(status().isOk()).andExpect(jsonPath("$.balance").value(expected));
+    }
+
+    @Test
+    @DisplayName("GETs read the replica, except a client's own after a write and everyone's while it lags")
+    void routesReadsToReplica() throws Exception {
+        Account account = fixtures.customerWithAccount(AccountType.SAVINGS, "100.00");
+        Long id = account.getId();
+        String bearer = "Bearer " + sessionTokenService.issue(account.getCustomer().getId()).token();
+        ReplicaRoutingDataSource routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+
+        monitor.check();
+        assertFalse(routing.isReplicaUsable(), "no heartbeat on the replica yet");
+        assertBalance(id, null, null, 100.00);
+        replicate();
+        monitor.check();
+        assertTrue(routing.isReplicaUsable());
+
+        accountService.deposit(id, new BigDecimal("50.00"), null);
+        long replicaReads = routing.replicaReads.get();
+        assertBalance(id, null, null, 100.00);
+        assertBalance(id, bearer, null, 100.00);
+        mockMvc.perform(get("/api/v1/accounts/" + id + "/transactions")).andExpect(jsonPath("$.length()").value(1));
+        assertEquals(replicaReads + 3, routing.replicaReads.get());
+
+        Cookie lastWrite = mockMvc.perform(post("/api/v1/accounts/" + id + "/deposit").header(HttpHeaders.AUTHORIZATION, bearer)
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"amount\":10.00}"))
+                .andExpect(status().isOk()).andExpect(jsonPath("$.balance").value(160.00))
+                .andExpect(cookie().exists(ReplicaReadFilter.LAST_WRITE_COOKIE))
+                .andReturn().getResponse().getCookie(ReplicaReadFilter.LAST_WRITE_COOKIE);
+        long readYourWrites = routing.readYourWrites.get();
+        assertBalance(id, null, lastWrite, 160.00);
+        assertEquals(readYourWrites + 1, routing.readYourWrites.get());
+        // the server remembers nothing: the same customer without the cookie reads the replica
+        assertBalance(id, bearer, null, 100.00);
+        String anHourAgo = Long.toString(System.currentTimeMillis() - Duration.ofHours(1).toMillis());
+        assertBalance(id, null, new Cookie(ReplicaReadFilter.LAST_WRITE_COOKIE, anHourAgo), 100.00);
+        assertBalance(id, null, new Cookie(ReplicaReadFilter.LAST_WRITE_COOKIE, "soon"), 100.00);
+
+        // any other instance honours the cookie just the same
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/v1/accounts/" + id);
+        read.setCookies(lastWrite);
+        BigDecimal[] seen = new BigDecimal[1];
+        new ReplicaReadFilter(Duration.ofSeconds(5)).doFilter(read, new MockHttpServletResponse(),
+                (req, res) -> seen[0] = accountService.getAccountResponse(id).balance);
+        assertEquals(0, new BigDecimal("160.00").compareTo(seen[0]));
+
+        try (Connection conn = DriverManager.getConnection(REPLICA_URL, "sa", ""); Statement s = conn.createStatement()) {
+            s.executeUpdate("UPDATE replica_heartbeat SET beat_at = DATEADD('HOUR', -1, beat_at)");
+        }
+        monitor.check();
+        assertFalse(routing.isReplicaUsable());
+        long lagFallbacks = routing.lagFallbacks.get();
+        assertBalance(id, null, null, 160.00);
+        assertEquals(lagFallbacks + 1, routing.lagFallbacks.get());
+    }
+}
@@ -0,0 +1,74 @@
+package com.sampleProject.BankingSystem.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.service.AccountService;
+import com.sampleProject.BankingSystem.service.CustomerService;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class ServiceMetricsAspectTest {
+
+    @Autowired AccountService accountService;
+    @Autowired TestFixtures fixtures;
+    @Autowired CustomerService customerService;
+    @Autowired MeterRegistry registry;
+    @Autowired MockMvc mockMvc;
+
+    private double count(String name, String... tags) {
+        var timer = registry.find(name).tags(tags).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    @Test
+    @DisplayName("service calls are timed by operation and outcome, lock and ledger steps separately")
+    void timersByOutcome() {
+        Long id = fixtures.customerWithAccount(AccountType.SAVINGS, null).getId();
+
+        double deposits = count("banking.service", "operation", "deposit", "outcome", "success");
+        double insufficient = count("banking.service", "operation", "withdraw", "outcome", "insufficient_funds");
+        double notFound = count("banking.service", "service", "AccountService", "operation", "getAccount", "outcome", "not_found");
+        double locks = count("banking.lock.acquire", "repository", "AccountRepository", "operation", "findWithLockingById");
+        double records = count("banking.ledger.record", "operation", "record", "outcome", "success");
+
+        accountService.deposit(id, new BigDecimal("10.00"), null);
+        assertThrows(IllegalStateException.class, () -> accountService.withdraw(id, new BigDecimal("50.00"), null));
+        assertThrows(IllegalArgumentException.class, () -> accountService.getAccount(-1L));
+
+        assertEquals(deposits + 1, count("banking.service", "operation", "deposit", "outcome", "success"));
+        assertEquals(insufficient + 1, count("banking.service", "operation", "withdraw", "outcome", "insufficient_funds"));
+        assertEquals(notFound + 1, count("banking.service", "service", "AccountService", "operation", "getAccount", "outcome", "not_found"));
+        assertEquals(locks + 2, count("banking.lock.acquire", "repository", "AccountRepository", "operation", "findWithLockingById"));
+        assertEquals(records + 1, count("banking.ledger.record", "operation", "record", "outcome", "success"));
+    }
+
+    @Test
+    @DisplayName("GET /actuator/prometheus exposes the banking timers and Hikari pool gauges")
+    void prometheusEndpoint() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> customerService.getCustomer(-1L));
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("banking_service_seconds_count{")))
+                .andExpect(content().string(containsString("hikaricp_connections_active")));
+    }
+}
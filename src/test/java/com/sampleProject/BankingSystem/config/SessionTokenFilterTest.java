@@ -0,0 +1,61 @@
+package com.sampleProject.BankingSystem.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = "banking.session.required=true")
+class SessionTokenFilterTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired TestFixtures fixtures;
+    @Autowired ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("login issues a token the filter accepts; without it, or after logout, requests get 401")
+    void loginFilterLogout() throws Exception {
+        String email = TestFixtures.uniqueEmail();
+        Long id = fixtures.customer(email).getId();
+
+        String body = mockMvc.perform(post("/api/v1/auth/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\":\"" + email + "\",\"password\":\"" + TestFixtures.PASSWORD + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(id))
+                .andReturn().getResponse().getContentAsString();
+        JsonNode login = objectMapper.readTree(body);
+        String bearer = "Bearer " + login.get("token").asText();
+
+        mockMvc.perform(get("/api/v1/customers/" + id)).andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("unauthorized"));
+        mockMvc.perform(get("/api/v1/customers/" + id).header(HttpHeaders.AUTHORIZATION, bearer)).andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/customers/" + id).header(HttpHeaders.AUTHORIZATION, bearer + "x"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.error").value("invalid_token"));
+
+        mockMvc.perform(post("/api/v1/auth/logout").header(HttpHeaders.AUTHORIZATION, bearer)).andExpect(status().isNoContent());
+        mockMvc.perform(get("/api/v1/customers/" + id).header(HttpHeaders.AUTHORIZATION, bearer)).andExpect(status().isUnauthorized());
+        // logging out blindly: again, with a bad token, or with none
+        mockMvc.perform(post("/api/v1/auth/logout").header(HttpHeaders.AUTHORIZATION, bearer)).andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/v1/auth/logout").header(HttpHeaders.AUTHORIZATION, bearer + "x")).andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/v1/auth/logout")).andExpect(status().isNoContent());
+    }
+}
@@ -2,9 +2,16 @@ package com.sampleProject.BankingSystem.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.sampleProject.BankingSystem.controller.AccountController;
+import com.sampleProject.BankingSystem.dto.AccountDtos;
 import com.sampleProject.BankingSystem.model.*;
+import com.sampleProject.BankingSystem.service.AccountBatchService;
 import com.sampleProject.BankingSystem.service.AccountService;
+import com.sampleProject.BankingSystem.service.BalanceBackfillService;
+import com.sampleProject.BankingSystem.service.IdempotencyService;
+import com.sampleProject.BankingSystem.service.StatementExportService;
+import com.sampleProject.BankingSystem.service.TransactionService;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -12,12 +19,18 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.CannotAcquireLockException;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.sql.SQLException;
 import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -35,6 +48,16 @@ class AccountControllerTest {
     @Autowired ObjectMapper objectMapper;
 
     @MockBean AccountService accountService;
+    @MockBean AccountBatchService accountBatchService;
+    @MockBean StatementExportService statementExportService;
+    @MockBean IdempotencyService idempotencyService;
+    @MockBean BalanceBackfillService balanceBackfillService;
+
+    @BeforeEach
+    void runIdempotentActions() {
+        Mockito.when(idempotencyService.execute(any(), anyString(), any(), any(), any()))
+                .thenAnswer(inv -> inv.<Supplier<?>>getArgument(4).get());
+    }
 
     private Account sampleAccount(Long id, BigDecimal balance) {
         Account a = new Account();
@@ -54,7 +77,8 @@ class AccountControllerTest {
     @Test
     @DisplayName("GET /api/v1/accounts/{id} returns account")
     void getAccount_ok() throws Exception {
-        Mockito.when(accountService.getAccount(5L)).thenReturn(sampleAccount(5L, new BigDecimal("100.00")));
+        Mockito.when(accountService.getAccountResponse(5L)).thenReturn(new AccountDtos.AccountResponse(5L, "123456789012", 7L,
+                AccountType.SAVINGS, new BigDecimal("100.00"), Instant.now(), null, null, "ACTIVE"));
         mockMvc.perform(get("/api/v1/accounts/5"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(5)))
@@ -62,6 +86,47 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$.customerId", is(7)));
     }
 
+    @Test
+    @DisplayName("GET /api/v1/accounts/{id}/balance returns the balance")
+    void balance_ok() throws Exception {
+        AccountDtos.BalanceResponse b = new AccountDtos.BalanceResponse();
+        b.accountId = 5L;
+        b.balance = new BigDecimal("42.50");
+        Mockito.when(accountService.getBalance(5L)).thenReturn(b);
+        mockMvc.perform(get("/api/v1/accounts/5/balance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountId", is(5)))
+                .andExpect(jsonPath("$.balance", is(42.50)))
+                .andExpect(jsonPath("$.asOf").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/accounts/{id}/balance?at= returns the balance as of that time")
+    void balance_asOf() throws Exception {
+        Instant at = Instant.parse("2025-01-31T23:59:59Z");
+        AccountDtos.BalanceResponse b = new AccountDtos.BalanceResponse();
+        b.accountId = 5L;
+        b.balance = new BigDecimal("17.25");
+        b.asOf = at;
+        Mockito.when(accountService.getBalanceAt(5L, at)).thenReturn(b);
+        mockMvc.perform(get("/api/v1/accounts/5/balance").param("at", "2025-01-31T23:59:59Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance", is(17.25)))
+                .andExpect(jsonPath("$.asOf", is("2025-01-31T23:59:59Z")));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/accounts/{id}/deposit passes the Idempotency-Key header on")
+    void deposit_idempotencyKey() throws Exception {
+        Mockito.when(accountService.deposit(eq(5L), any(), any())).thenReturn(sampleAccount(5L, new BigDecimal("150.00")));
+        mockMvc.perform(post("/api/v1/accounts/5/deposit")
+                        .header("Idempotency-Key", "abc-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"amount\":50.00}"))
+                .andExpect(status().isOk());
+        Mockito.verify(idempotencyService).execute(eq("abc-1"), eq("deposit:5"), any(), eq(AccountDtos.AccountResponse.class), any());
+    }
+
     @Test
     @DisplayName("POST /api/v1/accounts creates account")
     void createAccount_ok() throws Exception {
@@ -103,4 +168,95 @@ class AccountControllerTest {
                 .andExpect(status().isConflict())
                 .andExpect(jsonPath("$.error", is("conflict")));
     }
+
+    @Test
+    @DisplayName("POST /api/v1/accounts/transfer that loses a deadlock returns 503")
+    void transfer_deadlock() throws Exception {
+        doThrow(new CannotAcquireLockException("could not lock", new SQLException("deadlock detected", "40P01")))
+                .when(accountService).transfer(5L, 6L, new BigDecimal("10.00"), null);
+        mockMvc.perform(post("/api/v1/accounts/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromAccountId\":5,\"toAccountId\":6,\"amount\":10.00}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.error", is("deadlock")));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/accounts/batch returns per-item results")
+    void batch_ok() throws Exception {
+        AccountDtos.BatchItemResult ok = new AccountDtos.BatchItemResult();
+        ok.index = 0;
+        ok.status = "APPLIED";
+        AccountDtos.BatchItemResult bad = new AccountDtos.BatchItemResult();
+        bad.index = 1;
+        bad.status = "FAILED";
+        bad.error = "Insufficient funds";
+        AccountDtos.BatchResponse resp = new AccountDtos.BatchResponse();
+        resp.mode = AccountDtos.BatchMode.PER_ITEM;
+        resp.committed = true;
+        resp.applied = 1;
+        resp.failed = 1;
+        resp.results = List.of(ok, bad);
+        Mockito.when(accountBatchService.apply(any())).thenReturn(resp);
+        String json = "{\"mode\":\"PER_ITEM\",\"operations\":[" +
+                "{\"type\":\"DEPOSIT\",\"accountId\":5,\"amount\":10.00}," +
+                "{\"type\":\"TRANSFER\",\"fromAccountId\":5,\"toAccountId\":6,\"amount\":999.00}]}";
+        mockMvc.perform(post("/api/v1/accounts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.committed", is(true)))
+                .andExpect(jsonPath("$.results[1].status", is("FAILED")))
+                .andExpect(jsonPath("$.results[1].error", is("Insufficient funds")));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/accounts/batch without operations returns 400")
+    void batch_empty() throws Exception {
+        mockMvc.perform(post("/api/v1/accounts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"operations\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("validation_error")));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/accounts/{id}/transactions returns a page and the next cursor header")
+    void transactions_paged() throws Exception {
+        AccountDtos.TransactionResponse t = new AccountDtos.TransactionResponse(41L, "DEPOSIT", new BigDecimal("10.00"),
+                Instant.parse("2025-10-01T10:40:15Z"), null);
+        Mockito.when(accountService.listTransactions(5L, null, 1)).thenReturn(new TransactionService.Page(List.of(t), "abc"));
+        mockMvc.perform(get("/api/v1/accounts/5/transactions").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "abc"))
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(41)));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/accounts/{id}/transactions last page has no cursor header")
+    void transactions_lastPage() throws Exception {
+        Mockito.when(accountService.listTransactions(5L, "abc", null)).thenReturn(new TransactionService.Page(List.of(), null));
+        mockMvc.perform(get("/api/v1/accounts/5/transactions").param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/accounts/{id}/statement streams CSV rows")
+    void statement_csv() throws Exception {
+        Mockito.when(statementExportService.export(eq(5L), any(), any(), eq(StatementExportService.Format.CSV), any())).thenAnswer(inv -> {
+            OutputStream out = inv.getArgument(4);
+            out.write("id,txnType,amount,txnDate,note\n1,DEPOSIT,10.00,2025-10-01T10:40:15Z,\n".getBytes());
+            return 1L;
+        });
+        MvcResult started = mockMvc.perform(get("/api/v1/accounts/5/statement").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", containsString("text/csv")))
+                .andExpect(content().string(containsString("1,DEPOSIT,10.00")));
+    }
 }
@@ -0,0 +1,136 @@
+package com.sampleProject.BankingSystem.controller;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.dto.CustomerDtos;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.model.Customer;
+import com.sampleProject.BankingSystem.service.AccountService;
+import com.sampleProject.BankingSystem.service.CustomerService;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * The account read endpoints are served by constructor projections: each request must cost exactly
+ * one SQL statement, however many accounts or transactions it returns. Customers come from the
+ * second-level cache once loaded.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class ReadQueryCountTest {
+
+    @Autowired MockMvc mockMvc;
+    @Autowired TestFixtures fixtures;
+    @Autowired AccountService accountService;
+    @Autowired CustomerService customerService;
+    @Autowired EntityManagerFactory entityManagerFactory;
+
+    Long customerId;
+    Long accountId;
+
+    @BeforeEach
+    void seed() {
+        customerId = fixtures.customer().getId();
+        for (int i = 0; i < 3; i++) {
+            accountId = fixtures.account(customerId, AccountType.CURRENT, null).getId();
+            for (int d = 0; d < 3; d++) accountService.deposit(accountId, new BigDecimal("10.00"), "seed");
+        }
+        accountService.enableHotMode(accountId, 2);
+        accountService.deposit(accountId, new BigDecimal("5.00"), "slot");
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/accounts/by-customer/{id} is one statement")
+    void accountsByCustomer() throws Exception {
+        Statistics stats = clearedStatistics();
+        mockMvc.perform(get("/api/v1/accounts/by-customer/" + customerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[2].balance", is(35.00)))
+                .andExpect(jsonPath("$[0].customerId", is(customerId.intValue())));
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/accounts/{id}/transactions is one statement")
+    void transactions() throws Exception {
+        Statistics stats = clearedStatistics();
+        mockMvc.perform(get("/api/v1/accounts/" + accountId + "/transactions"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(4)));
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/accounts/{id} is one statement")
+    void account() throws Exception {
+        Statistics stats = clearedStatistics();
+        mockMvc.perform(get("/api/v1/accounts/" + accountId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.customerId", is(customerId.intValue())));
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/customers/{id} is one statement, then served from the second-level cache")
+    void customer() throws Exception {
+        entityManagerFactory.getCache().evict(Customer.class);
+        Statistics stats = clearedStatistics();
+        long hits = customerService.cacheStats().getEntity().getHits();
+        mockMvc.perform(get("/api/v1/customers/" + customerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Test")));
+        assertEquals(1, stats.getPrepareStatementCount());
+        mockMvc.perform(get("/api/v1/customers/" + customerId))
+                .andExpect(status().isOk());
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(1, stats.getDomainDataRegionStatistics(Customer.CACHE_REGION).getHitCount());
+        // the stats endpoint reads Caffeine's counters, which agree
+        mockMvc.perform(get("/api/v1/customers/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.entity.hits").value((int) hits + 1))
+                .andExpect(jsonPath("$.entity.hitRate").isNumber());
+    }
+
+    @Test
+    @DisplayName("email lookups use the natural-id cache and follow an email change")
+    void customerByEmail() {
+        String email = customerService.getCustomer(customerId).getEmail();
+        customerService.findByEmail(email);
+        Statistics stats = clearedStatistics();
+        assertEquals(customerId, customerService.findByEmail(email).getId());
+        assertEquals(0, stats.getPrepareStatementCount());
+
+        CustomerDtos.UpdateProfileRequest req = new CustomerDtos.UpdateProfileRequest();
+        req.setFirstName("Query");
+        req.setEmail("renamed-" + email);
+        req.setPhone("1234567890");
+        customerService.updateProfile(customerId, req);
+        assertThrows(IllegalArgumentException.class, () -> customerService.findByEmail(email));
+        assertEquals(customerId, customerService.findByEmail("renamed-" + email).getId());
+    }
+
+    private Statistics clearedStatistics() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        return stats;
+    }
+}
@@ -0,0 +1,234 @@
+package com.sampleProject.BankingSystem.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.AfterAllCallback;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.model.BankTransaction;
+import com.sampleProject.BankingSystem.service.AccountLocking;
+import com.sampleProject.BankingSystem.service.AccountService;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The guarded statements are data-modifying CTEs, which H2 cannot run, so everywhere else in the suite
+ * GUARDED falls back to PESSIMISTIC. Here they run against an embedded PostgreSQL, started for this class and
+ * stopped once @DirtiesContext has closed the context and its pool.
+ */
+// declared before @SpringBootTest, so its afterAll runs after the SpringExtension's
+@ExtendWith(AccountGuardedUpdateRepositoryImplTest.StopPostgres.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "banking.locking.default=GUARDED")
+@DirtiesContext
+class AccountGuardedUpdateRepositoryImplTest {
+
+    static EmbeddedPostgres postgres;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) throws IOException {
+        if (postgres == null) postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    static class StopPostgres implements AfterAllCallback {
+        @Override
+        public void afterAll(ExtensionContext context) throws IOException {
+            if (postgres == null) return;
+            postgres.close();
+            postgres = null;
+        }
+    }
+
+    @Autowired AccountRepository accountRepository;
+    @Autowired TestFixtures fixtures;
+    @Autowired AccountService accountService;
+    @Autowired AccountLocking accountLocking;
+    @Autowired MeterRegistry registry;
+
+    private Long open(AccountType type, String opening, String overdraftLimit) {
+        return fixtures.account(fixtures.customer().getId(), type, opening, overdraftLimit).getId();
+    }
+
+    private BigDecimal balance(Long id) {
+        return accountRepository.findById(id).orElseThrow().getBalance();
+    }
+
+    private double count(String name, String... tags) {
+        var timer = registry.find(name).tags(tags).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> expected + " != " + actual);
+    }
+
+    @Test
+    @DisplayName("a debit moves the money, bumps the version and writes its ledger row in the same statement")
+    void debit() {
+        Long id = open(AccountType.CURRENT, "100.00", null);
+        long version = accountRepository.findById(id).orElseThrow().getVersion();
+        assertTrue(accountRepository.supportsGuardedUpdates());
+        assertEquals(AccountLocking.Mode.GUARDED, accountLocking.modeFor(id));
+
+        assertAmount("70.00", accountRepository.guardedDebit(id, new BigDecimal("30.00"), "WITHDRAWAL", "atm").orElseThrow());
+
+        assertAmount("70.00", balance(id));
+        assertEquals(version + 1, accountRepository.findById(id).orElseThrow().getVersion());
+        List<BankTransaction> ledger = fixtures.ledger(id);
+        assertEquals(2, ledger.size());
+        BankTransaction row = ledger.get(1);
+        assertEquals("WITHDRAWAL", row.getTxnType());
+        assertEquals("atm", row.getNote());
+        assertAmount("30.00", row.getAmount());
+        assertAmount("70.00", row.getBalanceAfter());
+        assertFalse(row.getTxnDate().isBefore(ledger.get(0).getTxnDate()));
+    }
+
+    @Test
+    @DisplayName("a transfer moves both balances and writes both ledger rows")
+    void transfer() {
+        Long from = open(AccountType.SAVINGS, "100.00", null);
+        Long to = open(AccountType.CURRENT, "5.00", null);
+
+        accountService.transfer(from, to, new BigDecimal("25.00"), "rent");
+
+        assertAmount("75.00", balance(from));
+        assertAmount("30.00", balance(to));
+        BankTransaction out = fixtures.ledger(from).get(1);
+        BankTransaction in = fixtures.ledger(to).get(1);
+        assertEquals("TRANSFER_OUT", out.getTxnType());
+        assertEquals("TRANSFER_IN", in.getTxnType());
+        assertEquals("rent", in.getNote());
+        assertAmount("75.00", out.getBalanceAfter());
+        assertAmount("30.00", in.getBalanceAfter());
+    }
+
+    @Test
+    @DisplayName("a SAVINGS account cannot use an overdraft limit; a CURRENT account can, up to the limit")
+    void overdraft() {
+        Long savings = open(AccountType.SAVINGS, "10.00", "100.00");
+        assertTrue(accountRepository.guardedDebit(savings, new BigDecimal("50.00"), "WITHDRAWAL", null).isEmpty());
+        assertThrows(IllegalStateException.class, () -> accountService.withdraw(savings, new BigDecimal("50.00"), null));
+        assertAmount("10.00", balance(savings));
+        assertEquals(1, fixtures.ledger(savings).size());
+
+        Long current = open(AccountType.CURRENT, "10.00", "100.00");
+        assertAmount("-40.00", accountRepository.guardedDebit(current, new BigDecimal("50.00"), "WITHDRAWAL", null).orElseThrow());
+        assertTrue(accountRepository.guardedDebit(current, new BigDecimal("60.01"), "WITHDRAWAL", null).isEmpty());
+        accountService.transfer(current, savings, new BigDecimal("60.00"), null);
+        assertAmount("-100.00", balance(current));
+        assertAmount("70.00", balance(savings));
+        assertAmount("-100.00", fixtures.ledger(current).get(2).getBalanceAfter());
+    }
+
+    @Test
+    @DisplayName("unknown accounts and insufficient funds change nothing, not even one side of a transfer")
+    void refused() {
+        Long id = open(AccountType.CURRENT, "10.00", null);
+        Long other = open(AccountType.CURRENT, "0.00", null);
+
+        assertTrue(accountRepository.guardedDebit(-1L, BigDecimal.ONE, "WITHDRAWAL", null).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> accountService.withdraw(-1L, BigDecimal.ONE, null));
+        // the debit side exists and has the funds: it must still roll back
+        assertThrows(IllegalArgumentException.class, () -> accountService.transfer(id, -1L, BigDecimal.ONE, null));
+        assertThrows(IllegalArgumentException.class, () -> accountService.transfer(-1L, id, BigDecimal.ONE, null));
+
+        assertTrue(accountRepository.guardedDebit(id, new BigDecimal("10.01"), "WITHDRAWAL", null).isEmpty());
+        assertThrows(IllegalStateException.class, () -> accountService.withdraw(id, new BigDecimal("10.01"), null));
+        assertThrows(IllegalStateException.class, () -> accountService.transfer(id, other, new BigDecimal("10.01"), null));
+
+        assertAmount("10.00", balance(id));
+        assertAmount("0.00", balance(other));
+        assertEquals(1, fixtures.ledger(id).size());
+        assertTrue(fixtures.ledger(other).isEmpty());
+    }
+
+    @Test
+    @DisplayName("opposing transfers between the same two accounts neither deadlock nor lose money")
+    void concurrentOpposingTransfers() throws Exception {
+        Long a = open(AccountType.CURRENT, "1000.00", null);
+        Long b = open(AccountType.SAVINGS, "1000.00", null);
+        int threads = 8;
+        int perThread = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            boolean forward = t % 2 == 0;
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    if (forward) accountService.transfer(a, b, new BigDecimal("3.00"), null);
+                    else accountService.transfer(b, a, new BigDecimal("1.00"), null);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        // four threads each way: a sends 4 * 25 * 3.00 and receives 4 * 25 * 1.00
+        assertAmount("800.00", balance(a));
+        assertAmount("1200.00", balance(b));
+        for (Long id : List.of(a, b)) {
+            List<BankTransaction> ledger = fixtures.ledger(id);
+            assertEquals(1 + threads * perThread, ledger.size());
+            // posting order matches balance order: each row's balance follows from the one before it
+            for (int i = 1; i < ledger.size(); i++) {
+                BankTransaction row = ledger.get(i);
+                BigDecimal delta = "TRANSFER_OUT".equals(row.getTxnType()) ? row.getAmount().negate() : row.getAmount();
+                assertAmount(ledger.get(i - 1).getBalanceAfter().add(delta).toPlainString(), row.getBalanceAfter());
+            }
+            assertAmount(balance(id).toPlainString(), ledger.get(ledger.size() - 1).getBalanceAfter());
+        }
+    }
+
+    @Test
+    @DisplayName("guarded statements are timed as both the lock and the ledger step")
+    void timed() {
+        Long from = open(AccountType.CURRENT, "100.00", null);
+        Long to = open(AccountType.CURRENT, "0.00", null);
+        String[] debit = {"repository", "AccountGuardedUpdateRepository", "operation", "guardedDebit", "outcome", "success"};
+        String[] transfer = {"repository", "AccountGuardedUpdateRepository", "operation", "guardedTransfer", "outcome", "success"};
+        double locks = count("banking.lock.acquire", debit);
+        double transferLocks = count("banking.lock.acquire", transfer);
+        double records = count("banking.ledger.record", "operation", "guardedDebit", "outcome", "success");
+        double transferRecords = count("banking.ledger.record", "operation", "guardedTransfer", "outcome", "success");
+
+        assertAmount("90.00", accountService.withdraw(from, new BigDecimal("10.00"), null).getBalance());
+        accountService.transfer(from, to, new BigDecimal("10.00"), null);
+
+        assertEquals(locks + 1, count("banking.lock.acquire", debit));
+        assertEquals(transferLocks + 1, count("banking.lock.acquire", transfer));
+        assertEquals(records + 1, count("banking.ledger.record", "operation", "guardedDebit", "outcome", "success"));
+        assertEquals(transferRecords + 1, count("banking.ledger.record", "operation", "guardedTransfer", "outcome", "success"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.sampleProject.BankingSystem.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.model.AccountType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"banking.locking.savings=OPTIMISTIC", "banking.locking.max-attempts=50"})
+class AccountLockingTest {
+
+    @Autowired AccountLocking accountLocking;
+    @Autowired AccountService accountService;
+    @Autowired TestFixtures fixtures;
+    @Autowired MeterRegistry registry;
+
+    private Long openAccount(AccountType type) {
+        return fixtures.customerWithAccount(type, null).getId();
+    }
+
+    @Test
+    @DisplayName("mode follows the per-type setting; a transfer is optimistic only if both sides are")
+    void modeByAccountType() {
+        Long savings = openAccount(AccountType.SAVINGS);
+        Long otherSavings = openAccount(AccountType.SAVINGS);
+        Long current = openAccount(AccountType.CURRENT);
+        assertEquals(AccountLocking.Mode.OPTIMISTIC, accountLocking.modeFor(savings));
+        assertEquals(AccountLocking.Mode.OPTIMISTIC, accountLocking.modeFor(savings, otherSavings));
+        assertEquals(AccountLocking.Mode.PESSIMISTIC, accountLocking.modeFor(current));
+        assertEquals(AccountLocking.Mode.PESSIMISTIC, accountLocking.modeFor(savings, current));
+    }
+
+    @Test
+    @DisplayName("concurrent optimistic deposits into one account retry on conflict and none is lost")
+    void concurrentDepositsRetry() throws Exception {
+        Long id = openAccount(AccountType.SAVINGS);
+        int threads = 8, perThread = 10;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) accountService.deposit(id, new BigDecimal("1.00"), null);
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+
+        assertEquals(0, new BigDecimal(threads * perThread).compareTo(accountService.getAccount(id).getTotalBalance()));
+        assertEquals(threads * perThread, accountService.listTransactions(id, null, 500).items().size());
+        assertTrue(registry.get("banking.lock.conflicts").tag("outcome", "retried").counter().count() > 0,
+                "eight writers on one row should collide at least once");
+    }
+}
@@ -0,0 +1,54 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sampleProject.BankingSystem.model.Account;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class AccountNumberGeneratorTest {
+
+    @Autowired AccountNumberGenerator generator;
+
+    @Test
+    @DisplayName("numbers are a zero-padded serial followed by a Luhn check digit")
+    void format() {
+        assertEquals(3, AccountNumberGenerator.luhnCheckDigit("7992739871"));
+        assertEquals("0000000012344", AccountNumberGenerator.format(1234));
+        String next = generator.next();
+        assertEquals(13, next.length());
+        assertEquals(next.charAt(12) - '0', AccountNumberGenerator.luhnCheckDigit(next.substring(0, 12)));
+    }
+
+    @Test
+    @DisplayName("concurrent callers never get the same number, across several blocks")
+    void uniqueUnderConcurrency() throws Exception {
+        int threads = 8;
+        int perThread = Account.NUMBER_BLOCK_SIZE / 2;
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < perThread; i++) assertTrue(seen.add(generator.next()));
+            }));
+        }
+        for (Future<?> f : futures) f.get();
+        pool.shutdown();
+        assertEquals(threads * perThread, seen.size());
+    }
+}
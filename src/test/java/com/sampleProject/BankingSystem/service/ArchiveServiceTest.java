@@ -0,0 +1,171 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.dto.ArchiveDtos;
+import com.sampleProject.BankingSystem.dto.ReconciliationDtos;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.model.ArchivedBalance;
+import com.sampleProject.BankingSystem.model.BankTransaction;
+import com.sampleProject.BankingSystem.model.ReconciliationRun;
+import com.sampleProject.BankingSystem.repository.ArchivedBalanceRepository;
+import com.sampleProject.BankingSystem.repository.BankTransactionRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+// a database of its own: recreating the shared schema under the cached default context breaks its id sequences
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:archive;DB_CLOSE_DELAY=-1")
+class ArchiveServiceTest {
+
+    @DynamicPropertySource
+    static void archiveDir(DynamicPropertyRegistry registry) throws IOException {
+        Path dir = Files.createTempDirectory("archive-test");
+        dir.toFile().deleteOnExit();
+        registry.add("banking.archive.dir", dir::toString);
+    }
+
+    @Autowired ArchiveService archiveService;
+    @Autowired TestFixtures fixtures;
+    @Autowired TransactionService transactionService;
+    @Autowired TransactionPartitionService partitionService;
+    @Autowired StatementExportService statementExportService;
+    @Autowired ReconciliationService reconciliationService;
+    @Autowired AccountService accountService;
+    @Autowired BankTransactionRepository transactionRepository;
+    @Autowired ArchivedBalanceRepository archivedBalanceRepository;
+
+    private Long openAccount(String opening) {
+        return fixtures.customerWithAccount(AccountType.CURRENT, opening).getId();
+    }
+
+    private void backdate(BankTransaction row, String date) {
+        row.setTxnDate(Instant.parse(date));
+        transactionRepository.save(row);
+    }
+
+    // every page of the history with the given page size, newest first
+    private List<Long> history(Long accountId, int limit) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionService.Page page = transactionService.list(accountId, cursor, limit);
+            page.items().forEach(t -> ids.add(t.id));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private String statement(Long accountId) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        statementExportService.export(accountId, Instant.parse("2019-12-01T00:00:00Z"), Instant.now().plusSeconds(60),
+                StatementExportService.Format.CSV, out);
+        return out.toString();
+    }
+
+    private ArchiveDtos.RunResponse await(YearMonth month) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ArchiveDtos.RunResponse status = archiveService.status(month);
+        while (ArchiveService.RUNNING.equals(status.status) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = archiveService.status(month);
+        }
+        return status;
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertNotNull(actual);
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> "expected " + expected + " but was " + actual);
+    }
+
+    @Test
+    @DisplayName("an archived month leaves the ledger but history, statements, balances and reconciliation still see it")
+    void archivesOldestClosedMonth() throws Exception {
+        Long plain = openAccount("100.00");
+        accountService.deposit(plain, new BigDecimal("50.00"), null);
+        accountService.withdraw(plain, new BigDecimal("30.00"), null);
+        List<BankTransaction> rows = fixtures.ledger(plain);
+        backdate(rows.get(0), "2020-01-05T10:00:00Z");
+        backdate(rows.get(1), "2020-01-20T10:00:00Z");
+        backdate(rows.get(2), "2020-02-03T10:00:00Z");
+        accountService.deposit(plain, new BigDecimal("5.00"), null);
+
+        // slot deposits carry no running balance
+        Long hot = openAccount("10.00");
+        accountService.enableHotMode(hot, 2);
+        accountService.deposit(hot, new BigDecimal("7.00"), null);
+        rows = fixtures.ledger(hot);
+        backdate(rows.get(0), "2020-01-06T10:00:00Z");
+        backdate(rows.get(1), "2020-01-25T10:00:00Z");
+        accountService.deposit(hot, new BigDecimal("3.00"), null);
+
+        List<Long> plainHistory = history(plain, 50);
+        String plainStatement = statement(plain);
+        String hotStatement = statement(hot);
+
+        assertThrows(IllegalStateException.class, () -> archiveService.start(YearMonth.of(2020, 2)), "2020-01 comes first");
+        assertThrows(IllegalArgumentException.class, () -> archiveService.start(YearMonth.now(ZoneOffset.UTC)), "still hot");
+        assertThrows(IllegalArgumentException.class, () -> archiveService.start(YearMonth.of(2019, 12)), "nothing to archive");
+
+        archiveService.start(YearMonth.of(2020, 1));
+        ArchiveDtos.RunResponse done = await(YearMonth.of(2020, 1));
+        assertEquals(ArchiveService.COMPLETED, done.status, () -> done.error);
+        assertEquals(4, done.rows);
+        assertEquals(1, done.segments);
+        assertEquals(1, archiveService.segments().size());
+        assertThrows(IllegalStateException.class, () -> archiveService.start(YearMonth.of(2020, 1)));
+        // a month above the horizon has its only copy in the ledger; H2 has no partitions to detach below it
+        assertThrows(IllegalArgumentException.class, () -> partitionService.detach(YearMonth.of(2020, 2)));
+        assertThrows(IllegalStateException.class, () -> partitionService.detach(YearMonth.of(2020, 1)));
+
+        assertEquals(2, fixtures.ledger(plain).size());
+        assertEquals(1, fixtures.ledger(hot).size());
+        assertEquals(plainHistory, history(plain, 50));
+        assertEquals(plainHistory, history(plain, 1));
+        assertEquals(plainHistory, history(plain, 2));
+        assertEquals(plainStatement, statement(plain));
+        assertEquals(hotStatement, statement(hot));
+
+        assertAmount("0", transactionService.balanceAt(plain, Instant.parse("2020-01-01T00:00:00Z")));
+        assertAmount("150.00", transactionService.balanceAt(plain, Instant.parse("2020-01-31T00:00:00Z")));
+        assertAmount("120.00", transactionService.balanceAt(plain, Instant.parse("2020-02-10T00:00:00Z")));
+        assertAmount("125.00", transactionService.balanceAt(plain, Instant.now()));
+        assertAmount("10.00", transactionService.balanceAt(hot, Instant.parse("2020-01-10T00:00:00Z")));
+        assertAmount("17.00", transactionService.balanceAt(hot, Instant.parse("2020-02-10T00:00:00Z")));
+        assertAmount("20.00", transactionService.balanceAt(hot, Instant.now()));
+
+        ArchivedBalance archived = archivedBalanceRepository.findById(plain).orElseThrow();
+        assertAmount("150.00", archived.getSignedSum());
+        assertEquals(2, archived.getRowCount());
+        assertAmount("17.00", archivedBalanceRepository.findById(hot).orElseThrow().getSignedSum());
+
+        ReconciliationDtos.RunResponse recon = reconciliationService.start();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (ReconciliationRun.RUNNING.equals(recon.status) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            recon = reconciliationService.status(recon.id);
+        }
+        assertEquals(ReconciliationRun.COMPLETED, recon.status);
+        assertEquals(0, recon.mismatchCount);
+    }
+}
@@ -0,0 +1,122 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.dto.AccountDtos;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.model.BankTransaction;
+import com.sampleProject.BankingSystem.repository.BankTransactionRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class BalanceBackfillServiceTest {
+
+    @Autowired BalanceBackfillService balanceBackfillService;
+    @Autowired TestFixtures fixtures;
+    @Autowired AccountService accountService;
+    @Autowired BankTransactionRepository transactionRepository;
+
+    private Long openAccount(String opening) {
+        return fixtures.customerWithAccount(AccountType.SAVINGS, opening).getId();
+    }
+
+    private static Instant tick() throws InterruptedException {
+        Thread.sleep(5);
+        Instant now = Instant.now();
+        Thread.sleep(5);
+        return now;
+    }
+
+    private BigDecimal balanceAt(Long id, Instant at) {
+        return accountService.getBalanceAt(id, at).balance;
+    }
+
+    private static void assertAmount(String expected, BigDecimal actual) {
+        assertNotNull(actual);
+        assertEquals(0, new BigDecimal(expected).compareTo(actual), () -> "expected " + expected + " but was " + actual);
+    }
+
+    @Test
+    @DisplayName("every locked write stores the balance after it; balance as of any time is read back from it")
+    void runningBalanceAndAsOf() throws Exception {
+        Instant beforeOpening = tick();
+        Long id = openAccount("100.00");
+        Instant afterOpening = tick();
+        accountService.deposit(id, new BigDecimal("50.00"), null);
+        Instant afterDeposit = tick();
+        Long other = openAccount("0.00");
+        accountService.transfer(id, other, new BigDecimal("30.00"), null);
+
+        List<BankTransaction> rows = fixtures.ledger(id);
+        assertAmount("100.00", rows.get(0).getBalanceAfter());
+        assertAmount("150.00", rows.get(1).getBalanceAfter());
+        assertAmount("120.00", rows.get(2).getBalanceAfter());
+        assertAmount("30.00", fixtures.ledger(other).get(0).getBalanceAfter());
+
+        assertAmount("0", balanceAt(id, beforeOpening));
+        assertAmount("100.00", balanceAt(id, afterOpening));
+        assertAmount("150.00", balanceAt(id, afterDeposit));
+        assertAmount("120.00", balanceAt(id, Instant.now()));
+        assertThrows(IllegalArgumentException.class, () -> accountService.getBalanceAt(-1L, Instant.now()));
+    }
+
+    @Test
+    @DisplayName("slot deposits into a hot account carry no running balance and are added on top of the last one")
+    void hotAccountDeposits() throws Exception {
+        Long id = openAccount("100.00");
+        accountService.enableHotMode(id, 4);
+        Instant beforeDeposits = tick();
+        accountService.deposit(id, new BigDecimal("10.00"), null);
+        accountService.deposit(id, new BigDecimal("5.00"), null);
+
+        List<BankTransaction> rows = fixtures.ledger(id);
+        assertNull(rows.get(1).getBalanceAfter());
+        assertNull(rows.get(2).getBalanceAfter());
+        assertAmount("100.00", balanceAt(id, beforeDeposits));
+        assertAmount("115.00", balanceAt(id, Instant.now()));
+    }
+
+    @Test
+    @DisplayName("the backfill replays legacy rows per account and skips accounts whose ledger does not add up")
+    void backfill() throws Exception {
+        Long id = openAccount("100.00");
+        accountService.deposit(id, new BigDecimal("50.00"), null);
+        accountService.withdraw(id, new BigDecimal("20.00"), null);
+        Long broken = openAccount("100.00");
+        accountService.deposit(broken, new BigDecimal("1.00"), null);
+
+        // as if written before the column existed
+        List<BankTransaction> legacy = fixtures.ledger(id);
+        legacy.forEach(t -> t.setBalanceAfter(null));
+        transactionRepository.saveAll(legacy);
+        List<BankTransaction> brokenRows = fixtures.ledger(broken);
+        brokenRows.forEach(t -> t.setBalanceAfter(null));
+        brokenRows.get(1).setAmount(new BigDecimal("2.00"));
+        transactionRepository.saveAll(brokenRows);
+        assertAmount("130.00", balanceAt(id, Instant.now()));
+
+        balanceBackfillService.start();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (balanceBackfillService.status().running && System.currentTimeMillis() < deadline) Thread.sleep(20);
+        AccountDtos.BackfillResponse status = balanceBackfillService.status();
+        assertFalse(status.running);
+        assertTrue(status.accountsSkipped >= 1);
+
+        List<BankTransaction> rows = fixtures.ledger(id);
+        assertAmount("100.00", rows.get(0).getBalanceAfter());
+        assertAmount("150.00", rows.get(1).getBalanceAfter());
+        assertAmount("130.00", rows.get(2).getBalanceAfter());
+        assertTrue(fixtures.ledger(broken).stream().allMatch(t -> t.getBalanceAfter() == null));
+    }
+}
@@ -0,0 +1,110 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sampleProject.BankingSystem.model.Account;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceCacheTest {
+
+    private final BalanceCache cache = new BalanceCache(100, Duration.ofMinutes(1));
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private static Account account(Long id, String balance) {
+        Account a = new Account();
+        a.setId(id);
+        a.setBalance(new BigDecimal(balance));
+        return a;
+    }
+
+    // runs the body as if inside a transaction and returns its synchronizations without completing them
+    private static List<TransactionSynchronization> inTransaction(Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        body.run();
+        List<TransactionSynchronization> syncs = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        return syncs;
+    }
+
+    private static void commit(List<TransactionSynchronization> syncs) {
+        syncs.forEach(TransactionSynchronization::afterCommit);
+        syncs.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    @Test
+    @DisplayName("read-through loads once and counts hits and misses")
+    void readThrough() {
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(new BigDecimal("10.00"), cache.get(1L, id -> { loads.incrementAndGet(); return new BigDecimal("10.00"); }));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(2, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    @DisplayName("writes become visible only after commit, and rollback leaves the cached balance alone")
+    void afterCommitOnly() {
+        cache.get(1L, id -> new BigDecimal("10.00"));
+        Account acc = account(1L, "25.00");
+        List<TransactionSynchronization> rolledBack = inTransaction(() -> cache.written(acc));
+        rolledBack.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        assertEquals(new BigDecimal("10.00"), cache.get(1L, id -> fail("should be cached")));
+
+        List<TransactionSynchronization> pending = inTransaction(() -> cache.written(acc));
+        assertEquals(new BigDecimal("10.00"), cache.get(1L, id -> fail("should be cached")));
+        commit(pending);
+        assertEquals(new BigDecimal("25.00"), cache.get(1L, id -> fail("should be cached")));
+    }
+
+    @Test
+    @DisplayName("a late commit callback cannot overwrite a newer balance")
+    void outOfOrderCommits() {
+        List<TransactionSynchronization> first = inTransaction(() -> cache.written(account(1L, "20.00")));
+        List<TransactionSynchronization> second = inTransaction(() -> cache.written(account(1L, "30.00")));
+        commit(second);
+        commit(first);
+        assertEquals(new BigDecimal("30.00"), cache.get(1L, id -> fail("should be cached")));
+    }
+
+    @Test
+    @DisplayName("reads during an in-flight write are not cached, deleted accounts are not found")
+    void inFlightAndDelete() {
+        List<TransactionSynchronization> pending = inTransaction(() -> cache.deleted(1L));
+        cache.get(1L, id -> new BigDecimal("10.00"));
+        assertEquals(0, cache.size());
+        commit(pending);
+        assertThrows(IllegalArgumentException.class, () -> cache.get(1L, id -> new BigDecimal("10.00")));
+    }
+
+    @Test
+    @DisplayName("a hot-account write leaves a tombstone that a load begun before it cannot overwrite")
+    void hotWriteTombstone() {
+        Account hot = account(1L, "0.00");
+        hot.setHotSlots(4);
+        // the load reads the old balance; the hot deposit begins and commits before the load puts it
+        cache.get(1L, id -> {
+            commit(inTransaction(() -> cache.written(hot)));
+            return new BigDecimal("10.00");
+        });
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals(new BigDecimal("15.00"), cache.get(1L, id -> { loads.incrementAndGet(); return new BigDecimal("15.00"); }));
+        assertEquals(new BigDecimal("15.00"), cache.get(1L, id -> fail("should be cached")));
+        assertEquals(1, loads.get());
+    }
+}
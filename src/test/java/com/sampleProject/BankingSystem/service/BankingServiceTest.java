@@ -16,7 +16,10 @@ import com.sampleProject.BankingSystem.service.AccountService;
 import com.sampleProject.BankingSystem.service.TransactionService;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,6 +30,10 @@ class BankingServiceTest { // keeping filename but testing AccountService
     @Mock CustomerRepository customerRepository;
     @Mock AccountRepository accountRepository;
     @Mock TransactionService transactionService;
+    @Mock HotAccountService hotAccountService;
+    @Mock BalanceCache balanceCache;
+    @Mock AccountLocking accountLocking;
+    @Mock AccountNumberGenerator accountNumberGenerator;
 
     @InjectMocks AccountService accountService;
 
@@ -35,6 +42,7 @@ class BankingServiceTest { // keeping filename but testing AccountService
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        when(accountLocking.execute(any(), any())).thenAnswer(inv -> inv.<Supplier<?>>getArgument(1).get());
         customer = new Customer();
         customer.setId(1L);
         customer.setFirstName("John");
@@ -84,6 +92,39 @@ class BankingServiceTest { // keeping filename but testing AccountService
         Account updated = accountService.deposit(5L, new BigDecimal("50.00"), "cash");
         assertEquals(new BigDecimal("150.00"), updated.getBalance());
         verify(transactionService).record(eq(acc), eq(new BigDecimal("50.00")), eq("DEPOSIT"), eq("cash"));
+        verify(balanceCache).written(acc);
+    }
+
+    @Test
+    @DisplayName("deposit on hot account credits a slot without locking the account row")
+    void deposit_hotAccountUsesSlot() {
+        Account acc = newAccount(7L, new BigDecimal("100.00"), AccountType.CURRENT);
+        acc.setHotSlots(4);
+        acc.setSlotBalance(new BigDecimal("50.00"));
+        List<Long> slots = List.of(70L, 71L, 72L, 73L);
+        when(hotAccountService.slotIds(7L)).thenReturn(slots);
+        when(hotAccountService.creditSlot(7L, slots, new BigDecimal("50.00"))).thenReturn(acc);
+
+        Account updated = accountService.deposit(7L, new BigDecimal("50.00"), "pos");
+        assertEquals(new BigDecimal("150.00"), updated.getTotalBalance());
+        verify(accountRepository, never()).findWithLockingById(any());
+        verify(transactionService).record(eq(acc), eq(new BigDecimal("50.00")), eq("DEPOSIT"), eq("pos"));
+    }
+
+    @Test
+    @DisplayName("withdraw from hot account drains slots before the funds check")
+    void withdraw_hotAccountDrainsSlots() {
+        Account acc = newAccount(8L, new BigDecimal("10.00"), AccountType.SAVINGS);
+        acc.setHotSlots(2);
+        when(accountRepository.findWithLockingById(8L)).thenReturn(Optional.of(acc));
+        doAnswer(inv -> {
+            acc.setBalance(acc.getBalance().add(new BigDecimal("90.00")));
+            return null;
+        }).when(hotAccountService).coverDebit(acc, new BigDecimal("60.00"));
+
+        Account updated = accountService.withdraw(8L, new BigDecimal("60.00"), "atm");
+        assertEquals(new BigDecimal("40.00"), updated.getBalance());
+        verify(transactionService).record(eq(acc), eq(new BigDecimal("60.00")), eq("WITHDRAWAL"), eq("atm"));
     }
 
     @Test
@@ -145,6 +186,54 @@ class BankingServiceTest { // keeping filename but testing AccountService
         verify(transactionService, times(1)).record(eq(to), eq(new BigDecimal("25.00")), eq("TRANSFER_IN"), eq("ext"));
     }
 
+    @Test
+    @DisplayName("deposit in OPTIMISTIC mode reads the account without a row lock")
+    void deposit_optimisticSkipsRowLock() {
+        Account acc = newAccount(9L, new BigDecimal("100.00"), AccountType.SAVINGS);
+        when(hotAccountService.slotIds(9L)).thenReturn(List.of());
+        when(accountLocking.modeFor(9L)).thenReturn(AccountLocking.Mode.OPTIMISTIC);
+        when(accountRepository.findById(9L)).thenReturn(Optional.of(acc));
+        when(accountRepository.save(any(Account.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Account updated = accountService.deposit(9L, new BigDecimal("5.00"), null);
+        assertEquals(new BigDecimal("105.00"), updated.getBalance());
+        verify(accountRepository, never()).findWithLockingById(anyLong());
+        verify(accountLocking).execute(eq(AccountLocking.Mode.OPTIMISTIC), any());
+    }
+
+    @Test
+    @DisplayName("withdraw in GUARDED mode debits in one statement and publishes the returned balance")
+    void withdraw_guardedSingleStatement() {
+        Account acc = newAccount(11L, new BigDecimal("60.00"), AccountType.SAVINGS);
+        when(accountLocking.modeFor(11L)).thenReturn(AccountLocking.Mode.GUARDED);
+        when(accountRepository.guardedDebit(11L, new BigDecimal("40.00"), "WITHDRAWAL", null))
+                .thenReturn(Optional.of(new BigDecimal("60.00")));
+        when(accountRepository.findById(11L)).thenReturn(Optional.of(acc));
+
+        assertEquals(new BigDecimal("60.00"), accountService.withdraw(11L, new BigDecimal("40.00"), null).getBalance());
+        verify(balanceCache).written(11L, new BigDecimal("60.00"));
+        verify(accountRepository, never()).findWithLockingById(anyLong());
+        verify(transactionService, never()).record(any(), any(), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("a GUARDED transfer that moved only one side is rolled back and retried under row locks")
+    void transfer_guardedMissFallsBackToLocks() {
+        Account from = newAccount(12L, new BigDecimal("5.00"), AccountType.SAVINGS);
+        Account to = newAccount(13L, new BigDecimal("0.00"), AccountType.SAVINGS);
+        when(accountLocking.modeFor(12L, 13L)).thenReturn(AccountLocking.Mode.GUARDED);
+        when(accountRepository.guardedTransfer(12L, 13L, new BigDecimal("10.00"), null))
+                .thenReturn(Map.of(13L, new BigDecimal("10.00")));
+        when(accountRepository.findWithLockingById(12L)).thenReturn(Optional.of(from));
+        when(accountRepository.findWithLockingById(13L)).thenReturn(Optional.of(to));
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class,
+                () -> accountService.transfer(12L, 13L, new BigDecimal("10.00"), null));
+        assertEquals("Insufficient funds", ex.getMessage());
+        verify(balanceCache, never()).written(anyLong(), any());
+        verify(accountLocking).execute(eq(AccountLocking.Mode.PESSIMISTIC), any());
+    }
+
     @Nested
     class Validation {
         @Test
@@ -0,0 +1,137 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.model.Customer;
+import com.sampleProject.BankingSystem.repository.CustomerRepository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class CustomerImportServiceTest {
+
+    @Autowired CustomerImportService customerImportService;
+    @Autowired TestFixtures fixtures;
+    @Autowired CustomerService customerService;
+    @Autowired CustomerRepository customerRepository;
+    @Autowired PasswordHasher passwordHasher;
+
+    private String report;
+
+    private CustomerImportService.Result importCsv(String csv) throws IOException {
+        StringWriter out = new StringWriter();
+        CustomerImportService.Result result = customerImportService.importCsv(new StringReader(csv), out);
+        report = out.toString();
+        return result;
+    }
+
+    @Test
+    @DisplayName("valid rows are imported; invalid, underage and duplicate ones are reported in file order")
+    void importsAndReports() throws IOException {
+        String tag = Long.toString(System.nanoTime());
+        fixtures.customer("existing-" + tag + "@test.com");
+        String hash = passwordHasher.hash("Hashed99");
+        String minor = LocalDate.now().minusYears(17).toString();
+
+        CustomerImportService.Result result = importCsv(
+                "email,firstName,lastName,phone,dob,password\r\n"
+                + "Ada-" + tag + "@Test.com,Ada,Lovelace,1234567890,1990-12-10,Abc123\r\n"
+                + "quoted-" + tag + "@test.com,\"Grace, \"\"Amazing\"\"\",Hopper,1234567890,1906-12-09,Abc123\r\n"
+                + "\r\n"
+                + "phone-" + tag + "@test.com,Bad,Phone,12345,1990-01-01,Abc123\r\n"
+                + "minor-" + tag + "@test.com,Too,Young,1234567890," + minor + ",Abc123\r\n"
+                + "date-" + tag + "@test.com,Bad,Date,1234567890,10/12/1990,Abc123\r\n"
+                + "ada-" + tag + "@test.com,Ada,Again,1234567890,1990-12-10,Abc123\r\n"
+                + "EXISTING-" + tag + "@test.com,Already,There,1234567890,1990-01-01,Abc123\r\n"
+                + "hashed-" + tag + "@test.com,Pre,Hashed,1234567890,1980-05-05," + hash + "\r\n"
+                + "weak-" + tag + "@test.com,Weak,Password,1234567890,1980-05-05,abcdef\r\n"
+                + "short-" + tag + "@test.com,Too,Few,1234567890\r\n");
+
+        assertEquals(10, result.rows());
+        assertEquals(3, result.imported());
+        assertEquals(7, result.rejected());
+        List<String> lines = report.lines().toList();
+        assertEquals(List.of(
+                "row,email,error",
+                "5,phone-" + tag + "@test.com,phone: Phone must be exactly 10 digits",
+                "6,minor-" + tag + "@test.com,dob: Customer must be at least 18 years old",
+                "7,date-" + tag + "@test.com,dob: must be a date (yyyy-MM-dd)",
+                "8,ada-" + tag + "@test.com,Duplicate of row 2",
+                "9,existing-" + tag + "@test.com,Email already registered",
+                "11,weak-" + tag + "@test.com,password: Password must contain at least one letter and one digit",
+                "12,short-" + tag + "@test.com,Expected 6 fields but found 4"), lines);
+
+        Customer ada = customerService.findByEmail("ada-" + tag + "@test.com");
+        assertEquals("Lovelace", ada.getLastName());
+        assertEquals(LocalDate.of(1990, 12, 10), ada.getDob());
+        assertNotNull(ada.getCreatedAt());
+        assertTrue(ada.getPassword().startsWith("{bcrypt}"));
+        assertEquals(ada.getId(), customerService.authenticate("ada-" + tag + "@test.com", "Abc123").getId());
+        assertEquals("Grace, \"Amazing\"", customerService.findByEmail("quoted-" + tag + "@test.com").getFirstName());
+        assertEquals(hash, customerService.findByEmail("hashed-" + tag + "@test.com").getPassword());
+        assertNotNull(customerService.authenticate("hashed-" + tag + "@test.com", "Hashed99"));
+    }
+
+    @Test
+    @DisplayName("a row that fails its checks does not take its email from a later valid row")
+    void invalidRowDoesNotClaimEmail() throws IOException {
+        String tag = Long.toString(System.nanoTime());
+
+        CustomerImportService.Result result = importCsv(
+                "email,firstName,lastName,phone,dob,password\n"
+                + "same-" + tag + "@test.com,Bad,Phone,12345,1990-01-01,Abc123\n"
+                + "SAME-" + tag + "@test.com,Bad,Date,1234567890,10/12/1990,Abc123\n"
+                + "same-" + tag + "@test.com,Good,Row,1234567890,1990-01-01,Abc123\n"
+                + "same-" + tag + "@test.com,Late,Repeat,1234567890,1990-01-01,Abc123\n");
+
+        assertEquals(1, result.imported());
+        assertEquals(List.of(
+                "row,email,error",
+                "2,same-" + tag + "@test.com,phone: Phone must be exactly 10 digits",
+                "3,SAME-" + tag + "@test.com,dob: must be a date (yyyy-MM-dd)",
+                "5,same-" + tag + "@test.com,Duplicate of row 4"), report.lines().toList());
+        assertEquals("Good", customerService.findByEmail("same-" + tag + "@test.com").getFirstName());
+    }
+
+    @Test
+    @DisplayName("a file larger than a batch is imported in several parallel chunks")
+    void importsAcrossBatches() throws IOException {
+        String tag = Long.toString(System.nanoTime());
+        long before = customerRepository.count();
+        StringBuilder csv = new StringBuilder("firstName,email,phone,dob,password\n");
+        for (int i = 0; i < 2500; i++) {
+            csv.append("Bulk").append(i).append(",bulk-").append(tag).append('-').append(i).append("@test.com,1234567890,1990-01-01,Abc123\n");
+            // every 500th row repeats one from the previous chunk
+            if (i % 500 == 499 && i > 600) csv.append("Bulk,bulk-").append(tag).append('-').append(i - 600).append("@test.com,1234567890,1990-01-01,Abc123\n");
+        }
+
+        CustomerImportService.Result result = importCsv(csv.toString());
+
+        assertEquals(2504, result.rows());
+        assertEquals(2500, result.imported());
+        assertEquals(4, result.rejected());
+        assertEquals(before + 2500, customerRepository.count());
+        assertEquals(5, report.lines().count());
+        assertTrue(report.lines().skip(1).allMatch(l -> l.contains("Duplicate of row")), report);
+    }
+
+    @Test
+    @DisplayName("an unknown or missing column rejects the whole file before anything is imported")
+    void rejectsBadHeader() {
+        assertThrows(IllegalArgumentException.class, () -> importCsv("firstName,email,phone,dob,password,nickname\n"));
+        assertThrows(IllegalArgumentException.class, () -> importCsv("firstName,email,phone,dob\n"));
+        assertThrows(IllegalArgumentException.class, () -> importCsv(""));
+    }
+}
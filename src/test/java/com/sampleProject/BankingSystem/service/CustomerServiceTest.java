@@ -0,0 +1,41 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.model.Customer;
+import com.sampleProject.BankingSystem.repository.CustomerRepository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class CustomerServiceTest {
+
+    @Autowired CustomerService customerService;
+    @Autowired TestFixtures fixtures;
+    @Autowired CustomerRepository customerRepository;
+
+    @Test
+    @DisplayName("passwords are stored hashed; a plain-text row is rehashed on its next login")
+    void hashAndRehashOnLogin() {
+        String email = TestFixtures.uniqueEmail();
+        Customer created = fixtures.customer(email);
+        assertTrue(customerRepository.findById(created.getId()).orElseThrow().getPassword().startsWith("{bcrypt}"));
+
+        // a row from before hashing
+        Customer legacy = customerRepository.findById(created.getId()).orElseThrow();
+        legacy.setPassword("Abc123");
+        customerRepository.save(legacy);
+
+        assertThrows(IllegalArgumentException.class, () -> customerService.authenticate(email, "Wrong123"));
+        assertEquals(created.getId(), customerService.authenticate(email, "Abc123").getId());
+        String rehashed = customerRepository.findById(created.getId()).orElseThrow().getPassword();
+        assertTrue(rehashed.startsWith("{bcrypt}"));
+        assertEquals(created.getId(), customerService.authenticate(email, "Abc123").getId());
+    }
+}
@@ -0,0 +1,124 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.dto.AccountDtos;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.model.IdempotencyRecord;
+import com.sampleProject.BankingSystem.repository.IdempotencyRecordRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class IdempotencyServiceTest {
+
+    @Autowired IdempotencyService idempotencyService;
+    @Autowired TestFixtures fixtures;
+    @Autowired AccountService accountService;
+    @Autowired IdempotencyRecordRepository recordRepository;
+
+    Long accountId;
+
+    @BeforeEach
+    void seed() {
+        accountId = fixtures.customerWithAccount(AccountType.CURRENT, null).getId();
+    }
+
+    private AccountDtos.BalanceResponse deposit(String key, String amount) {
+        AccountDtos.MoneyRequest req = new AccountDtos.MoneyRequest();
+        req.amount = new BigDecimal(amount);
+        return idempotencyService.execute(key, "deposit:" + accountId, req, AccountDtos.BalanceResponse.class, () -> {
+            AccountDtos.BalanceResponse resp = new AccountDtos.BalanceResponse();
+            resp.accountId = accountId;
+            resp.balance = accountService.deposit(accountId, req.amount, null).getTotalBalance();
+            return resp;
+        });
+    }
+
+    @Test
+    @DisplayName("a replayed key returns the stored response and moves money once")
+    void replay() {
+        String key = "replay-" + accountId;
+        AccountDtos.BalanceResponse first = deposit(key, "10.00");
+        AccountDtos.BalanceResponse second = deposit(key, "10.00");
+        assertEquals(0, first.balance.compareTo(second.balance));
+        assertEquals(1, fixtures.ledger(accountId).size());
+    }
+
+    @Test
+    @DisplayName("concurrent duplicates wait for the in-flight request")
+    void concurrentDuplicates() throws Exception {
+        String key = "concurrent-" + accountId;
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<AccountDtos.BalanceResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return deposit(key, "10.00");
+            }));
+        }
+        start.countDown();
+        for (Future<AccountDtos.BalanceResponse> f : futures) assertEquals(0, new BigDecimal("10.00").compareTo(f.get().balance));
+        pool.shutdown();
+        assertEquals(1, fixtures.ledger(accountId).size());
+    }
+
+    @Test
+    @DisplayName("a key reused for a different request is rejected")
+    void differentRequest() {
+        String key = "reuse-" + accountId;
+        deposit(key, "10.00");
+        assertThrows(IllegalArgumentException.class, () -> deposit(key, "20.00"));
+    }
+
+    @Test
+    @DisplayName("a failed operation does not consume the key")
+    void failureNotStored() {
+        String key = "fail-" + accountId;
+        AccountDtos.MoneyRequest req = new AccountDtos.MoneyRequest();
+        req.amount = new BigDecimal("10.00");
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute(key, "withdraw:" + accountId, req,
+                AccountDtos.AccountResponse.class, () -> { accountService.withdraw(accountId, req.amount, null); return null; }));
+        deposit("fail-deposit-" + accountId, "10.00");
+        assertNull(idempotencyService.execute(key, "withdraw:" + accountId, req, AccountDtos.AccountResponse.class,
+                () -> { accountService.withdraw(accountId, req.amount, null); return null; }));
+        assertEquals(0, BigDecimal.ZERO.compareTo(accountService.getBalance(accountId).balance));
+    }
+
+    @Test
+    @DisplayName("an expired key the purge has not removed yet runs the request again")
+    void expiredNotPurged() {
+        String key = "expired-" + accountId;
+        IdempotencyRecord old = new IdempotencyRecord();
+        old.setKey(key);
+        old.setFingerprint("deposit:" + accountId + ":old");
+        old.setCreatedAt(Instant.now().minus(Duration.ofDays(2)));
+        old.setExpiresAt(Instant.now().minus(Duration.ofDays(1)));
+        recordRepository.save(old);
+
+        AccountDtos.BalanceResponse first = deposit(key, "10.00");
+        AccountDtos.BalanceResponse replay = deposit(key, "10.00");
+        assertEquals(0, new BigDecimal("10.00").compareTo(first.balance));
+        assertEquals(0, first.balance.compareTo(replay.balance));
+        assertEquals(1, fixtures.ledger(accountId).size());
+        assertTrue(recordRepository.findById(key).orElseThrow().getExpiresAt().isAfter(Instant.now()));
+    }
+}
@@ -0,0 +1,160 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.dto.AccountDtos;
+import com.sampleProject.BankingSystem.dto.InterestDtos;
+import com.sampleProject.BankingSystem.model.Account;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.model.BankTransaction;
+import com.sampleProject.BankingSystem.model.InterestRun;
+import com.sampleProject.BankingSystem.model.InterestRunRange;
+import com.sampleProject.BankingSystem.repository.AccountRepository;
+import com.sampleProject.BankingSystem.repository.BankTransactionRepository;
+import com.sampleProject.BankingSystem.repository.InterestRunRangeRepository;
+import com.sampleProject.BankingSystem.repository.InterestRunRepository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {"banking.interest.chunk-size=2", "banking.interest.ranges=3", "banking.interest.threads=2"})
+class InterestPostingServiceTest {
+
+    @Autowired InterestPostingService interestPostingService;
+    @Autowired TestFixtures fixtures;
+    @Autowired AccountService accountService;
+    @Autowired InterestRunRepository runRepository;
+    @Autowired InterestRunRangeRepository rangeRepository;
+    @Autowired AccountRepository accountRepository;
+    @Autowired BankTransactionRepository transactionRepository;
+
+    private Long customerId() {
+        return fixtures.customer().getId();
+    }
+
+    private Long openAccount(Long customerId, AccountType type, String balance, String rate) {
+        AccountDtos.CreateAccountRequest a = new AccountDtos.CreateAccountRequest();
+        a.customerId = customerId;
+        a.accountType = type;
+        a.openingBalance = new BigDecimal(balance);
+        a.interestRate = rate == null ? null : new BigDecimal(rate);
+        return accountService.createAccount(a).getId();
+    }
+
+    // as if opened, with its opening deposit, on the first day of the month
+    private Long openAccount(Long customerId, AccountType type, String balance, String rate, YearMonth openedIn) {
+        Long id = openAccount(customerId, type, balance, rate);
+        Instant at = openedIn.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+        Account account = accountRepository.findById(id).orElseThrow();
+        account.setOpenedAt(at);
+        accountRepository.save(account);
+        List<BankTransaction> rows = fixtures.ledger(id);
+        rows.forEach(t -> t.setTxnDate(at));
+        transactionRepository.saveAll(rows);
+        return id;
+    }
+
+    private InterestDtos.RunResponse awaitCompleted(YearMonth period) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        InterestDtos.RunResponse run = interestPostingService.status(period);
+        while (!InterestRun.COMPLETED.equals(run.status) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            run = interestPostingService.status(period);
+        }
+        assertEquals(InterestRun.COMPLETED, run.status);
+        return run;
+    }
+
+    private long interestRows(Long accountId) {
+        return fixtures.ledger(accountId).stream()
+                .filter(t -> InterestPostingService.TXN_TYPE.equals(t.getTxnType())).count();
+    }
+
+    @Test
+    @DisplayName("a run credits month-end balance * rate / 12 to every interest-bearing savings account once, in parallel ranges")
+    void postsEachSavingsAccountOnce() throws Exception {
+        YearMonth period = YearMonth.now(ZoneOffset.UTC).minusMonths(1);
+        Long customer = customerId();
+        List<Long> savings = new ArrayList<>();
+        for (int i = 0; i < 7; i++) savings.add(openAccount(customer, AccountType.SAVINGS, "1200.00", "0.0150", period));
+        Long noRate = openAccount(customer, AccountType.SAVINGS, "1200.00", null, period);
+        Long current = openAccount(customer, AccountType.CURRENT, "1200.00", "0.0150", period);
+        Long openedSince = openAccount(customer, AccountType.SAVINGS, "1200.00", "0.0150");
+        // paid in after the month ended: earns nothing for it
+        for (Long id : savings) accountService.deposit(id, new BigDecimal("1200.00"), null);
+
+        interestPostingService.start(period);
+        InterestDtos.RunResponse run = awaitCompleted(period);
+
+        for (Long id : savings) {
+            assertEquals(0, new BigDecimal("2401.50").compareTo(accountService.getAccount(id).getBalance()));
+            assertEquals(1, interestRows(id));
+        }
+        assertEquals(0, new BigDecimal("1200.00").compareTo(accountService.getAccount(noRate).getBalance()));
+        assertEquals(0, interestRows(current));
+        assertEquals(0, interestRows(openedSince));
+        assertTrue(run.ranges.size() > 1 && run.ranges.stream().allMatch(r -> r.done));
+        assertTrue(run.accountsPosted >= savings.size());
+
+        assertThrows(IllegalStateException.class, () -> interestPostingService.start(period));
+        assertThrows(IllegalArgumentException.class, () -> interestPostingService.start(period.plusMonths(1)));
+    }
+
+    @Test
+    @DisplayName("months are posted in order: never one before the newest run, and at first only the last month ended")
+    void refusesPastMonths() {
+        YearMonth lastEnded = YearMonth.now(ZoneOffset.UTC).minusMonths(1);
+        // whichever tests ran first, the newest run is at most lastEnded and at least the resumed one below
+        assertThrows(IllegalArgumentException.class, () -> interestPostingService.start(lastEnded.minusMonths(5)));
+        assertThrows(IllegalArgumentException.class, () -> interestPostingService.start(YearMonth.of(2001, 1)));
+        assertFalse(runRepository.existsById(lastEnded.minusMonths(5).toString()));
+    }
+
+    @Test
+    @DisplayName("an interrupted run resumes after its checkpoint without posting the same account twice")
+    void resumesFromCheckpoint() throws Exception {
+        Long customer = customerId();
+        List<Long> savings = new ArrayList<>();
+        YearMonth period = YearMonth.now(ZoneOffset.UTC).minusMonths(3);
+        for (int i = 0; i < 5; i++) savings.add(openAccount(customer, AccountType.SAVINGS, "1200.00", "0.0150", period));
+
+        // state left behind by a crash: the first two accounts were posted and checkpointed
+        InterestRun crashed = new InterestRun();
+        crashed.setPeriod(period.toString());
+        crashed.setStatus(InterestRun.RUNNING);
+        crashed.setStartedAt(Instant.now());
+        runRepository.save(crashed);
+        InterestRunRange range = new InterestRunRange();
+        range.setPeriod(period.toString());
+        range.setRangeStart(savings.get(0));
+        range.setRangeEnd(savings.get(4));
+        range.setCheckpoint(savings.get(1));
+        range.setAccountsPosted(2);
+        rangeRepository.save(range);
+
+        interestPostingService.start(period);
+        InterestDtos.RunResponse run = awaitCompleted(period);
+
+        for (int i = 0; i < 5; i++) {
+            BigDecimal expected = new BigDecimal(i < 2 ? "1200.00" : "1201.50");
+            assertEquals(0, expected.compareTo(accountService.getAccount(savings.get(i)).getBalance()), "account " + i);
+            assertEquals(i < 2 ? 0 : 1, interestRows(savings.get(i)));
+        }
+        assertEquals(5, run.accountsPosted);
+        assertEquals(1, run.ranges.size());
+    }
+}
@@ -0,0 +1,59 @@
+package com.sampleProject.BankingSystem.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+
+    @Test
+    @DisplayName("hashes match their password; plain-text and weaker values match but ask for a rehash")
+    void matchAndRehash() {
+        PasswordHasher hasher = new PasswordHasher(5, 1, 4, new SimpleMeterRegistry());
+        String hash = hasher.hash("Abc123");
+        assertTrue(hash.startsWith("{bcrypt}$2a$05$"));
+        assertTrue(hasher.matches("Abc123", hash));
+        assertFalse(hasher.matches("Abc124", hash));
+        assertFalse(hasher.needsRehash(hash));
+
+        assertTrue(hasher.matches("Abc123", "Abc123"));
+        assertFalse(hasher.matches("Abc124", "Abc123"));
+        assertTrue(hasher.needsRehash("Abc123"));
+
+        PasswordHasher stronger = new PasswordHasher(6, 1, 4, new SimpleMeterRegistry());
+        assertTrue(stronger.matches("Abc123", hash));
+        assertTrue(stronger.needsRehash(hash));
+    }
+
+    @Test
+    @DisplayName("callers beyond the pool and its queue are refused at once")
+    void rejectsWhenFull() throws Exception {
+        PasswordHasher hasher = new PasswordHasher(13, 1, 1, new SimpleMeterRegistry());
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        CountDownLatch started = new CountDownLatch(2);
+        List<Future<String>> busy = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            busy.add(callers.submit(() -> {
+                started.countDown();
+                return hasher.hash("Abc123");
+            }));
+        }
+        started.await();
+        Thread.sleep(50); // let both reach the pool: one hashing, one queued
+        long began = System.nanoTime();
+        assertThrows(RejectedExecutionException.class, () -> hasher.hash("Abc123"));
+        assertTrue(System.nanoTime() - began < 50_000_000L, "rejection must not wait for a thread");
+        for (Future<String> f : busy) assertNotNull(f.get());
+        callers.shutdown();
+    }
+}
@@ -0,0 +1,122 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.dto.ReconciliationDtos;
+import com.sampleProject.BankingSystem.model.Account;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.model.ReconciliationRun;
+import com.sampleProject.BankingSystem.repository.AccountRepository;
+import com.sampleProject.BankingSystem.repository.ReconciliationRunRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+// a database of its own: recreating the shared schema under the cached default context breaks its id sequences
+@TestPropertySource(properties = {"spring.datasource.url=jdbc:h2:mem:reconciliation;DB_CLOSE_DELAY=-1",
+        "banking.reconciliation.parallelism=3", "banking.reconciliation.partition-size=7"})
+class ReconciliationServiceTest {
+
+    @Autowired ReconciliationService reconciliationService;
+    @Autowired TestFixtures fixtures;
+    @Autowired AccountService accountService;
+    @Autowired AccountRepository accountRepository;
+    @Autowired ReconciliationRunRepository runRepository;
+
+    private Long openAccount(Long customerId, String opening) {
+        return fixtures.account(customerId, AccountType.CURRENT, opening).getId();
+    }
+
+    private ReconciliationDtos.RunResponse await(Long runId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ReconciliationDtos.RunResponse status = reconciliationService.status(runId);
+        while (ReconciliationRun.RUNNING.equals(status.status) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = reconciliationService.status(runId);
+        }
+        return status;
+    }
+
+    @Test
+    @DisplayName("a balance that drifted from its ledger is reported; consistent accounts in every partition are not")
+    void reportsDriftedBalances() throws Exception {
+        Long customerId = fixtures.customer().getId();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) ids.add(openAccount(customerId, "100.00"));
+        accountService.transfer(ids.get(0), ids.get(1), new BigDecimal("25.00"), null);
+        accountService.withdraw(ids.get(2), new BigDecimal("10.00"), null);
+        accountService.enableHotMode(ids.get(3), 4);
+        accountService.deposit(ids.get(3), new BigDecimal("5.00"), null);
+
+        Account drifted = accountRepository.findById(ids.get(20)).orElseThrow();
+        drifted.setBalance(new BigDecimal("101.50"));
+        accountRepository.save(drifted);
+
+        ReconciliationDtos.RunResponse started = reconciliationService.start();
+        ReconciliationDtos.RunResponse done = await(started.id);
+
+        assertEquals(ReconciliationRun.COMPLETED, done.status);
+        assertTrue(done.partitions > 1);
+        assertEquals(done.partitions, done.partitionsDone);
+        assertTrue(done.accountsChecked >= ids.size());
+        assertEquals(done.mismatchCount, done.mismatches.size());
+        List<Long> reported = done.mismatches.stream().map(m -> m.accountId).toList();
+        assertTrue(reported.contains(ids.get(20)));
+        reported.forEach(id -> assertFalse(ids.contains(id) && !id.equals(ids.get(20)), "reported consistent account " + id));
+
+        ReconciliationDtos.MismatchResponse m = done.mismatches.get(reported.indexOf(ids.get(20)));
+        assertEquals(0, new BigDecimal("101.50").compareTo(m.balance));
+        assertEquals(0, new BigDecimal("100.00").compareTo(m.ledgerSum));
+        assertEquals(0, new BigDecimal("1.50").compareTo(m.difference));
+        assertEquals(done.id, reconciliationService.latest().id);
+    }
+
+    private ReconciliationRun running(Instant heartbeatAt) {
+        ReconciliationRun run = new ReconciliationRun();
+        run.setStatus(ReconciliationRun.RUNNING);
+        run.setStartedAt(Instant.now().minus(Duration.ofHours(1)));
+        run.setHeartbeatAt(heartbeatAt);
+        return runRepository.save(run);
+    }
+
+    @Test
+    @DisplayName("only runs whose heartbeat stopped are failed; one another instance is still running is left alone")
+    void failsOnlyAbandonedRuns() {
+        Long stale = running(Instant.now().minus(Duration.ofMinutes(10))).getId();
+        Long beforeHeartbeats = running(null).getId();
+        Long elsewhere = running(Instant.now()).getId();
+
+        reconciliationService.failAbandoned();
+
+        assertEquals(ReconciliationRun.FAILED, reconciliationService.status(stale).status);
+        assertNotNull(reconciliationService.status(stale).finishedAt);
+        assertEquals(ReconciliationRun.FAILED, reconciliationService.status(beforeHeartbeats).status);
+        assertEquals(ReconciliationRun.RUNNING, reconciliationService.status(elsewhere).status);
+
+        // its instance stops beating: the next check fails it too
+        ReconciliationRun quiet = runRepository.findById(elsewhere).orElseThrow();
+        quiet.setHeartbeatAt(Instant.now().minus(Duration.ofMinutes(10)));
+        runRepository.save(quiet);
+        reconciliationService.heartbeat();
+        assertEquals(ReconciliationRun.FAILED, reconciliationService.status(elsewhere).status);
+    }
+
+    @Test
+    @DisplayName("unknown runs are not found")
+    void unknownRun() {
+        assertThrows(IllegalArgumentException.class, () -> reconciliationService.status(-1L));
+    }
+}
@@ -0,0 +1,83 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionTokenServiceTest {
+    private static final String K1 = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes());
+    private static final String K2 = Base64.getEncoder().encodeToString("fedcba9876543210fedcba9876543210".getBytes());
+
+    private static SessionTokenService service(String active, String... keys) {
+        MockEnvironment env = new MockEnvironment().withProperty("banking.session.active-key", active);
+        for (int i = 0; i < keys.length; i += 2) env.setProperty("banking.session.keys." + keys[i], keys[i + 1]);
+        return new SessionTokenService(env);
+    }
+
+    @Test
+    @DisplayName("a token verifies to its customer; any change to it does not verify")
+    void roundTripAndTamper() {
+        SessionTokenService tokens = service("k1", "k1", K1);
+        String token = tokens.issue(42L).token();
+        assertEquals(42L, tokens.verify(token).orElseThrow().customerId());
+
+        for (int i : new int[]{token.length() - 1, token.length() - 10}) {
+            char c = token.charAt(i);
+            assertTrue(tokens.verify(token.substring(0, i) + (c == 'A' ? 'B' : 'A') + token.substring(i + 1)).isEmpty());
+        }
+        String[] parts = token.split("\\.");
+        String otherPayload = tokens.issue(43L).token().split("\\.")[1];
+        assertTrue(tokens.verify(parts[0] + "." + otherPayload + "." + parts[2]).isEmpty());
+        assertTrue(tokens.verify("k9." + parts[1] + "." + parts[2]).isEmpty());
+        assertTrue(tokens.verify("garbage").isEmpty());
+        assertTrue(tokens.verify("k1.!!.??").isEmpty());
+    }
+
+    @Test
+    @DisplayName("many virtual threads at once, one call each, all sign and verify correctly")
+    void concurrentVirtualThreads() throws Exception {
+        SessionTokenService tokens = service("k1", "k1", K1);
+        List<Future<Long>> results = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; i < 2000; i++) {
+                long customerId = i;
+                results.add(pool.submit(() -> tokens.verify(tokens.issue(customerId).token()).orElseThrow().customerId()));
+            }
+        }
+        for (int i = 0; i < results.size(); i++) assertEquals((long) i, results.get(i).get());
+    }
+
+    @Test
+    @DisplayName("after rotation, tokens signed with the retired key verify until it leaves the ring")
+    void keyRotation() {
+        String old = service("k1", "k1", K1).issue(7L).token();
+        SessionTokenService rotated = service("k2", "k1", K1, "k2", K2);
+        assertTrue(rotated.issue(7L).token().startsWith("k2."));
+        assertEquals(7L, rotated.verify(old).orElseThrow().customerId());
+        assertTrue(service("k2", "k2", K2).verify(old).isEmpty());
+    }
+
+    @Test
+    @DisplayName("revoked and expired tokens do not verify")
+    void revokeAndExpiry() {
+        SessionTokenService tokens = service("k1", "k1", K1);
+        String token = tokens.issue(5L).token();
+        String other = tokens.issue(5L).token();
+        tokens.revoke(token);
+        assertTrue(tokens.verify(token).isEmpty());
+        assertTrue(tokens.verify(other).isPresent());
+
+        MockEnvironment env = new MockEnvironment().withProperty("banking.session.ttl", "PT0S");
+        SessionTokenService expiring = new SessionTokenService(env);
+        assertTrue(expiring.verify(expiring.issue(5L).token()).isEmpty());
+    }
+}
@@ -0,0 +1,104 @@
+package com.sampleProject.BankingSystem.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.model.BankTransaction;
+import com.sampleProject.BankingSystem.repository.BankTransactionRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class StatementExportServiceTest {
+
+    @Autowired StatementExportService exportService;
+    @Autowired TestFixtures fixtures;
+    @Autowired AccountService accountService;
+    @Autowired BankTransactionRepository transactionRepository;
+    @Autowired ObjectMapper objectMapper;
+
+    static final Instant JAN = Instant.parse("2024-01-15T00:00:00Z");
+    static final Instant FEB = Instant.parse("2024-02-01T00:00:00Z");
+    static final Instant MAR = Instant.parse("2024-03-01T00:00:00Z");
+
+    Long accountId;
+    List<BankTransaction> rows;
+
+    // opening deposit in January, three deposits in February, one in March
+    @BeforeEach
+    void seed() {
+        accountId = fixtures.customerWithAccount(AccountType.CURRENT, "100.00").getId();
+        accountService.deposit(accountId, new BigDecimal("1.00"), "plain");
+        accountService.deposit(accountId, new BigDecimal("2.00"), "rent, \"March\"");
+        accountService.deposit(accountId, new BigDecimal("3.00"), "line one\nline two");
+        accountService.deposit(accountId, new BigDecimal("4.00"), "later");
+        rows = fixtures.ledger(accountId);
+        rows.get(0).setTxnDate(JAN);
+        for (int i = 1; i < 4; i++) rows.get(i).setTxnDate(FEB.plusSeconds(i));
+        rows.get(4).setTxnDate(MAR.plusSeconds(1));
+        transactionRepository.saveAll(rows);
+    }
+
+    private String export(Instant from, Instant to, StatementExportService.Format format, long expectedRows) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(expectedRows, exportService.export(accountId, from, to, format, out));
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("NDJSON: one object per line for the rows in [from, to), oldest first")
+    void ndjsonRange() throws Exception {
+        String[] lines = export(FEB, MAR, StatementExportService.Format.NDJSON, 3).split("\n");
+        assertEquals(3, lines.length);
+        for (int i = 0; i < 3; i++) {
+            JsonNode node = objectMapper.readTree(lines[i]);
+            BankTransaction row = rows.get(i + 1);
+            assertEquals(row.getId().longValue(), node.get("id").asLong());
+            assertEquals(row.getNote(), node.get("note").asText());
+            assertEquals(0, row.getAmount().compareTo(node.get("amount").decimalValue()));
+            assertEquals(FEB.plusSeconds(i + 1), Instant.parse(node.get("txnDate").asText()));
+        }
+    }
+
+    @Test
+    @DisplayName("CSV: header, then the rows in range, with notes that need it quoted")
+    void csvRangeAndQuoting() throws Exception {
+        String csv = export(FEB, MAR, StatementExportService.Format.CSV, 3);
+        String id1 = String.valueOf(rows.get(1).getId());
+        String id2 = String.valueOf(rows.get(2).getId());
+        String id3 = String.valueOf(rows.get(3).getId());
+        assertTrue(csv.startsWith("id,txnType,amount,txnDate,note,balanceAfter\n" + id1 + ",DEPOSIT,1.00,"), csv);
+        assertTrue(csv.contains(",plain,"), csv);
+        assertTrue(csv.contains("\n" + id2 + ",DEPOSIT,2.00," + FEB.plusSeconds(2) + ",\"rent, \"\"March\"\"\","), csv);
+        assertTrue(csv.contains("\n" + id3 + ",DEPOSIT,3.00," + FEB.plusSeconds(3) + ",\"line one\nline two\","), csv);
+        assertFalse(csv.contains("later"), csv);
+
+        assertEquals("", StatementExportService.csv(null));
+        assertEquals("\"a\"\"b\"", StatementExportService.csv("a\"b"));
+        assertEquals("\"a\r\nb\"", StatementExportService.csv("a\r\nb"));
+    }
+
+    @Test
+    @DisplayName("a range with no rows is an empty NDJSON body and a header-only CSV")
+    void emptyRange() throws Exception {
+        Instant from = Instant.parse("2023-01-01T00:00:00Z");
+        Instant to = Instant.parse("2023-02-01T00:00:00Z");
+        assertEquals("", export(from, to, StatementExportService.Format.NDJSON, 0));
+        assertEquals("id,txnType,amount,txnDate,note,balanceAfter\n", export(from, to, StatementExportService.Format.CSV, 0));
+    }
+}
@@ -0,0 +1,38 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// partitioning itself needs PostgreSQL; on H2 the service must stay out of the way
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class TransactionPartitionServiceTest {
+
+    @Autowired TransactionPartitionService partitionService;
+
+    @Test
+    @DisplayName("partitions are named and bounded by UTC month")
+    void monthlyPartitions() {
+        assertEquals("transactions_2025_01", TransactionPartitionService.partitionName(YearMonth.of(2025, 1)));
+        assertEquals(Instant.parse("2025-12-01T00:00:00Z"), TransactionPartitionService.monthStart(YearMonth.of(2025, 12)));
+    }
+
+    @Test
+    @DisplayName("on other databases maintenance does nothing; only archived past months can be detached")
+    void noOpWithoutPostgres() {
+        partitionService.maintain();
+        assertTrue(partitionService.partitions().isEmpty());
+        // nothing is archived in this database
+        assertThrows(IllegalArgumentException.class, () -> partitionService.detach(YearMonth.of(2020, 1)));
+        assertThrows(IllegalArgumentException.class, () -> partitionService.detach(YearMonth.now(ZoneOffset.UTC)));
+    }
+}
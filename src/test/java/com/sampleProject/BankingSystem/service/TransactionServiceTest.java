@@ -0,0 +1,96 @@
+package com.sampleProject.BankingSystem.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.sampleProject.BankingSystem.TestFixtures;
+import com.sampleProject.BankingSystem.dto.AccountDtos;
+import com.sampleProject.BankingSystem.model.AccountType;
+import com.sampleProject.BankingSystem.model.BankTransaction;
+import com.sampleProject.BankingSystem.repository.BankTransactionRepository;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class TransactionServiceTest {
+
+    @Autowired TransactionService transactionService;
+    @Autowired TestFixtures fixtures;
+    @Autowired AccountService accountService;
+    @Autowired BankTransactionRepository transactionRepository;
+    @Autowired MockMvc mockMvc;
+
+    @Test
+    @DisplayName("pages walk the whole history newest first, once each, through rows that share a txnDate")
+    void walksPagesAcrossTies() {
+        Long id = fixtures.customerWithAccount(AccountType.CURRENT, null).getId();
+        for (int i = 0; i < 7; i++) accountService.deposit(id, new BigDecimal("1.00"), "d" + i);
+        // three rows at one instant, three at another: page boundaries must fall inside both groups
+        List<BankTransaction> rows = fixtures.ledger(id);
+        for (int i = 0; i < rows.size(); i++) {
+            rows.get(i).setTxnDate(Instant.parse(i < 3 ? "2024-01-01T00:00:00Z" : i < 6 ? "2024-02-01T00:00:00Z" : "2024-03-01T00:00:00Z"));
+        }
+        transactionRepository.saveAll(rows);
+        List<Long> expected = rows.stream()
+                .sorted(Comparator.comparing(BankTransaction::getTxnDate).thenComparing(BankTransaction::getId).reversed())
+                .map(BankTransaction::getId).toList();
+
+        List<Long> seen = new ArrayList<>();
+        int pages = 0;
+        String cursor = null;
+        do {
+            TransactionService.Page page = transactionService.list(id, cursor, 2);
+            page.items().forEach(t -> seen.add(t.id));
+            cursor = page.nextCursor();
+            if (cursor != null) {
+                AccountDtos.TransactionResponse last = page.items().get(page.items().size() - 1);
+                assertEquals(TransactionService.encodeCursor(last.txnDate, last.id), cursor);
+            }
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(expected, seen);
+        assertEquals(4, pages);
+        // an exactly full last page still ends the walk
+        assertNull(transactionService.list(id, null, 7).nextCursor());
+    }
+
+    @Test
+    @DisplayName("a cursor decodes to the row it was made from; anything else is a bad request")
+    void cursorRoundTripAndMalformed() throws Exception {
+        Instant at = Instant.parse("2024-05-06T07:08:09.123456Z");
+        String[] key = TransactionService.decodeCursor(TransactionService.encodeCursor(at, 42L));
+        assertEquals(at, Instant.parse(key[0]));
+        assertEquals("42", key[1]);
+
+        assertThrows(IllegalArgumentException.class, () -> TransactionService.decodeCursor("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> TransactionService.decodeCursor(
+                Base64.getUrlEncoder().encodeToString("yesterday|42".getBytes(StandardCharsets.UTF_8))));
+        assertThrows(IllegalArgumentException.class, () -> transactionService.list(1L, null, 0));
+
+        Long id = fixtures.customerWithAccount(AccountType.CURRENT, "10.00").getId();
+        mockMvc.perform(get("/api/v1/accounts/" + id + "/transactions").param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/accounts/" + id + "/transactions"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+}